@@ -2,8 +2,29 @@ package com.qgschina.udssdk.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.qgschina.udssdk.client.cache.CacheConfig;
+import com.qgschina.udssdk.client.cache.CacheStats;
+import com.qgschina.udssdk.client.cache.ResultCache;
 import com.qgschina.udssdk.client.constant.UdsCode;
+import com.qgschina.udssdk.client.model.CallOptions;
+import com.qgschina.udssdk.client.model.MethodCall;
 import com.qgschina.udssdk.client.model.UdsResult;
+import com.qgschina.udssdk.client.pool.ChannelPool;
+import com.qgschina.udssdk.client.pool.PoolConfig;
+import com.qgschina.udssdk.client.pool.PooledChannel;
+import com.qgschina.udssdk.client.pool.Replica;
+import com.qgschina.udssdk.client.pool.ReplicaSet;
+import com.qgschina.udssdk.client.sub.DeliveryConfig;
+import com.qgschina.udssdk.client.sub.DeliveryQueue;
+import com.qgschina.udssdk.client.sub.Subscription;
+import com.qgschina.udssdk.client.sub.SubscriptionMux;
+import com.qgschina.udssdk.client.sub.SubscriptionStats;
+import com.qgschina.udssdk.common.codec.ChunkWriter;
+import com.qgschina.udssdk.common.codec.ChunkedInputStream;
+import com.qgschina.udssdk.common.codec.JsonCodec;
 import com.qgschina.udssdk.common.constant.InnerErrorCode;
 import com.qgschina.udssdk.common.constant.InnerReqType;
 import com.qgschina.udssdk.common.constant.ServiceType;
@@ -13,33 +34,78 @@ import com.qgschina.udssdk.common.exception.UdsSdkException;
 import com.qgschina.udssdk.common.model.InnerReqData;
 import com.qgschina.udssdk.common.model.InnerRespData;
 import com.qgschina.udssdk.common.model.NamespaceResultData;
+import com.qgschina.udssdk.common.trace.Tracer;
 import com.qgschina.udssdk.common.util.DataTypeUtils;
+import com.qgschina.udssdk.common.util.JsonEngine;
 import com.qgschina.udssdk.common.util.JsonUtils;
-import io.netty.channel.unix.DomainSocketAddress;
-import io.netty.handler.codec.json.JsonObjectDecoder;
-import io.netty.handler.timeout.ReadTimeoutException;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.util.CharsetUtil;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.server.annotation.UdsMethod;
+import com.qgschina.udssdk.server.annotation.UdsSignal;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.netty.Connection;
-import reactor.netty.DisposableChannel;
-import reactor.netty.tcp.TcpClient;
 
+import java.io.Closeable;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.nio.channels.ClosedChannelException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * 用于连接 Server 执行接口调用
  */
 @Slf4j
-public class Client {
+public class Client implements AutoCloseable {
+
+  /**
+   * 用于生成请求 ID
+   */
+  private static final AtomicLong REQUEST_ID = new AtomicLong();
+
+  /**
+   * 用于在请求超时后完成调用
+   * <p>
+   * 时间轮的精度为 10 毫秒, 大量请求的超时计时开销仅为 O(1)
+   */
+  private static final HashedWheelTimer TIMEOUT_TIMER = new HashedWheelTimer(
+      new DefaultThreadFactory("uds-client-timeout", true),
+      10, TimeUnit.MILLISECONDS);
+
+  /**
+   * 用于构造反序列化 Server 响应数据的 {@link ObjectReader}
+   */
+  private static final ObjectMapper RESP_MAPPER = JsonEngine.getMapper();
+
+  /**
+   * 已构造的 {@code InnerRespData<T>} 反序列化对象, Key 为具体返回结果的类型
+   */
+  private static final Map<JavaType, ObjectReader> RESP_READERS =
+      new ConcurrentHashMap<>();
 
   /**
    * 最终连接服务时使用的 Socket 文件所在路径
@@ -52,29 +118,147 @@ public class Client {
   private final int maxBytesMb;
 
   /**
-   * 等待 Server 端返回数据的超时时间
+   * 等待 Server 端返回数据的默认超时时间, 单位: 毫秒
+   */
+  private final long timeoutMillis;
+
+  /**
+   * 同一命名空间下的所有 Server 副本, 各副本使用各自的连接池,
+   * 用于方法调用, 信号触发及获取地址空间
+   */
+  private final ReplicaSet replicas;
+
+  /**
+   * 已缓存的地址空间, Key 为获取地址空间的请求类型
+   */
+  private final Map<InnerReqType, InnerRespData<NamespaceResultData>>
+      namespaceCache = new ConcurrentHashMap<>();
+
+  /**
+   * 已启用缓存的方法的调用结果缓存, Key 为方法名
+   */
+  private final Map<String, ResultCache> resultCaches =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 该 Client 尚未取消的信号订阅, 关闭 Client 时一并取消
+   */
+  private final Set<UdsConnection> subscriptions =
+      ConcurrentHashMap.newKeySet();
+
+  /**
+   * 是否已关闭
    */
-  private final int timeout;
+  private final AtomicBoolean closed = new AtomicBoolean();
 
   /**
    * 创建一个新的 Client 实例
    *
    * @param type       服务类型
    * @param namespace  服务子命名空间
-   * @param timeout    等待 Server 端返回的超时时间, 单位: 秒 (对订阅不生效)
+   * @param timeout    等待 Server 端返回的超时时间, 单位: 秒 (对订阅仅用于等待订阅响应)
    * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
    */
   public Client(ServiceType type, String namespace, int timeout,
       int maxBytesMb) {
+    this(type, namespace, timeout, maxBytesMb, new PoolConfig());
+  }
+
+  /**
+   * 创建一个新的 Client 实例
+   * <p>
+   * 注意: 以相同连接池配置连接同一 Socket 文件的 Client 共享连接池
+   *
+   * @param type       服务类型
+   * @param namespace  服务子命名空间
+   * @param timeout    等待 Server 端返回的超时时间, 单位: 秒 (对订阅仅用于等待订阅响应)
+   * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
+   * @param poolConfig 连接池配置
+   */
+  public Client(ServiceType type, String namespace, int timeout,
+      int maxBytesMb, PoolConfig poolConfig) {
+    this(type, namespace, Duration.ofSeconds(timeout), maxBytesMb,
+        poolConfig);
+  }
+
+  /**
+   * 创建一个新的 Client 实例
+   *
+   * @param type       服务类型
+   * @param namespace  服务子命名空间
+   * @param timeout    等待 Server 端返回的默认超时时间, 精确到毫秒 (对订阅仅用于等待订阅响应)
+   * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
+   */
+  public Client(ServiceType type, String namespace, Duration timeout,
+      int maxBytesMb) {
+    this(type, namespace, timeout, maxBytesMb, new PoolConfig());
+  }
+
+  /**
+   * 创建一个新的 Client 实例
+   * <p>
+   * 注意: 以相同连接池配置连接同一 Socket 文件的 Client 共享连接池
+   *
+   * @param type       服务类型
+   * @param namespace  服务子命名空间
+   * @param timeout    等待 Server 端返回的默认超时时间, 精确到毫秒 (对订阅仅用于等待订阅响应)
+   * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
+   * @param poolConfig 连接池配置
+   */
+  public Client(ServiceType type, String namespace, Duration timeout,
+      int maxBytesMb, PoolConfig poolConfig) {
     domainSocketAddr = type.value() + "." + namespace;
     this.maxBytesMb = maxBytesMb;
-    this.timeout = timeout;
+    timeoutMillis = timeout.toMillis();
+    replicas = ReplicaSet.get(domainSocketAddr, maxBytesMb, poolConfig);
+
+    // 预热 SDK 内部数据的序列化器及反序列化器, 以免首个请求时才构造
+    JsonEngine.warmUp(InnerReqData.class);
+    getRespReader(RESP_MAPPER.constructType(Object.class));
+    getRespReader(RESP_MAPPER.constructType(NamespaceResultData.class));
+  }
+
+  /**
+   * 创建类型化的接口代理
+   * <p>
+   * 接口中的每个方法都必须使用 {@link UdsMethod} (方法调用) 或
+   * {@link UdsSignal} (信号触发) 注解, 注解值即为方法名或信号名.
+   * 参数类型标识及返回值的反序列化对象均在创建代理时预先计算, 接口方法的返回值可以是:
+   *
+   * <ul>
+   *   <li>{@code UdsResult<T>}: 同步调用, 返回结果直接反序列化为 {@code T}</li>
+   *   <li>{@code CompletableFuture<UdsResult<T>>}: 异步调用</li>
+   *   <li>{@code void} 或其他类型 {@code T}: 同步调用,
+   *   调用失败时抛出 {@link UdsSdkException}</li>
+   * </ul>
+   *
+   * @param serviceInterface 服务接口
+   * @param <T>              服务接口类型
+   * @return 接口代理
+   */
+  public <T> T createProxy(Class<T> serviceInterface) {
+    if (!serviceInterface.isInterface()) {
+      throw new ParamException("仅支持代理接口: " + serviceInterface.getName());
+    }
+
+    Object proxy = Proxy.newProxyInstance(serviceInterface.getClassLoader(),
+        new Class<?>[]{serviceInterface},
+        new ProxyInvocationHandler(this, serviceInterface));
+    return serviceInterface.cast(proxy);
   }
 
   /**
    * 信号订阅 (长连接)
    * <p>
    * 当 Server 对指定信号进行消息推送时, 就会执行 {@code consumer}
+   * <p>
+   * 连接同一 Socket 文件的所有信号订阅共享同一个长连接, 且同一信号的多个订阅仅向
+   * Server 订阅一次; 等待 Server 端订阅响应的超时时间同方法调用
+   * <p>
+   * 长连接意外断开后 (如 Server 重启), 会按带随机抖动的指数退避自动重连并重新订阅,
+   * 并由 Server 补发断线期间的消息 (需 Server 保留最近推送的消息)
+   * <p>
+   * 使用默认的消息分发配置, 即在 SDK 内部共享的线程池中按顺序执行 {@code consumer}
    *
    * @param consumer 当 Server 端有返回结果时的消费者
    * @param signal   需要进行"信号订阅"的信号名
@@ -83,34 +267,65 @@ public class Client {
   public UdsResult<UdsConnection> subSignal(
       Consumer<UdsResult<Object>> consumer,
       String signal, Object... args) {
-    TcpClient client = getClient();
+    return subSignal(consumer, new DeliveryConfig(), signal, args);
+  }
+
+  /**
+   * 信号订阅 (长连接)
+   * <p>
+   * 同 {@link #subSignal(Consumer, String, Object...)}, 但可指定消息分发配置:
+   * 收到的消息先加入该订阅独立的有界队列, 再在指定线程池中按接收顺序逐条执行
+   * {@code consumer}, 队列已满时按指定策略处理
+   *
+   * @param consumer       当 Server 端有返回结果时的消费者
+   * @param deliveryConfig 消息分发配置
+   * @param signal         需要进行"信号订阅"的信号名
+   * @param args           传递给 Server 的参数, 可能在首次建立订阅时需要
+   */
+  public UdsResult<UdsConnection> subSignal(
+      Consumer<UdsResult<Object>> consumer, DeliveryConfig deliveryConfig,
+      String signal, Object... args) {
+    if (closed.get()) {
+      return genResult(UdsCode.SIGNAL_SUB_ERROR, "Client 已关闭", null);
+    }
 
     InnerReqData reqData = genReqData(InnerReqType.SIGNAL_SUB, signal, args);
 
-    String jsonReq;
+    DeliveryQueue queue = new DeliveryQueue(deliveryConfig,
+        respData -> handleSubSignal(consumer, respData));
+    Subscription sub = new Subscription(signal, reqData,
+        timeoutMillis, queue::offer);
+    SubscriptionMux mux = SubscriptionMux.get(
+        replicas.getPrimarySocketPath(), maxBytesMb);
+
+    InnerRespData<Object> ack;
     try {
-      jsonReq = JsonUtils.toJson(reqData);
-    } catch (JsonProcessingException e) {
-      throw new DataProcessException("SDK 序列化失败", e);
+      ack = mux.subscribe(sub).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      mux.unsubscribe(sub);
+      queue.close();
+      return genResult(UdsCode.SIGNAL_SUB_ERROR, "Client 线程被中断", null);
+    } catch (ExecutionException e) {
+      mux.unsubscribe(sub);
+      queue.close();
+      return handleSubException(e.getCause());
     }
 
-    Connection conn;
+    if (ack.getCode() == InnerErrorCode.ERROR.value()) {
+      return genResult(UdsCode.SIGNAL_SUB_ERROR, ack.getMsg(), null);
+    }
 
-    try {
-      conn = client
-          .handle((in, out) -> out
-              .sendString(Mono.just(jsonReq))
-              .then(in.receive()
-                  .asString(CharsetUtil.UTF_8)
-                  .log()
-                  .doOnNext(jsonResp -> handleSubSignal(consumer, jsonResp))
-                  .then()))
-          .connectNow();
-    } catch (Exception e) {
-      return handleConnectException(e);
+    UdsConnection connection =
+        new UdsConnection(mux, sub, queue, subscriptions);
+    subscriptions.add(connection);
+    // 订阅期间 Client 恰好被关闭
+    if (closed.get()) {
+      connection.disconnectSub();
+      return genResult(UdsCode.SIGNAL_SUB_ERROR, "Client 已关闭", null);
     }
 
-    return genResult(UdsCode.SUCCESS, "服务连接成功", new UdsConnection(conn));
+    return genResult(UdsCode.SUCCESS, "服务连接成功", connection);
   }
 
   /**
@@ -119,7 +334,7 @@ public class Client {
    * @return 所有可被方法调用的方法
    */
   public UdsResult<NamespaceResultData> getAllMethods() {
-    return callMethod(InnerReqType.GET_ALL_METHODS, null, null);
+    return getNamespace(InnerReqType.GET_ALL_METHODS);
   }
 
   /**
@@ -128,7 +343,7 @@ public class Client {
    * @return 所有可被触发或订阅的信号
    */
   public UdsResult<NamespaceResultData> getAllSignals() {
-    return callMethod(InnerReqType.GET_ALL_SIGNALS, null, null);
+    return getNamespace(InnerReqType.GET_ALL_SIGNALS);
   }
 
   /**
@@ -137,7 +352,7 @@ public class Client {
    * @return 所有可被调用的方法, 及可被触发或订阅的信号
    */
   public UdsResult<NamespaceResultData> getAllMethodsAndSignals() {
-    return callMethod(InnerReqType.GET_ALL_METHODS_SIGNALS, null, null);
+    return getNamespace(InnerReqType.GET_ALL_METHODS_SIGNALS);
   }
 
   /**
@@ -150,7 +365,62 @@ public class Client {
    * @return 执行指定方法后的返回结果
    */
   public UdsResult<Object> callMethod(String method, Object... args) {
-    return callMethod(InnerReqType.CALL_METHOD, method, args);
+    return await(callMethodAsync(method, args));
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethod(String, Object...)}, 但使用指定的调用选项, 如超时时间
+   *
+   * @param options 调用选项
+   * @param method  方法名
+   * @param args    可变长方法参数
+   * @return 执行指定方法后的返回结果
+   */
+  public UdsResult<Object> callMethod(CallOptions options, String method,
+      Object... args) {
+    return await(callMethodAsync(options, method, args));
+  }
+
+  /**
+   * 批量方法调用
+   * <p>
+   * 在一次请求中同步调用多个相互独立的方法, Server 端会并行执行这些方法,
+   * 故这些方法之间不可存在执行顺序上的依赖; 不支持带有流参数的方法
+   *
+   * @param calls 方法调用列表
+   * @return 按调用顺序排列的各方法调用的返回结果
+   */
+  public UdsResult<List<UdsResult<Object>>> callMethods(
+      List<MethodCall> calls) {
+    return await(callMethodsAsync(calls));
+  }
+
+  /**
+   * 批量方法调用
+   * <p>
+   * 同 {@link #callMethods(List)}, 但等待返回结果期间不会阻塞任何线程
+   * <p>
+   * 注意: 返回结果会在 Netty I/O 线程中完成, 故后续回调不可执行阻塞操作
+   *
+   * @param calls 方法调用列表
+   * @return 按调用顺序排列的各方法调用的返回结果
+   */
+  public CompletableFuture<UdsResult<List<UdsResult<Object>>>>
+  callMethodsAsync(List<MethodCall> calls) {
+    InnerReqData reqData = new InnerReqData();
+    reqData.setType(InnerReqType.BATCH_CALL_METHOD.value());
+
+    List<InnerReqData> innerCalls = new ArrayList<>();
+    for (MethodCall call : calls) {
+      innerCalls.add(genReqData(InnerReqType.CALL_METHOD, call.getMethod(),
+          call.getArgs()));
+    }
+    reqData.setCalls(innerCalls);
+
+    return this.<List<Object>>sendAsync(reqData, this::handleResp)
+        .thenApply(this::toBatchResult);
   }
 
   /**
@@ -163,80 +433,740 @@ public class Client {
    * @return 信号是否触发成功
    */
   public UdsResult<Void> triggerSignal(String signal, Object... args) {
-    return callMethod(InnerReqType.SIGNAL, signal, args);
+    return triggerSignal(new CallOptions(), signal, args);
   }
 
   /**
-   * 获取配置后的 {@link TcpClient}
+   * 信号触发
+   * <p>
+   * 同 {@link #triggerSignal(String, Object...)}, 但使用指定的调用选项, 如超时时间
+   * <p>
+   * 注意: 截止时间仅约束 Server 端确认信号触发之前, 不影响已确认的信号的异步执行
    *
-   * @return 配置后的 {@link TcpClient}
+   * @param options 调用选项
+   * @param signal  信号名
+   * @param args    可变长信号参数
+   * @return 信号是否触发成功
    */
-  private TcpClient getClient() {
-    return TcpClient.create()
-        // Unix Domain Sockets (UDS)
-        .remoteAddress(() -> new DomainSocketAddress(domainSocketAddr))
-        // 开启 Wire Logger
-        .wiretap(true)
-        .doOnConnected(conn -> conn
-            // 各语言间数据都是通过 JSON 字符串传递
-            // 默认最大支持 1 MB 字节数
-            .addHandler(new JsonObjectDecoder(1024 * 1024 * maxBytesMb)));
+  public UdsResult<Void> triggerSignal(CallOptions options, String signal,
+      Object... args) {
+    return await(triggerSignalAsync(options, signal, args));
   }
 
   /**
-   * 执行方法调用
+   * 方法调用
+   * <p>
+   * 异步调用某个方法, 等待返回结果期间不会阻塞任何线程
+   * <p>
+   * 注意: 返回结果会在 Netty I/O 线程中完成, 故后续回调不可执行阻塞操作
    *
-   * @param type   请求类型
-   * @param signal 信号名或方法名
-   * @param args   请求参数 (方法参数)
+   * @param method 方法名
+   * @param args   可变长方法参数
+   * @return 执行指定方法后的返回结果
+   */
+  public CompletableFuture<UdsResult<Object>> callMethodAsync(String method,
+      Object... args) {
+    return callMethodAsync(new CallOptions(), method, args);
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethodAsync(String, Object...)}, 但使用指定的调用选项, 如超时时间
+   *
+   * @param options 调用选项
+   * @param method  方法名
+   * @param args    可变长方法参数
+   * @return 执行指定方法后的返回结果
+   */
+  public CompletableFuture<UdsResult<Object>> callMethodAsync(
+      CallOptions options, String method, Object... args) {
+    ResultCache cache = resultCaches.get(method);
+    String key = cache == null ? null : ResultCache.genKey(args);
+    if (key == null) {
+      return callMethodAsync(InnerReqType.CALL_METHOD, options, method, args);
+    }
+
+    UdsResult<Object> cached = cache.get(key);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+
+    long generation = cache.generation();
+    return this.<Object>callMethodAsync(InnerReqType.CALL_METHOD, options,
+        method, args)
+        .whenComplete((result, thr) -> {
+          if (result != null) {
+            cache.put(key, result, generation);
+          }
+        });
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethod(String, Object...)}, 但将返回结果直接反序列化为指定类型,
+   * 而非先反序列化为 {@code Map} 等通用结构再由调用方转换
+   * <p>
+   * 注意: 该方法不使用调用结果缓存
+   *
+   * @param resultType 返回结果的类型
+   * @param method     方法名
+   * @param args       可变长方法参数
+   * @param <T>        返回结果的类型
+   * @return 执行指定方法后的返回结果
+   */
+  public <T> UdsResult<T> callMethod(Class<T> resultType, String method,
+      Object... args) {
+    return await(callMethodAsync(resultType, method, args));
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethod(Class, String, Object...)}, 但支持泛型返回结果,
+   * 如 {@code List<Artifact>}
+   *
+   * @param resultType 返回结果的类型引用
+   * @param method     方法名
+   * @param args       可变长方法参数
+   * @param <T>        返回结果的类型
+   * @return 执行指定方法后的返回结果
+   */
+  public <T> UdsResult<T> callMethod(TypeReference<T> resultType,
+      String method, Object... args) {
+    return await(callMethodAsync(resultType, method, args));
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethodAsync(String, Object...)}, 但将返回结果直接反序列化为指定类型
+   * <p>
+   * 注意: 该方法不使用调用结果缓存
+   *
+   * @param resultType 返回结果的类型
+   * @param method     方法名
+   * @param args       可变长方法参数
+   * @param <T>        返回结果的类型
+   * @return 执行指定方法后的返回结果
+   */
+  public <T> CompletableFuture<UdsResult<T>> callMethodAsync(
+      Class<T> resultType, String method, Object... args) {
+    return callMethodAsync(
+        RESP_MAPPER.getTypeFactory().constructType(resultType), method, args);
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethodAsync(Class, String, Object...)}, 但支持泛型返回结果
+   *
+   * @param resultType 返回结果的类型引用
+   * @param method     方法名
+   * @param args       可变长方法参数
+   * @param <T>        返回结果的类型
+   * @return 执行指定方法后的返回结果
+   */
+  public <T> CompletableFuture<UdsResult<T>> callMethodAsync(
+      TypeReference<T> resultType, String method, Object... args) {
+    return callMethodAsync(
+        RESP_MAPPER.getTypeFactory().constructType(resultType), method, args);
+  }
+
+  /**
+   * 启用某个方法的调用结果缓存
+   * <p>
+   * 仅适用于只读且结果变化不频繁的方法, 启用后 {@code callMethod*}
+   * 会优先返回未过期的缓存结果, 缓存 Key 为规范化后的方法参数;
+   * 仅缓存调用成功的结果, 且重复启用会清空已有缓存
+   * <p>
+   * 注意: 命中缓存时返回的数据对象为共享对象, 调用方不可修改
+   *
+   * @param method 方法名
+   * @param config 缓存配置
+   */
+  public void enableResultCache(String method, CacheConfig config) {
+    resultCaches.put(method, new ResultCache(config));
+  }
+
+  /**
+   * 停用某个方法的调用结果缓存, 并清空已有缓存
+   *
+   * @param method 方法名
+   */
+  public void disableResultCache(String method) {
+    resultCaches.remove(method);
+  }
+
+  /**
+   * 清空某个方法的调用结果缓存, 但仍保持启用
+   *
+   * @param method 方法名
+   */
+  public void invalidateResultCache(String method) {
+    ResultCache cache = resultCaches.get(method);
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * 获取某个方法的调用结果缓存的统计信息
+   *
+   * @param method 方法名
+   * @return 统计信息, 未启用缓存时返回 {@code null}
+   */
+  public CacheStats getResultCacheStats(String method) {
+    ResultCache cache = resultCaches.get(method);
+    return cache == null ? null : cache.getStats();
+  }
+
+  /**
+   * 关闭 Client, 取消其所有信号订阅并释放其使用的连接池
+   * <p>
+   * 连接池由配置相同的 Client 共享, 所有使用者都已关闭后才停止发现副本并关闭连接;
+   * 尚未被消费的订阅消息将被丢弃. 关闭后的调用及订阅均直接返回失败, 重复调用无效
+   */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+
+    for (UdsConnection connection : new ArrayList<>(subscriptions)) {
+      connection.disconnectSub();
+    }
+    replicas.close();
+  }
+
+  /**
+   * 信号触发
+   * <p>
+   * 异步触发某个信号, 等待 Server 端确认期间不会阻塞任何线程
+   * <p>
+   * 注意: 返回结果会在 Netty I/O 线程中完成, 故后续回调不可执行阻塞操作
+   *
+   * @param signal 信号名
+   * @param args   可变长信号参数
+   * @return 信号是否触发成功
+   */
+  public CompletableFuture<UdsResult<Void>> triggerSignalAsync(String signal,
+      Object... args) {
+    return triggerSignalAsync(new CallOptions(), signal, args);
+  }
+
+  /**
+   * 信号触发
+   * <p>
+   * 同 {@link #triggerSignalAsync(String, Object...)}, 但使用指定的调用选项, 如超时时间
+   *
+   * @param options 调用选项
+   * @param signal  信号名
+   * @param args    可变长信号参数
+   * @return 信号是否触发成功
+   */
+  public CompletableFuture<UdsResult<Void>> triggerSignalAsync(
+      CallOptions options, String signal, Object... args) {
+    return callMethodAsync(InnerReqType.SIGNAL, options, signal, args);
+  }
+
+  /**
+   * 方法调用
+   * <p>
+   * 同 {@link #callMethodAsync(String, Object...)},
+   * 但仅在订阅时才发送请求, 取消订阅则放弃等待返回结果
+   *
+   * @param method 方法名
+   * @param args   可变长方法参数
+   * @return 执行指定方法后的返回结果
+   */
+  public Mono<UdsResult<Object>> callMethodMono(String method,
+      Object... args) {
+    return toMono(() -> callMethodAsync(method, args));
+  }
+
+  /**
+   * 信号触发
+   * <p>
+   * 同 {@link #triggerSignalAsync(String, Object...)},
+   * 但仅在订阅时才发送请求, 取消订阅则放弃等待返回结果
+   *
+   * @param signal 信号名
+   * @param args   可变长信号参数
+   * @return 信号是否触发成功
+   */
+  public Mono<UdsResult<Void>> triggerSignalMono(String signal,
+      Object... args) {
+    return toMono(() -> triggerSignalAsync(signal, args));
+  }
+
+  /**
+   * 同步等待异步调用的返回结果
+   *
+   * @param future 异步调用的返回结果
    * @param <T>    具体的返回数据结果类型
    * @return UDS 响应结果
    */
-  private <T> UdsResult<T> callMethod(InnerReqType type, String signal,
-      Object[] args) {
-    TcpClient client = getClient()
-        .doOnConnected(conn -> conn
-            // 等待 Server 端返回的超时时间
-            .addHandler(new ReadTimeoutHandler(timeout, TimeUnit.SECONDS)));
+  <T> UdsResult<T> await(CompletableFuture<UdsResult<T>> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(false);
+      return genResult(UdsCode.METHOD_CALL_ERROR, "Client 线程被中断", null);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof UdsSdkException) {
+        throw (UdsSdkException) cause;
+      }
+      throw new UdsSdkException("Client 内部异常", cause);
+    }
+  }
+
+  /**
+   * 执行方法调用
+   *
+   * @param type    请求类型
+   * @param options 调用选项
+   * @param signal  信号名或方法名
+   * @param args    请求参数 (方法参数)
+   * @param <T>     具体的返回数据结果类型
+   * @return UDS 响应结果
+   */
+  private <T> CompletableFuture<UdsResult<T>> callMethodAsync(
+      InnerReqType type, CallOptions options, String signal, Object[] args) {
+    return sendAsync(genReqData(type, signal, args), options,
+        this::handleResp);
+  }
+
+  /**
+   * 执行方法调用, 并将返回结果直接反序列化为指定类型
+   *
+   * @param resultType 返回结果的类型
+   * @param method     方法名
+   * @param args       请求参数 (方法参数)
+   * @param <T>        返回结果的类型
+   * @return UDS 响应结果
+   */
+  private <T> CompletableFuture<UdsResult<T>> callMethodAsync(
+      JavaType resultType, String method, Object[] args) {
+    ObjectReader respReader = getRespReader(resultType);
+    return sendAsync(genReqData(InnerReqType.CALL_METHOD, method, args),
+        (frame, codec) -> handleResp(frame, codec, respReader));
+  }
+
+  /**
+   * 获取用于反序列化 {@code InnerRespData<T>} 的对象, 同一类型仅构造一次
+   *
+   * @param resultType 具体返回结果的类型
+   * @return 反序列化对象
+   */
+  static ObjectReader getRespReader(JavaType resultType) {
+    return RESP_READERS.computeIfAbsent(resultType,
+        type -> RESP_MAPPER.readerFor(RESP_MAPPER.getTypeFactory()
+            .constructParametricType(InnerRespData.class, type)));
+  }
 
-    InnerReqData reqData = genReqData(type, signal, args);
+  /**
+   * 获取地址空间
+   * <p>
+   * 若已缓存该地址空间, 则仅在 Server 端的注册信息变化后才重新获取
+   *
+   * @param type 获取地址空间的请求类型
+   * @return 地址空间
+   */
+  private UdsResult<NamespaceResultData> getNamespace(InnerReqType type) {
+    InnerReqData reqData = genReqData(type, null, null);
 
-    String jsonReq;
+    InnerRespData<NamespaceResultData> cached = namespaceCache.get(type);
+    if (cached != null) {
+      reqData.setVersion(cached.getVersion());
+    }
+
+    return await(sendAsync(reqData,
+        (frame, codec) -> handleNamespaceResp(type, cached, frame, codec)));
+  }
+
+  /**
+   * 发送请求, 并异步等待 Server 端响应
+   *
+   * @param reqData 请求数据
+   * @param decoder 用于将 Server 响应数据帧转换为最终返回给用户的结果
+   * @param <T>     具体的返回数据结果类型
+   * @return UDS 响应结果
+   */
+  <T> CompletableFuture<UdsResult<T>> sendAsync(InnerReqData reqData,
+      BiFunction<ByteBuf, PayloadCodec, UdsResult<T>> decoder) {
+    return sendAsync(reqData, new CallOptions(), decoder);
+  }
+
+  /**
+   * 发送请求, 并异步等待 Server 端响应
+   *
+   * @param reqData 请求数据
+   * @param options 调用选项
+   * @param decoder 用于将 Server 响应数据帧转换为最终返回给用户的结果
+   * @param <T>     具体的返回数据结果类型
+   * @return UDS 响应结果
+   */
+  <T> CompletableFuture<UdsResult<T>> sendAsync(InnerReqData reqData,
+      CallOptions options,
+      BiFunction<ByteBuf, PayloadCodec, UdsResult<T>> decoder) {
+    if (closed.get()) {
+      // 与正常请求一样, 由 SDK 关闭流参数
+      closeQuietly(takeStreamSource(reqData));
+      return CompletableFuture.completedFuture(
+          genResult(UdsCode.NOT_CONNECTED, "Client 已关闭", null));
+    }
+
+    long id = REQUEST_ID.incrementAndGet();
+    reqData.setId(id);
+
+    // 流参数不随请求编码, 而是在请求之后以分块数据帧写出; 未能写出时在请求完成后关闭
+    AtomicReference<Object> source =
+        new AtomicReference<>(takeStreamSource(reqData));
+
+    long callTimeoutMillis = options.getTimeout() == null ?
+        timeoutMillis : options.getTimeout().toMillis();
+    // 将截止时间发送给 Server, 以免 Server 执行调用方已放弃等待的请求
+    reqData.setDeadline(System.currentTimeMillis() + callTimeoutMillis);
+
+    // 请求按每种编码方式仅序列化一次, 请求完成后释放
+    EncodedRequest request;
     try {
-      jsonReq = JsonUtils.toJson(reqData);
+      request = new EncodedRequest(reqData, replicas.getCodec());
     } catch (JsonProcessingException e) {
       throw new DataProcessException("SDK 序列化失败", e);
     }
 
-    UdsResult<T> result = new UdsResult<>();
-    result.setCode(UdsCode.METHOD_CALL_ERROR);
-    result.setMessage("发送的数据量过大, 详情请查看 Server 日志");
+    CompletableFuture<UdsResult<T>> result = new CompletableFuture<>();
+    result.whenComplete((r, thr) -> {
+      request.release();
+      closeQuietly(source.getAndSet(null));
+    });
+    BiFunction<ByteBuf, PayloadCodec, UdsResult<T>> tracedDecoder =
+        trace(reqData, request.size(), decoder, result);
+    AtomicReference<CompletableFuture<PooledChannel>> acquiring =
+        new AtomicReference<>();
+
+    Timeout timer = TIMEOUT_TIMER.newTimeout(t -> {
+      // 超时时间很短时, 可能尚未开始获取连接
+      CompletableFuture<PooledChannel> acquireFuture = acquiring.get();
+      if (acquireFuture == null || !acquireFuture.isDone()) {
+        if (acquireFuture != null) {
+          acquireFuture.cancel(false);
+        }
+        result.complete(genResult(UdsCode.OVER_TIME, "获取连接超时", null));
+      } else {
+        result.complete(genResult(UdsCode.OVER_TIME, "连接超时", null));
+      }
+    }, callTimeoutMillis, TimeUnit.MILLISECONDS);
+    result.whenComplete((r, thr) -> timer.cancel());
+
+    sendToReplica(id, request, source, options.getRouteKey(), tracedDecoder,
+        result, acquiring, replicas.size() - 1);
 
-    Connection conn;
+    return result;
+  }
+
+  /**
+   * 取出请求中的流参数, 并在参数列表中以 {@code null} 代替
+   *
+   * @param reqData 请求数据
+   * @return 流参数, 不存在时为 {@code null}
+   * @throws ParamException 存在多个流参数, 或非方法调用的请求中存在流参数
+   */
+  private static Object takeStreamSource(InnerReqData reqData) {
+    List<Object> data = reqData.getData();
+    if (data == null) {
+      return null;
+    }
+
+    Object source = null;
+    int index = -1;
+    for (int i = 0; i < data.size(); ++i) {
+      if (!ChunkWriter.isSource(data.get(i))) {
+        continue;
+      }
+      if (!InnerReqType.CALL_METHOD.value().equals(reqData.getType())) {
+        throw new ParamException("仅方法调用支持流参数");
+      }
+      if (source != null) {
+        throw new ParamException("至多只能有一个流参数");
+      }
+      source = data.get(i);
+      index = i;
+    }
+
+    if (source != null) {
+      // 参数列表可能是调用方的参数数组, 故复制后再修改
+      List<Object> copy = new ArrayList<>(data);
+      copy.set(index, null);
+      reqData.setData(copy);
+    }
+    return source;
+  }
+
+  /**
+   * 关闭未能写出的流参数
+   *
+   * @param source 流参数, 可为 {@code null}
+   */
+  private static void closeQuietly(Object source) {
+    if (source == null) {
+      return;
+    }
     try {
-      conn = client
-          .handle((in, out) -> out
-              .sendString(Mono.just(jsonReq))
-              .then(in
-                  .receive()
-                  .asString(CharsetUtil.UTF_8)
-                  .log() // 记录 Log
-                  .doOnNext(jsonResp -> handleResp(result, out, jsonResp))
-                  .then()
-                  .doOnError(thr -> handleError(result, thr))))
-          .connectNow();
-    } catch (Exception e) {
-      return handleConnectException(e);
+      ((Closeable) source).close();
+    } catch (IOException e) {
+      log.warn("关闭流参数失败", e);
     }
+  }
 
-    conn.onDispose().block();
+  /**
+   * 按追踪配置在请求完成时记录追踪日志
+   *
+   * @param reqData  请求数据
+   * @param reqBytes 请求数据帧的字节数
+   * @param decoder 用于将 Server 响应数据帧转换为最终返回给用户的结果
+   * @param result  最终返回给用户的结果
+   * @param <T>     具体的返回数据结果类型
+   * @return 需要记录响应数据时为包装后的 {@code decoder}, 否则为原 {@code decoder}
+   */
+  private <T> BiFunction<ByteBuf, PayloadCodec, UdsResult<T>> trace(
+      InnerReqData reqData, int reqBytes,
+      BiFunction<ByteBuf, PayloadCodec, UdsResult<T>> decoder,
+      CompletableFuture<UdsResult<T>> result) {
+    String name = reqData.getMethod() != null ?
+        reqData.getMethod() : reqData.getSignal();
+    Tracer.Level level = Tracer.begin(name);
+    if (level == Tracer.Level.NONE) {
+      return decoder;
+    }
 
+    long startNanos = System.nanoTime();
+    // 响应数据帧在解析后即被释放, 故仅在需要记录完整数据时保留其字符串
+    AtomicInteger respBytes = new AtomicInteger();
+    AtomicReference<String> jsonResp = new AtomicReference<>();
+    result.whenComplete((r, thr) -> {
+      String code = r == null ?
+          String.valueOf(thr) : String.valueOf(r.getCode());
+      Tracer.end(level, "client", reqData.getType(), name, reqBytes,
+          () -> toTraceJson(reqData), respBytes.get(), jsonResp::get,
+          startNanos, code, r == null || r.getCode() != UdsCode.SUCCESS);
+    });
+
+    return (frame, codec) -> {
+      UdsResult<T> udsResult = decoder.apply(frame, codec);
+      respBytes.set(frame.readableBytes());
+      if (level == Tracer.Level.SAMPLED ||
+          udsResult.getCode() != UdsCode.SUCCESS) {
+        jsonResp.set(JsonCodec.toString(frame, codec));
+      }
+      return udsResult;
+    };
+  }
+
+  /**
+   * 生成追踪日志中的请求 JSON 字符串
+   *
+   * @param reqData 请求数据
+   * @return JSON 字符串
+   */
+  private String toTraceJson(InnerReqData reqData) {
+    try {
+      return JsonUtils.toJson(reqData);
+    } catch (JsonProcessingException e) {
+      return "SDK 序列化失败: " + e.getMessage();
+    }
+  }
+
+  /**
+   * 选择 Server 副本并发送请求
+   * <p>
+   * 连接副本失败时请求尚未发出, 故可改为发往其他副本
+   *
+   * @param id        请求 ID
+   * @param request   已编码的请求, 由调用方在请求完成后释放
+   * @param source    流参数, 开始写出时取走, 不存在时为 {@code null}
+   * @param routeKey  路由 Key, 可为 {@code null}
+   * @param decoder   用于将 Server 响应数据转换为最终返回给用户的结果
+   * @param result    最终返回给用户的结果
+   * @param acquiring 当前正在获取连接的对象, 用于超时后放弃获取
+   * @param retries   连接副本失败时还可改为发往其他副本的次数
+   * @param <T>       具体的返回数据结果类型
+   */
+  private <T> void sendToReplica(long id, EncodedRequest request,
+      AtomicReference<Object> source, String routeKey,
+      BiFunction<ByteBuf, PayloadCodec, UdsResult<T>> decoder,
+      CompletableFuture<UdsResult<T>> result,
+      AtomicReference<CompletableFuture<PooledChannel>> acquiring,
+      int retries) {
+    Replica replica = replicas.choose(routeKey);
+    ChannelPool pool = replica.getPool();
+    replica.begin();
+
+    CompletableFuture<PooledChannel> acquireFuture = pool.acquire();
+    acquiring.set(acquireFuture);
+    if (result.isDone()) {
+      // 开始获取连接前已超时, 放弃获取
+      acquireFuture.cancel(false);
+    }
+
+    acquireFuture.whenComplete((channel, thr) -> {
+      if (thr != null) {
+        replica.end();
+        if (thr instanceof CancellationException) {
+          // 获取连接超时, 结果已完成
+          return;
+        }
+
+        replicas.reportConnectFailure(replica);
+        if (retries > 0 && !result.isDone()) {
+          sendToReplica(id, request, source, routeKey, decoder, result,
+              acquiring, retries - 1);
+        } else {
+          completeConnectException(result, thr);
+        }
+        return;
+      }
+
+      result.whenComplete((r, thr1) -> replica.end());
+
+      // 获取连接期间已超时或被取消
+      if (result.isDone()) {
+        pool.release(channel, true);
+        return;
+      }
+
+      // 按该连接协商的编码方式写出请求
+      ByteBuf frame;
+      try {
+        frame = request.frame(channel.getCodec());
+      } catch (JsonProcessingException | RuntimeException e) {
+        pool.release(channel, true);
+        result.complete(handleDataProcessException(e));
+        return;
+      }
+
+      boolean streamed = source.get() != null;
+      if (streamed && !channel.isStreamingSupported()) {
+        frame.release();
+        pool.release(channel, true);
+        result.complete(genResult(UdsCode.METHOD_CALL_ERROR,
+            "Server 不支持流式传输的参数", null));
+        return;
+      }
+
+      // 在响应数据帧被释放前即完成解析, 响应之后紧跟着流返回值时以其作为返回值
+      AtomicReference<ChunkedInputStream> respStream = new AtomicReference<>();
+      CompletableFuture<UdsResult<T>> respFuture = channel.request(id, frame,
+          (buf, codec) -> attachStream(decoder.apply(buf, codec),
+              channel.takeStream(id), respStream), streamed);
+
+      // 请求写出后紧接着写出流参数, 请求完成后即不再继续写出
+      CompletableFuture<Void> sent = CompletableFuture.completedFuture(null);
+      Object streamSource = source.getAndSet(null);
+      if (streamSource != null) {
+        sent = channel.writeStream(id, streamSource, result::isDone);
+      }
+      CompletableFuture<Void> streamsDone = sent;
+      respFuture.whenComplete((resp, thr1) -> {
+        if (thr1 == null) {
+          result.complete(resp);
+        } else {
+          UdsResult<T> udsResult = new UdsResult<>();
+          handleError(udsResult, thr1);
+          result.complete(udsResult);
+        }
+      });
+
+      result.whenComplete((r, thr1) -> {
+        boolean reusable;
+        if (respFuture.isDone()) {
+          reusable = !respFuture.isCompletedExceptionally();
+        } else {
+          // 超时或被取消, 放弃等待响应
+          channel.cancel(id);
+          // 若 Server 端不返回请求 ID, 则该请求之后收到的响应将无法被正确匹配
+          reusable = channel.isRequestIdSupported();
+        }
+
+        // 流数据传输完毕后才归还连接, 以免传输期间被驱逐
+        ChunkedInputStream stream = respStream.get();
+        CompletableFuture<Void> received = stream == null ?
+            CompletableFuture.completedFuture(null) : stream.received();
+        CompletableFuture.allOf(streamsDone, received)
+            .whenComplete((ignore, thr2) -> pool.release(channel, reusable));
+      });
+    });
+  }
+
+  /**
+   * 以响应之后紧跟着的流返回值作为调用结果的返回值
+   *
+   * @param result     解析后的调用结果
+   * @param stream     流返回值, 不存在时为 {@code null}
+   * @param respStream 用于记录已作为返回值的流
+   * @param <T>        具体的返回数据结果类型
+   * @return 调用结果; 调用失败时关闭流返回值
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> UdsResult<T> attachStream(UdsResult<T> result,
+      ChunkedInputStream stream,
+      AtomicReference<ChunkedInputStream> respStream) {
+    if (stream == null) {
+      return result;
+    }
+
+    if (result.getCode() != UdsCode.SUCCESS) {
+      stream.close();
+      return result;
+    }
+    // 输入流同时也是 `ReadableByteChannel`, 返回值声明为两者之一均可
+    result.setData((T) stream);
+    respStream.set(stream);
     return result;
   }
 
-  private <T> UdsResult<T> handleConnectException(Exception e) {
-    if (e.getCause() instanceof FileNotFoundException) {
-      return genResult(UdsCode.NOT_CONNECTED, "无法连接 Server", null);
+  /**
+   * 将异步调用包装为 {@link Mono}
+   *
+   * @param call 发起异步调用
+   * @param <T>  具体的返回数据结果类型
+   * @return 仅在订阅时才发起调用的 {@link Mono}
+   */
+  private <T> Mono<UdsResult<T>> toMono(
+      Supplier<CompletableFuture<UdsResult<T>>> call) {
+    return Mono.defer(() -> {
+      CompletableFuture<UdsResult<T>> future = call.get();
+      return Mono.fromFuture(future)
+          .doOnCancel(() -> future.cancel(false));
+    });
+  }
+
+  /**
+   * 连接 Server 失败时的异常处理
+   *
+   * @param result 最终返回给用户的结果
+   * @param thr    连接 Server 时捕获的异常
+   * @param <T>    最终返回给用户的结果的返回值类型
+   */
+  private <T> void completeConnectException(
+      CompletableFuture<UdsResult<T>> result, Throwable thr) {
+    try {
+      result.complete(handleConnectException(thr));
+    } catch (UdsSdkException e) {
+      result.completeExceptionally(e);
+    }
+  }
+
+  private <T> UdsResult<T> handleConnectException(Throwable e) {
+    for (Throwable thr = e; thr != null; thr = thr.getCause()) {
+      if (thr instanceof FileNotFoundException) {
+        return genResult(UdsCode.NOT_CONNECTED, "无法连接 Server", null);
+      }
     }
 
     throw new UdsSdkException("连接 Server 失败", e);
@@ -250,73 +1180,151 @@ public class Client {
    * @param <T>    最终返回给用户的结果的返回值类型
    */
   private <T> void handleError(UdsResult<T> result, Throwable thr) {
-    if (thr instanceof ReadTimeoutException) {
-      result.setCode(UdsCode.OVER_TIME);
-      result.setMessage("连接超时");
+    if (thr instanceof ClosedChannelException) {
+      // Server 端在 JSON 超出最大字节数时会直接关闭连接
+      result.setCode(UdsCode.METHOD_CALL_ERROR);
+      result.setMessage("发送的数据量过大, 详情请查看 Server 日志");
     } else {
       result.setCode(UdsCode.METHOD_CALL_ERROR);
       result.setMessage("Client Channel 错误: " + thr.getMessage());
     }
   }
 
+  /**
+   * 处理信号订阅失败时的异常
+   *
+   * @param thr 信号订阅失败时的异常
+   * @param <T> 最终返回给用户的结果的返回值类型
+   * @return 最终返回给用户的结果
+   */
+  private <T> UdsResult<T> handleSubException(Throwable thr) {
+    if (thr instanceof TimeoutException) {
+      return genResult(UdsCode.OVER_TIME, "订阅超时", null);
+    }
+
+    if (thr instanceof ClosedChannelException) {
+      return genResult(UdsCode.SIGNAL_SUB_ERROR, "订阅长连接已断开", null);
+    }
+
+    return handleConnectException(thr);
+  }
+
   /**
    * 处理 Server 数据推送
    *
    * @param consumer 消费者
-   * @param jsonResp Server 响应 JSON 数据
+   * @param respData Server 响应数据
    */
   private void handleSubSignal(Consumer<UdsResult<Object>> consumer,
-      String jsonResp) {
+      InnerRespData<Object> respData) {
+    UdsCode udsCode = respData.getCode() == InnerErrorCode.ERROR.value() ?
+        UdsCode.SIGNAL_SUB_ERROR : UdsCode.SUCCESS;
+
+    consumer.accept(genResult(udsCode, respData.getMsg(),
+        respData.getData()));
+  }
+
+  /**
+   * 处理 Server 响应数据
+   *
+   * @param frame Server 响应数据帧
+   * @param codec 响应数据的编码方式
+   * @param <T>   最终返回给用户的结果的返回值类型
+   * @return 最终返回给用户的结果
+   */
+  private <T> UdsResult<T> handleResp(ByteBuf frame, PayloadCodec codec) {
+    return handleResp(frame, codec,
+        getRespReader(RESP_MAPPER.constructType(Object.class)));
+  }
+
+  /**
+   * 处理 Server 响应数据, 并将具体的返回结果直接反序列化为指定类型
+   *
+   * @param frame      Server 响应数据帧
+   * @param codec      响应数据的编码方式
+   * @param respReader 用于反序列化 {@code InnerRespData<T>}
+   * @param <T>        最终返回给用户的结果的返回值类型
+   * @return 最终返回给用户的结果
+   */
+  <T> UdsResult<T> handleResp(ByteBuf frame, PayloadCodec codec,
+      ObjectReader respReader) {
     try {
-      TypeReference<InnerRespData<Object>> ref =
-          new TypeReference<InnerRespData<Object>>() {
-          };
-      InnerRespData<Object> respData =
-          JsonUtils.parseJson(jsonResp, ref);
-
-      UdsCode udsCode = respData.getCode() ==
-          InnerErrorCode.ERROR.value() ?
-          UdsCode.SIGNAL_SUB_ERROR : UdsCode.SUCCESS;
-
-      consumer.accept(genResult(udsCode, respData.getMsg(),
-          respData.getData()));
+      InnerRespData<T> respData =
+          JsonCodec.decode(frame, codec, respReader);
+      return genResult(respData, respData.getData());
     } catch (Exception e) {
-      throw new DataProcessException("Client 数据处理异常: "
-          + e.getMessage(), e);
+      return handleDataProcessException(e);
     }
   }
 
   /**
-   * 处理 Server 响应数据
+   * 处理获取地址空间时的 Server 响应数据
    *
-   * @param result   最终返回给用户的结果
-   * @param out      Netty 出栈
-   * @param jsonResp Server 响应 JSON 数据
-   * @param <T>      最终返回给用户的结果的返回值类型
+   * @param type     获取地址空间的请求类型
+   * @param cached   已缓存的地址空间, 不存在时为 {@code null}
+   * @param frame    Server 响应数据帧
+   * @param codec    响应数据的编码方式
+   * @return 最终返回给用户的结果
    */
-  private <T> void handleResp(UdsResult<T> result,
-      reactor.netty.NettyOutbound out, String jsonResp) {
+  private UdsResult<NamespaceResultData> handleNamespaceResp(
+      InnerReqType type, InnerRespData<NamespaceResultData> cached,
+      ByteBuf frame, PayloadCodec codec) {
     try {
-      TypeReference<InnerRespData<Object>> ref =
-          new TypeReference<InnerRespData<Object>>() {
-          };
-      InnerRespData<Object> respData =
-          JsonUtils.parseJson(jsonResp, ref);
-
-      result.setMessage(respData.getMsg());
-      //noinspection unchecked
-      result.setData((T) respData.getData());
-
-      result.setCode(respData.getCode() ==
-          InnerErrorCode.ERROR.value() ?
-          UdsCode.METHOD_CALL_ERROR : UdsCode.SUCCESS);
+      InnerRespData<NamespaceResultData> respData = JsonCodec.decode(frame,
+          codec,
+          getRespReader(RESP_MAPPER.constructType(NamespaceResultData.class)));
+
+      if (cached != null && Boolean.TRUE.equals(respData.getNotModified())) {
+        // 地址空间未修改, 直接使用缓存
+        respData = cached;
+      } else if (respData.getVersion() != null &&
+          respData.getCode() == InnerErrorCode.SUCCESS.value()) {
+        // 仅缓存带有版本号的地址空间, 不支持版本号的 Server 每次都会返回完整数据
+        namespaceCache.put(type, respData);
+      }
+
+      return genResult(respData, respData.getData());
     } catch (Exception e) {
-      log.error("Client 数据处理异常", e);
-      result.setCode(UdsCode.METHOD_CALL_ERROR);
-      result.setMessage("Client 数据处理异常: " + e.getMessage());
+      return handleDataProcessException(e);
     }
+  }
 
-    out.withConnection(DisposableChannel::dispose);
+  /**
+   * 处理 Client 解析 Server 响应数据时的异常
+   *
+   * @param e   解析时捕获的异常
+   * @param <T> 最终返回给用户的结果的返回值类型
+   * @return 最终返回给用户的结果
+   */
+  private <T> UdsResult<T> handleDataProcessException(Exception e) {
+    log.error("Client 数据处理异常", e);
+    return genResult(UdsCode.METHOD_CALL_ERROR,
+        "Client 数据处理异常: " + e.getMessage(), null);
+  }
+
+  /**
+   * 将批量方法调用的响应数据转换为各方法调用的返回结果
+   *
+   * @param result 批量方法调用的 UDS 响应结果
+   * @return 各方法调用的返回结果
+   */
+  private UdsResult<List<UdsResult<Object>>> toBatchResult(
+      UdsResult<List<Object>> result) {
+    List<UdsResult<Object>> items = null;
+
+    if (result.getData() != null) {
+      items = new ArrayList<>();
+      for (Object item : result.getData()) {
+        Map<?, ?> respData = (Map<?, ?>) item;
+        boolean error = Objects.equals(InnerErrorCode.ERROR.value(),
+            respData.get("code"));
+        items.add(genResult(error ? UdsCode.METHOD_CALL_ERROR :
+            UdsCode.SUCCESS, (String) respData.get("msg"),
+            respData.get("data")));
+      }
+    }
+
+    return genResult(result.getCode(), result.getMessage(), items);
   }
 
   /**
@@ -358,6 +1366,20 @@ public class Client {
     return reqData;
   }
 
+  /**
+   * 根据 Server 的响应对象构造 UDS 响应结果
+   *
+   * @param respData Server 的响应对象
+   * @param data     具体数据结果
+   * @param <T>      具体结果类型
+   * @return UDS 响应结果
+   */
+  private <T> UdsResult<T> genResult(InnerRespData<?> respData, T data) {
+    UdsCode code = respData.getCode() == InnerErrorCode.ERROR.value() ?
+        UdsCode.METHOD_CALL_ERROR : UdsCode.SUCCESS;
+    return genResult(code, respData.getMsg(), data);
+  }
+
   /**
    * 构造 UDS 响应结果
    *
@@ -376,20 +1398,40 @@ public class Client {
   }
 
   /**
-   * 用于关闭建立的信号订阅长连接
+   * 用于取消信号订阅
    */
   @RequiredArgsConstructor
   public static class UdsConnection {
 
-    private final Connection connection;
+    private final SubscriptionMux mux;
+
+    private final Subscription subscription;
+
+    private final DeliveryQueue queue;
 
     /**
-     * 关闭建立的信号订阅长连接
+     * 所属 Client 尚未取消的信号订阅
+     */
+    private final Set<UdsConnection> owner;
+
+    /**
+     * 取消信号订阅, 若共享的订阅长连接上已无其他订阅, 则关闭该长连接
+     * <p>
+     * 注意: 尚未被消费的消息将被丢弃
      */
     public void disconnectSub() {
-      if (connection != null) {
-        connection.disposeNow();
-      }
+      owner.remove(this);
+      mux.unsubscribe(subscription);
+      queue.close();
+    }
+
+    /**
+     * 获取该订阅的消息分发统计信息, 如待消费的消息数及被丢弃的消息数
+     *
+     * @return 统计信息
+     */
+    public SubscriptionStats getStats() {
+      return queue.getStats();
     }
   }
 }
@@ -0,0 +1,88 @@
+package com.qgschina.udssdk.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.qgschina.udssdk.common.codec.JsonCodec;
+import com.qgschina.udssdk.common.model.InnerReqData;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import io.netty.buffer.ByteBuf;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 已编码的请求
+ * <p>
+ * 请求可能因连接副本失败而改发其他连接, 各连接协商的编码方式可能不同;
+ * 每种编码方式仅编码一次, 每次发送时写出其共享内容的副本, 请求完成后一并释放
+ */
+class EncodedRequest {
+
+  private final InnerReqData reqData;
+
+  /**
+   * 已编码的数据帧, Key 为编码方式; 需持有本对象的锁访问
+   */
+  private final Map<PayloadCodec, ByteBuf> frames = new IdentityHashMap<>();
+
+  /**
+   * 首次编码的字节数
+   */
+  private final int size;
+
+  private boolean released;
+
+  /**
+   * 按期望的编码方式预先编码请求, 以便序列化失败时直接抛出异常
+   *
+   * @param reqData 请求数据
+   * @param codec   期望的编码方式
+   * @throws JsonProcessingException 序列化失败
+   */
+  EncodedRequest(InnerReqData reqData, PayloadCodec codec)
+      throws JsonProcessingException {
+    this.reqData = reqData;
+    ByteBuf frame = JsonCodec.encode(reqData, codec);
+    frames.put(codec, frame);
+    size = frame.readableBytes();
+  }
+
+  /**
+   * 获取按指定编码方式编码的数据帧
+   *
+   * @param codec 连接协商的编码方式
+   * @return 数据帧共享内容的副本, 写出后由 Netty 释放
+   * @throws JsonProcessingException 序列化失败
+   * @throws IllegalStateException   请求已完成
+   */
+  synchronized ByteBuf frame(PayloadCodec codec)
+      throws JsonProcessingException {
+    if (released) {
+      throw new IllegalStateException("请求已完成");
+    }
+
+    ByteBuf frame = frames.get(codec);
+    if (frame == null) {
+      frame = JsonCodec.encode(reqData, codec);
+      frames.put(codec, frame);
+    }
+    return frame.retainedDuplicate();
+  }
+
+  /**
+   * 获取首次编码的字节数
+   *
+   * @return 字节数
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * 释放所有已编码的数据帧
+   */
+  synchronized void release() {
+    released = true;
+    frames.values().forEach(ByteBuf::release);
+    frames.clear();
+  }
+}
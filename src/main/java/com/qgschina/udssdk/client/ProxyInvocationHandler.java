@@ -0,0 +1,91 @@
+package com.qgschina.udssdk.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.qgschina.udssdk.client.constant.UdsCode;
+import com.qgschina.udssdk.client.model.UdsResult;
+import com.qgschina.udssdk.common.exception.UdsSdkException;
+import com.qgschina.udssdk.common.util.JsonEngine;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 类型化接口代理的调用处理器
+ */
+class ProxyInvocationHandler implements InvocationHandler {
+
+  /**
+   * 用于构造各接口方法的反序列化对象
+   */
+  private static final ObjectMapper MAPPER = JsonEngine.getMapper();
+
+  /**
+   * 发起调用的 Client
+   */
+  private final Client client;
+
+  /**
+   * 代理的接口
+   */
+  private final Class<?> serviceInterface;
+
+  /**
+   * 各接口方法的调用信息, 创建后只读
+   */
+  private final Map<Method, ProxyMethod> methods = new HashMap<>();
+
+  ProxyInvocationHandler(Client client, Class<?> serviceInterface) {
+    this.client = client;
+    this.serviceInterface = serviceInterface;
+
+    for (Method method : serviceInterface.getMethods()) {
+      if (!Modifier.isStatic(method.getModifiers())) {
+        methods.put(method, new ProxyMethod(method, MAPPER));
+      }
+    }
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) {
+    if (method.getDeclaringClass() == Object.class) {
+      return invokeObjectMethod(proxy, method, args);
+    }
+
+    ProxyMethod proxyMethod = methods.get(method);
+
+    CompletableFuture<UdsResult<Object>> future = client.sendAsync(
+        proxyMethod.genReqData(args),
+        (frame, codec) -> client.handleResp(frame, codec,
+            proxyMethod.getRespReader()));
+
+    switch (proxyMethod.getResultKind()) {
+      case FUTURE:
+        return future;
+      case UDS_RESULT:
+        return client.await(future);
+      default:
+        UdsResult<Object> result = client.await(future);
+        if (result.getCode() != UdsCode.SUCCESS) {
+          throw new UdsSdkException(result.getCode().getDescription()
+              + ": " + result.getMessage());
+        }
+        return result.getData();
+    }
+  }
+
+  private Object invokeObjectMethod(Object proxy, Method method,
+      Object[] args) {
+    switch (method.getName()) {
+      case "equals":
+        return proxy == args[0];
+      case "hashCode":
+        return System.identityHashCode(proxy);
+      default:
+        return "UdsProxy(" + serviceInterface.getName() + ")";
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.qgschina.udssdk.client;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.qgschina.udssdk.client.model.UdsResult;
+import com.qgschina.udssdk.common.constant.InnerReqType;
+import com.qgschina.udssdk.common.exception.ParamException;
+import com.qgschina.udssdk.common.model.InnerReqData;
+import com.qgschina.udssdk.common.util.DataTypeUtils;
+import com.qgschina.udssdk.common.util.JsonEngine;
+import com.qgschina.udssdk.server.annotation.UdsMethod;
+import com.qgschina.udssdk.server.annotation.UdsSignal;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 接口代理中单个接口方法的调用信息, 在创建代理时即预先计算完成
+ */
+@Getter
+class ProxyMethod {
+
+  /**
+   * 请求类型, 方法调用或信号触发
+   */
+  private final InnerReqType type;
+
+  /**
+   * 方法名或信号名
+   */
+  private final String name;
+
+  /**
+   * 参数类型统一标识列表
+   */
+  private final List<String> parameterTypes;
+
+  /**
+   * 返回值形式
+   */
+  private final ResultKind resultKind;
+
+  /**
+   * 用于将 Server 响应 JSON 数据直接反序列化为具体的返回值类型
+   */
+  private final ObjectReader respReader;
+
+  /**
+   * 预先计算接口方法的调用信息
+   *
+   * @param method 接口方法
+   * @param mapper 用于解析接口方法的返回值类型
+   */
+  ProxyMethod(Method method, ObjectMapper mapper) {
+    if (method.isAnnotationPresent(UdsMethod.class)) {
+      type = InnerReqType.CALL_METHOD;
+      name = method.getAnnotation(UdsMethod.class).value();
+    } else if (method.isAnnotationPresent(UdsSignal.class)) {
+      type = InnerReqType.SIGNAL;
+      name = method.getAnnotation(UdsSignal.class).value();
+    } else {
+      throw new ParamException("接口方法未使用 `UdsMethod` 或 `UdsSignal` 注解: "
+          + method.getName());
+    }
+
+    List<String> types = new ArrayList<>();
+    for (Class<?> paramType : method.getParameterTypes()) {
+      Optional<String> typeName =
+          DataTypeUtils.getGeneralParamTypeName(paramType);
+      if (!typeName.isPresent()) {
+        throw new ParamException("方法参数类型不支持: "
+            + paramType.getSimpleName());
+      }
+      types.add(typeName.get());
+    }
+    parameterTypes = Collections.unmodifiableList(types);
+
+    TypeFactory typeFactory = mapper.getTypeFactory();
+    JavaType returnType = typeFactory.constructType(
+        method.getGenericReturnType());
+
+    JavaType dataType;
+    if (returnType.hasRawClass(void.class)) {
+      resultKind = ResultKind.VOID;
+      dataType = typeFactory.constructType(Object.class);
+    } else if (returnType.hasRawClass(UdsResult.class)) {
+      resultKind = ResultKind.UDS_RESULT;
+      dataType = returnType.containedTypeOrUnknown(0);
+    } else if (returnType.hasRawClass(CompletableFuture.class) &&
+        returnType.containedTypeOrUnknown(0).hasRawClass(UdsResult.class)) {
+      resultKind = ResultKind.FUTURE;
+      dataType = returnType.containedTypeOrUnknown(0)
+          .containedTypeOrUnknown(0);
+    } else {
+      resultKind = ResultKind.DATA;
+      dataType = returnType;
+    }
+
+    respReader = Client.getRespReader(dataType);
+
+    // 预热参数类型的序列化器, 以免首次调用时才构造
+    JsonEngine.warmUp(method.getGenericParameterTypes());
+  }
+
+  /**
+   * 构造请求数据
+   *
+   * @param args 接口方法的参数
+   * @return 请求数据
+   */
+  InnerReqData genReqData(Object[] args) {
+    InnerReqData reqData = new InnerReqData();
+    reqData.setType(type.value());
+
+    if (type == InnerReqType.CALL_METHOD) {
+      reqData.setMethod(name);
+    } else {
+      reqData.setSignal(name);
+    }
+
+    if (args != null && args.length > 0) {
+      reqData.setData(Arrays.asList(args));
+      reqData.setParameterTypes(parameterTypes);
+    }
+
+    return reqData;
+  }
+
+  /**
+   * 接口方法的返回值形式
+   */
+  enum ResultKind {
+
+    /**
+     * 无返回值, 同步调用
+     */
+    VOID,
+
+    /**
+     * 直接返回具体数据, 同步调用
+     */
+    DATA,
+
+    /**
+     * 返回 {@link UdsResult}, 同步调用
+     */
+    UDS_RESULT,
+
+    /**
+     * 返回 {@link CompletableFuture}, 异步调用
+     */
+    FUTURE
+  }
+}
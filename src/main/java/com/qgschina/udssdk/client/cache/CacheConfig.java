@@ -0,0 +1,20 @@
+package com.qgschina.udssdk.client.cache;
+
+import lombok.Data;
+
+/**
+ * Client 方法调用结果缓存配置
+ */
+@Data
+public class CacheConfig {
+
+  /**
+   * 缓存结果的存活时间, 单位: 毫秒
+   */
+  private long ttlMillis = 60 * 1000;
+
+  /**
+   * 最多缓存的结果数, 超出后驱逐最久未被访问的结果
+   */
+  private int maxEntries = 1024;
+}
@@ -0,0 +1,35 @@
+package com.qgschina.udssdk.client.cache;
+
+import lombok.Data;
+
+/**
+ * Client 方法调用结果缓存的统计信息快照
+ */
+@Data
+public class CacheStats {
+
+  /**
+   * 命中次数
+   */
+  private long hits;
+
+  /**
+   * 未命中次数 (包括已过期)
+   */
+  private long misses;
+
+  /**
+   * 因超出最大缓存数而被驱逐的结果数
+   */
+  private long evictions;
+
+  /**
+   * 因过期而被移除的结果数
+   */
+  private long expirations;
+
+  /**
+   * 当前缓存的结果数
+   */
+  private int size;
+}
@@ -0,0 +1,187 @@
+package com.qgschina.udssdk.client.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.qgschina.udssdk.client.constant.UdsCode;
+import com.qgschina.udssdk.client.model.UdsResult;
+import com.qgschina.udssdk.common.util.JsonEngine;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个方法的调用结果缓存
+ * <p>
+ * 以方法参数规范化后的 JSON 字符串 (对象属性及 Map 的 Key 均按字母排序) 为 Key,
+ * 按存活时间过期, 并在超出最大缓存数时驱逐最久未被访问的结果; 仅缓存调用成功的结果
+ * <p>
+ * 注意: 命中时返回的数据对象与缓存中的为同一对象, 调用方不可修改
+ */
+public class ResultCache {
+
+  /**
+   * 用于生成规范化的参数 JSON 字符串
+   */
+  private static final ObjectMapper CANONICAL_MAPPER =
+      JsonEngine.newMapper()
+          .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+          .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+  /**
+   * 缓存配置
+   */
+  private final CacheConfig config;
+
+  /**
+   * 已缓存的结果, 按访问顺序排列
+   */
+  private final LinkedHashMap<String, Entry> entries;
+
+  /**
+   * 缓存代数, 每次清空缓存时递增, 读写均在 {@link #entries} 的锁内进行
+   */
+  private long generation;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  public ResultCache(CacheConfig config) {
+    this.config = config;
+
+    entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() > ResultCache.this.config.getMaxEntries()) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * 生成缓存 Key
+   *
+   * @param args 方法参数
+   * @return 缓存 Key, 参数无法序列化时返回 {@code null} (即不使用缓存)
+   */
+  public static String genKey(Object[] args) {
+    try {
+      return CANONICAL_MAPPER.writeValueAsString(
+          args == null ? new Object[0] : Arrays.asList(args));
+    } catch (JsonProcessingException e) {
+      return null;
+    }
+  }
+
+  /**
+   * 获取未过期的缓存结果
+   *
+   * @param key 缓存 Key
+   * @return 缓存结果的副本, 未命中时返回 {@code null}
+   */
+  public UdsResult<Object> get(String key) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && entry.expireAt - System.nanoTime() <= 0) {
+        entries.remove(key);
+        expirations.increment();
+        entry = null;
+      }
+    }
+
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+
+    hits.increment();
+
+    UdsResult<Object> result = new UdsResult<>();
+    result.setCode(entry.result.getCode());
+    result.setMessage(entry.result.getMessage());
+    result.setData(entry.result.getData());
+    return result;
+  }
+
+  /**
+   * 获取当前的缓存代数, 须在发起调用前获取并在缓存结果时传入
+   *
+   * @return 缓存代数
+   */
+  public long generation() {
+    synchronized (entries) {
+      return generation;
+    }
+  }
+
+  /**
+   * 缓存调用结果, 仅缓存调用成功的结果
+   * <p>
+   * 发起调用后缓存若已被清空, 则该结果可能已过时, 不再缓存
+   *
+   * @param key        缓存 Key
+   * @param result     调用结果
+   * @param generation 发起调用前通过 {@link #generation()} 获取的缓存代数
+   */
+  public void put(String key, UdsResult<Object> result, long generation) {
+    if (result.getCode() != UdsCode.SUCCESS) {
+      return;
+    }
+
+    long expireAt = System.nanoTime() + config.getTtlMillis() * 1000_000;
+    synchronized (entries) {
+      if (generation != this.generation) {
+        return;
+      }
+      entries.put(key, new Entry(result, expireAt));
+    }
+  }
+
+  /**
+   * 清空所有缓存结果
+   */
+  public void invalidateAll() {
+    synchronized (entries) {
+      generation++;
+      entries.clear();
+    }
+  }
+
+  /**
+   * 获取统计信息快照
+   *
+   * @return 统计信息
+   */
+  public CacheStats getStats() {
+    CacheStats stats = new CacheStats();
+    stats.setHits(hits.sum());
+    stats.setMisses(misses.sum());
+    stats.setEvictions(evictions.sum());
+    stats.setExpirations(expirations.sum());
+    synchronized (entries) {
+      stats.setSize(entries.size());
+    }
+    return stats;
+  }
+
+  private static class Entry {
+
+    private final UdsResult<Object> result;
+
+    private final long expireAt;
+
+    private Entry(UdsResult<Object> result, long expireAt) {
+      this.result = result;
+      this.expireAt = expireAt;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.qgschina.udssdk.client.model;
+
+import java.time.Duration;
+import lombok.Data;
+
+/**
+ * 单次调用的选项
+ */
+@Data
+public class CallOptions {
+
+  /**
+   * 本次调用的超时时间, 为 {@code null} 时使用 Client 的超时时间
+   * <p>
+   * 超时时间会转为截止时间随请求发送给 Server, Server 不再执行已超过截止时间的请求
+   */
+  private Duration timeout;
+
+  /**
+   * 路由 Key, 为 {@code null} 时按负载均衡策略选择 Server 副本
+   * <p>
+   * 同一命名空间存在多个 Server 副本时, 相同路由 Key 的调用按一致性哈希发往同一副本,
+   * 适用于依赖副本本地状态的调用; 副本增减时仅少部分路由 Key 会改变所发往的副本
+   */
+  private String routeKey;
+
+  /**
+   * 创建指定超时时间的调用选项
+   *
+   * @param timeout 本次调用的超时时间
+   * @return 调用选项
+   */
+  public static CallOptions withTimeout(Duration timeout) {
+    CallOptions options = new CallOptions();
+    options.setTimeout(timeout);
+    return options;
+  }
+
+  /**
+   * 创建指定路由 Key 的调用选项
+   *
+   * @param routeKey 路由 Key
+   * @return 调用选项
+   */
+  public static CallOptions withRouteKey(String routeKey) {
+    CallOptions options = new CallOptions();
+    options.setRouteKey(routeKey);
+    return options;
+  }
+}
@@ -0,0 +1,31 @@
+package com.qgschina.udssdk.client.model;
+
+import lombok.Data;
+
+/**
+ * 批量方法调用中的单个方法调用
+ */
+@Data
+public class MethodCall {
+
+  /**
+   * 方法名
+   */
+  private final String method;
+
+  /**
+   * 方法参数
+   */
+  private final Object[] args;
+
+  /**
+   * 创建一个方法调用
+   *
+   * @param method 方法名
+   * @param args   可变长方法参数
+   */
+  public MethodCall(String method, Object... args) {
+    this.method = method;
+    this.args = args;
+  }
+}
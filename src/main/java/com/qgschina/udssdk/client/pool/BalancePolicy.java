@@ -0,0 +1,20 @@
+package com.qgschina.udssdk.client.pool;
+
+/**
+ * 同一命名空间存在多个 Server 副本时, 选择副本的负载均衡策略
+ */
+public enum BalancePolicy {
+
+  /**
+   * 选择当前未完成请求数最少的副本
+   */
+  LEAST_OUTSTANDING,
+
+  /**
+   * 随机选择两个副本, 再从中选择未完成请求数较少的副本
+   * <p>
+   * 副本较多时比 {@link #LEAST_OUTSTANDING} 开销更小,
+   * 且可避免多个 Client 同时涌向同一个最空闲的副本
+   */
+  POWER_OF_TWO_CHOICES
+}
@@ -0,0 +1,495 @@
+package com.qgschina.udssdk.client.pool;
+
+import com.qgschina.udssdk.common.codec.AttachmentCodec;
+import com.qgschina.udssdk.common.codec.FrameCodec;
+import com.qgschina.udssdk.common.codec.FrameFormat;
+import com.qgschina.udssdk.common.exception.UdsSdkException;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import io.netty.channel.unix.DomainSocketAddress;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.tcp.TcpClient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client 连接池
+ * <p>
+ * 每个 Socket 文件路径及连接池配置对应一个连接池, 并被所有以相同配置连接该路径的
+ * Client 共享; 请求优先复用已有连接的请求窗口, 仅当所有连接的窗口都已占满时才创建新连接
+ */
+@Slf4j
+public class ChannelPool {
+
+  /**
+   * 所有连接池, Key 为 Socket 文件路径, 最大字节数及连接池配置
+   * <p>
+   * 连接池的创建, 引用计数及关闭均在该对象的锁内进行
+   */
+  private static final Map<String, ChannelPool> POOLS = new HashMap<>();
+
+  /**
+   * 用于驱逐空闲连接的后台线程
+   */
+  private static final ScheduledExecutorService EVICTOR =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "uds-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * 该连接池在 {@link #POOLS} 中的 Key
+   */
+  private final String key;
+
+  /**
+   * 连接池配置
+   */
+  private final PoolConfig config;
+
+  /**
+   * 定期驱逐空闲连接的任务, 关闭连接池时取消
+   */
+  private final ScheduledFuture<?> evictTask;
+
+  /**
+   * 仍在使用该连接池的对象数, 在 {@link #POOLS} 的锁内读写
+   */
+  private int refs;
+
+  /**
+   * 连接池是否已关闭
+   */
+  private boolean closed;
+
+  /**
+   * 用于创建新连接
+   */
+  private final TcpClient client;
+
+  /**
+   * 已建立的连接, 越靠前的连接越优先被使用
+   */
+  private final List<PooledChannel> channels = new ArrayList<>();
+
+  /**
+   * 等待获取请求窗口的请求
+   */
+  private final Deque<CompletableFuture<PooledChannel>> waiters =
+      new ArrayDeque<>();
+
+  /**
+   * 正在创建的连接数
+   */
+  private int connecting;
+
+  /**
+   * 允许接收的最大字节数
+   */
+  private final int maxBytes;
+
+  /**
+   * 新建连接时是否与 Server 握手协商数据帧格式
+   */
+  private volatile boolean negotiate;
+
+  /**
+   * 握手时期望使用的数据编码方式
+   */
+  private final PayloadCodec codec;
+
+  private ChannelPool(String key, String socketPath, int maxBytesMb,
+      PoolConfig config) {
+    this.key = key;
+    this.config = config;
+    this.maxBytes = 1024 * 1024 * maxBytesMb;
+    this.negotiate = config.getFraming() == FrameFormat.BINARY;
+    this.codec = resolveCodec(config);
+
+    client = TcpClient.newConnection()
+        // Unix Domain Sockets (UDS)
+        .remoteAddress(() -> new DomainSocketAddress(socketPath))
+        // 各语言间数据都是通过 JSON 字符串传递, 握手后可切换为二进制数据帧
+        .doOnConnected(conn -> FrameCodec.install(conn, maxBytes));
+
+    evictTask = EVICTOR.scheduleWithFixedDelay(this::evict,
+        config.getEvictIntervalMillis(), config.getEvictIntervalMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 获取指定 Socket 文件路径及配置的连接池, 若不存在则创建
+   * <p>
+   * 不再使用时须调用 {@link #close()}; 创建连接池后不应再修改其配置
+   *
+   * @param socketPath Socket 文件路径
+   * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
+   * @param config     连接池配置
+   * @return 连接池
+   */
+  public static ChannelPool get(String socketPath, int maxBytesMb,
+      PoolConfig config) {
+    String key = socketPath + "#" + maxBytesMb + "#" + config;
+    synchronized (POOLS) {
+      ChannelPool pool = POOLS.get(key);
+      if (pool == null) {
+        pool = new ChannelPool(key, socketPath, maxBytesMb, config);
+        POOLS.put(key, pool);
+      }
+      pool.refs++;
+      return pool;
+    }
+  }
+
+  /**
+   * 不再使用该连接池, 与 {@link #get(String, int, PoolConfig)} 成对调用
+   * <p>
+   * 所有使用者都已不再使用时关闭连接池: 停止驱逐任务, 关闭空闲连接,
+   * 仍有请求的连接在请求完成后关闭; 之后获取连接均失败
+   */
+  public void close() {
+    synchronized (POOLS) {
+      if (--refs > 0) {
+        return;
+      }
+      POOLS.remove(key);
+    }
+
+    evictTask.cancel(false);
+
+    List<PooledChannel> idle = new ArrayList<>();
+    List<CompletableFuture<PooledChannel>> waiting;
+    synchronized (this) {
+      closed = true;
+
+      Iterator<PooledChannel> it = channels.iterator();
+      while (it.hasNext()) {
+        PooledChannel channel = it.next();
+        if (channel.getInFlight() == 0) {
+          it.remove();
+          idle.add(channel);
+        }
+      }
+
+      waiting = new ArrayList<>(waiters);
+      waiters.clear();
+    }
+
+    idle.forEach(PooledChannel::close);
+
+    UdsSdkException e = new UdsSdkException("连接池已关闭");
+    waiting.forEach(waiter -> waiter.completeExceptionally(e));
+  }
+
+  /**
+   * 解析配置中期望使用的数据编码方式
+   *
+   * @param config 连接池配置
+   * @return 数据编码方式, 不协商数据帧格式或该编码方式不可用时为 {@link PayloadCodecs#JSON};
+   * 启用二进制附件时为包装后的 {@link AttachmentCodec}
+   */
+  static PayloadCodec resolveCodec(PoolConfig config) {
+    if (config.getFraming() != FrameFormat.BINARY) {
+      return PayloadCodecs.JSON;
+    }
+
+    PayloadCodec codec = PayloadCodecs.get(config.getCodec());
+    if (codec == null) {
+      log.warn("数据编码方式不可用, 将使用 JSON: " + config.getCodec() +
+          ", 可用的编码方式: " + PayloadCodecs.names());
+      codec = PayloadCodecs.JSON;
+    }
+    return config.isAttachments() ? AttachmentCodec.of(codec) : codec;
+  }
+
+  /**
+   * 获取一个请求窗口未占满的连接, 并占用其中一个请求窗口
+   * <p>
+   * 若所有连接的请求窗口都已占满且连接数已达上限, 则等待其他请求释放窗口
+   *
+   * @return 可用连接, 连接池已关闭时获取失败
+   */
+  public CompletableFuture<PooledChannel> acquire() {
+    CompletableFuture<PooledChannel> future = new CompletableFuture<>();
+    List<PooledChannel> broken = new ArrayList<>();
+    boolean create = false;
+
+    synchronized (this) {
+      if (closed) {
+        future.completeExceptionally(new UdsSdkException("连接池已关闭"));
+        return future;
+      }
+
+      removeInactive(broken);
+
+      PooledChannel channel = reserveChannel();
+      if (channel != null) {
+        future.complete(channel);
+      } else if (channels.size() + connecting < config.getMaxSize()) {
+        connecting++;
+        create = true;
+      } else {
+        waiters.addLast(future);
+      }
+    }
+
+    broken.forEach(PooledChannel::close);
+
+    if (create) {
+      connect(future);
+    }
+
+    return future;
+  }
+
+  /**
+   * 释放占用的请求窗口
+   *
+   * @param channel  占用请求窗口的连接
+   * @param reusable 连接是否仍可复用, 如放弃等待响应且无法匹配后续响应的连接则不可复用
+   */
+  public void release(PooledChannel channel, boolean reusable) {
+    boolean close = false;
+
+    synchronized (this) {
+      channel.unreserve();
+
+      if (!reusable || !channel.isActive() ||
+          closed && channel.getInFlight() == 0) {
+        close = channels.remove(channel);
+      }
+    }
+
+    if (close) {
+      channel.close();
+    }
+
+    serveWaiters();
+  }
+
+  /**
+   * 为仍在等待的请求分配请求窗口或创建新连接
+   */
+  private void serveWaiters() {
+    while (true) {
+      CompletableFuture<PooledChannel> waiter;
+      PooledChannel channel;
+
+      synchronized (this) {
+        waiter = pollWaiter();
+        if (waiter == null) {
+          return;
+        }
+
+        channel = reserveChannel();
+        if (channel == null) {
+          if (channels.size() + connecting >= config.getMaxSize()) {
+            waiters.addFirst(waiter);
+            return;
+          }
+          connecting++;
+        }
+      }
+
+      if (channel == null) {
+        connect(waiter);
+      } else if (!waiter.complete(channel)) {
+        // 等待者已超时放弃
+        synchronized (this) {
+          channel.unreserve();
+        }
+      }
+    }
+  }
+
+  /**
+   * 创建新连接
+   *
+   * @param future 连接创建完成后需通知的对象, 为 {@code null} 时仅加入连接池
+   */
+  private void connect(CompletableFuture<PooledChannel> future) {
+    client.connect().subscribe(
+        conn -> {
+          PooledChannel channel = new PooledChannel(conn);
+          if (!negotiate) {
+            onConnected(channel, future);
+            return;
+          }
+
+          // 握手完成前该连接不加入连接池, 故不会有其他请求
+          channel.negotiate(maxBytes, config.getHandshakeTimeoutMillis(),
+                  codec, config.getSharedMemoryThreshold())
+              .whenComplete((ignore, thr) -> {
+                if (thr == null) {
+                  onConnected(channel, future);
+                  return;
+                }
+
+                channel.close();
+                if (thr instanceof TimeoutException) {
+                  // 无法确认 Server 是否会响应握手, 重新建立连接并直接使用 JSON
+                  log.warn("Server 未响应握手, 之后直接使用 JSON 数据帧");
+                  negotiate = false;
+                  connect(future);
+                } else {
+                  onConnectFailed(future, thr);
+                }
+              });
+        },
+        thr -> onConnectFailed(future, thr));
+  }
+
+  /**
+   * 新连接可用时加入连接池
+   *
+   * @param channel 新连接
+   * @param future  连接创建完成后需通知的对象, 为 {@code null} 时仅加入连接池
+   */
+  private void onConnected(PooledChannel channel,
+      CompletableFuture<PooledChannel> future) {
+    boolean close;
+    synchronized (this) {
+      connecting--;
+      close = closed;
+      if (!close) {
+        channels.add(channel);
+        channel.reserve();
+      }
+    }
+
+    if (close) {
+      channel.close();
+      if (future != null) {
+        future.completeExceptionally(new UdsSdkException("连接池已关闭"));
+      }
+      return;
+    }
+
+    if (future == null || !future.complete(channel)) {
+      release(channel, true);
+    }
+  }
+
+  /**
+   * 创建新连接失败
+   *
+   * @param future 连接创建完成后需通知的对象, 可为 {@code null}
+   * @param thr    失败原因
+   */
+  private void onConnectFailed(CompletableFuture<PooledChannel> future,
+      Throwable thr) {
+    synchronized (this) {
+      connecting--;
+    }
+
+    if (future != null) {
+      future.completeExceptionally(thr);
+    }
+  }
+
+  /**
+   * 按顺序查找请求窗口未占满的连接, 并占用其中一个请求窗口
+   * <p>
+   * 仍有流数据正在传输的连接可能暂停读取, 故不再分配给新的请求
+   *
+   * @return 可用连接, 不存在时返回 {@code null}
+   */
+  private PooledChannel reserveChannel() {
+    for (PooledChannel channel : channels) {
+      if (channel.isActive() && !channel.hasActiveStreams() &&
+          channel.getInFlight() < config.getMaxInFlight()) {
+        channel.reserve();
+        return channel;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 从连接池中移除已断开的连接
+   *
+   * @param broken 用于收集已断开的连接
+   */
+  private void removeInactive(List<PooledChannel> broken) {
+    Iterator<PooledChannel> it = channels.iterator();
+    while (it.hasNext()) {
+      PooledChannel channel = it.next();
+      if (!channel.isActive()) {
+        it.remove();
+        broken.add(channel);
+      }
+    }
+  }
+
+  /**
+   * 获取下一个仍在等待的请求
+   *
+   * @return 仍在等待的请求, 不存在时返回 {@code null}
+   */
+  private CompletableFuture<PooledChannel> pollWaiter() {
+    CompletableFuture<PooledChannel> waiter;
+    while ((waiter = waiters.pollFirst()) != null) {
+      if (!waiter.isDone()) {
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 驱逐已断开或空闲过久的连接, 并补足最少空闲连接数
+   */
+  private void evict() {
+    List<PooledChannel> evicted = new ArrayList<>();
+    int lack;
+
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      removeInactive(evicted);
+
+      long now = System.currentTimeMillis();
+      int idle = 0;
+      // 优先驱逐靠后的 (即较少被使用的) 连接
+      for (int i = channels.size() - 1; i >= 0; --i) {
+        PooledChannel channel = channels.get(i);
+        if (channel.getInFlight() > 0) {
+          continue;
+        }
+
+        if (++idle > config.getMinIdle() &&
+            now - channel.getLastIdleMillis() > config.getMaxIdleMillis()) {
+          channels.remove(i);
+          evicted.add(channel);
+          idle--;
+        }
+      }
+
+      lack = Math.min(config.getMinIdle() - idle,
+          config.getMaxSize() - channels.size() - connecting);
+      if (lack > 0) {
+        connecting += lack;
+      }
+    }
+
+    evicted.forEach(PooledChannel::close);
+
+    for (int i = 0; i < lack; ++i) {
+      connect(null);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.qgschina.udssdk.client.pool;
+
+import com.qgschina.udssdk.common.codec.FrameFormat;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import lombok.Data;
+
+/**
+ * Client 连接池配置
+ * <p>
+ * 注意: 连接池按 Socket 文件路径及配置共享, 故创建 Client 后不应再修改其配置
+ */
+@Data
+public class PoolConfig {
+
+  /**
+   * 最少保持的空闲连接数
+   */
+  private int minIdle = 0;
+
+  /**
+   * 最大连接数
+   */
+  private int maxSize = 8;
+
+  /**
+   * 每个连接允许同时等待响应的最大请求数
+   */
+  private int maxInFlight = 64;
+
+  /**
+   * 空闲连接的最大存活时间, 单位: 毫秒
+   */
+  private long maxIdleMillis = 60 * 1000;
+
+  /**
+   * 后台检测并驱逐空闲连接的时间间隔, 单位: 毫秒
+   */
+  private long evictIntervalMillis = 30 * 1000;
+
+  /**
+   * 同一命名空间存在多个 Server 副本时的负载均衡策略
+   */
+  private BalancePolicy balancePolicy = BalancePolicy.POWER_OF_TWO_CHOICES;
+
+  /**
+   * 后台扫描 Socket 文件所在目录以发现 Server 副本的时间间隔, 单位: 毫秒
+   * <p>
+   * 同时也是连接失败的副本暂不被选择的时长
+   */
+  private long discoverIntervalMillis = 5 * 1000;
+
+  /**
+   * 期望使用的数据帧格式, 为 {@link FrameFormat#BINARY} 时在建立连接后与 Server 握手协商,
+   * Server 不支持时自动回退为 {@link FrameFormat#JSON}
+   */
+  private FrameFormat framing = FrameFormat.BINARY;
+
+  /**
+   * 等待握手响应的最长时间, 单位: 毫秒
+   * <p>
+   * 超时后该连接池不再握手, 直接使用 {@link FrameFormat#JSON} 格式
+   */
+  private long handshakeTimeoutMillis = 1000;
+
+  /**
+   * 期望使用的数据编码方式, 如 {@code cbor}, 详见 {@link PayloadCodecs}
+   * <p>
+   * 仅在协商为 {@link FrameFormat#BINARY} 格式时生效, Server 不支持时自动回退为 JSON
+   */
+  private String codec = PayloadCodecs.JSON.name();
+
+  /**
+   * 是否以附件形式传输 {@code byte[]} 等二进制数据, 而非 Base64 字符串
+   * <p>
+   * 仅在协商为 {@link FrameFormat#BINARY} 格式时生效, Server 不支持时自动回退为 Base64
+   */
+  private boolean attachments = true;
+
+  /**
+   * 经由 {@code /dev/shm} 共享内存传输的最小数据字节数, 为 0 时不使用共享内存
+   * <p>
+   * 不小于该字节数的请求及响应写入共享内存段, 数据帧中仅写出该段的描述;
+   * 仅在协商为 {@link FrameFormat#BINARY} 格式时生效, 且 Client 与 Server
+   * 需以同一用户运行并共享 {@code /dev/shm}, Server 不支持时自动回退为经由 Socket 传输
+   */
+  private int sharedMemoryThreshold = 0;
+}
@@ -0,0 +1,515 @@
+package com.qgschina.udssdk.client.pool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.qgschina.udssdk.common.codec.AttachmentCodec;
+import com.qgschina.udssdk.common.codec.ChunkReceiver;
+import com.qgschina.udssdk.common.codec.ChunkWriter;
+import com.qgschina.udssdk.common.codec.ChunkedInputStream;
+import com.qgschina.udssdk.common.codec.FrameCodec;
+import com.qgschina.udssdk.common.codec.FrameFormat;
+import com.qgschina.udssdk.common.codec.JsonCodec;
+import com.qgschina.udssdk.common.codec.SharedMemory;
+import com.qgschina.udssdk.common.codec.UdsFrame;
+import com.qgschina.udssdk.common.constant.InnerErrorCode;
+import com.qgschina.udssdk.common.constant.InnerReqType;
+import com.qgschina.udssdk.common.exception.DataProcessException;
+import com.qgschina.udssdk.common.exception.UdsSdkException;
+import com.qgschina.udssdk.common.model.HandshakeData;
+import com.qgschina.udssdk.common.model.InnerReqData;
+import com.qgschina.udssdk.common.model.InnerRespData;
+import com.qgschina.udssdk.common.util.JsonEngine;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.Connection;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 连接池中的 UDS 长连接
+ * <p>
+ * 多个请求可同时在同一连接上等待响应, 通过请求 ID 匹配 Server 端的响应;
+ * 若 Server 端未返回请求 ID (如其他语言的 SDK), 则按发送顺序匹配响应.
+ * 响应在入栈数据帧被释放前即由请求指定的解码函数直接解析, 不再转为 JSON 字符串.
+ * 连接建立后可先与 Server 握手, 协商使用 {@link FrameFormat#BINARY} 格式的数据帧,
+ * 以及之后的数据编码方式 ({@link PayloadCodec}), 是否支持流式传输及是否经由共享内存传输.
+ * 流参数或流返回值的数据仍在传输时, 连接不再分配给新的请求, 以免其他请求被流数据阻塞
+ */
+@Slf4j
+public class PooledChannel {
+
+  /**
+   * 握手请求使用的请求 ID, 普通请求的 ID 均大于 0
+   */
+  private static final long HANDSHAKE_ID = 0;
+
+  /**
+   * 用于解析握手响应
+   */
+  private static final ObjectReader HANDSHAKE_READER = JsonEngine.reader(
+      JsonEngine.getMapper().getTypeFactory().constructParametricType(
+          InnerRespData.class, HandshakeData.class));
+
+  /**
+   * 已建立的连接
+   */
+  private final Connection connection;
+
+  /**
+   * 正在等待 Server 端响应的请求, Key 为请求 ID
+   */
+  private final Map<Long, PendingRequest<?>> pending =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 请求的发送顺序, 仅在 Server 端不返回请求 ID 时用于匹配响应
+   */
+  private final Queue<Long> sendOrder = new ConcurrentLinkedQueue<>();
+
+  /**
+   * 已占用的请求窗口数
+   */
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  /**
+   * Server 端是否会在响应中返回请求 ID
+   */
+  private volatile boolean requestIdSupported;
+
+  /**
+   * 是否已协商为 {@link FrameFormat#BINARY} 格式
+   */
+  private volatile boolean framed;
+
+  /**
+   * 响应之后紧跟着流数据且尚未被请求取走的输入流, Key 为请求 ID
+   */
+  private final Map<Long, ChunkedInputStream> responseStreams =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 正在传输的流参数及流返回值个数
+   */
+  private final AtomicInteger activeStreams = new AtomicInteger();
+
+  /**
+   * 最近一次无请求占用的时间, 单位: 毫秒
+   */
+  private volatile long lastIdleMillis = System.currentTimeMillis();
+
+  PooledChannel(Connection connection) {
+    this.connection = connection;
+
+    connection.inbound()
+        .receiveObject()
+        .subscribe(this::onFrame, this::failAll);
+
+    connection.onDispose(() -> failAll(new ClosedChannelException()));
+  }
+
+  /**
+   * 与 Server 握手, 协商数据帧格式及数据编码方式
+   * <p>
+   * 必须在连接建立后, 发送其他请求前执行; Server 不支持握手时返回错误响应,
+   * 此时继续使用 {@link FrameFormat#JSON} 格式; Server 不支持期望的编码方式时使用 JSON,
+   * 不支持二进制附件时仍以 Base64 字符串传输二进制数据, 不支持流式传输时无法使用流参数,
+   * 不支持共享内存时仍经由 Socket 传输
+   *
+   * @param maxBytes        允许接收的最大字节数
+   * @param timeoutMillis   等待握手响应的最长时间, 单位: 毫秒
+   * @param codec           期望使用的数据编码方式, 为 {@link AttachmentCodec} 时同时协商二进制附件
+   * @param sharedThreshold 期望经由共享内存传输的最小数据字节数, 为 0 时不使用共享内存
+   * @return 握手完成; 超时时以 {@link TimeoutException} 异常完成
+   */
+  CompletableFuture<Void> negotiate(int maxBytes, long timeoutMillis,
+      PayloadCodec codec, int sharedThreshold) {
+    InnerReqData reqData = new InnerReqData();
+    reqData.setId(HANDSHAKE_ID);
+    reqData.setType(InnerReqType.HANDSHAKE.value());
+    reqData.setFramings(Arrays.asList(
+        FrameFormat.BINARY.value(), FrameFormat.JSON.value()));
+    PayloadCodec inner = AttachmentCodec.unwrap(codec);
+    if (inner != PayloadCodecs.JSON) {
+      reqData.setCodecs(Collections.singletonList(inner.name()));
+    }
+    if (codec instanceof AttachmentCodec) {
+      reqData.setAttachments(true);
+    }
+    reqData.setStreams(true);
+    if (sharedThreshold > 0 && SharedMemory.isAvailable()) {
+      reqData.setSharedMemory(sharedThreshold);
+    }
+
+    ByteBuf frame;
+    try {
+      frame = JsonCodec.encode(reqData);
+    } catch (JsonProcessingException e) {
+      CompletableFuture<Void> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+
+    // 在收到握手响应的事件循环线程中切换, 此时 Server 端已完成切换
+    CompletableFuture<Void> future = request(HANDSHAKE_ID, frame,
+        (resp, respCodec) -> {
+          HandshakeData data = parseHandshake(resp);
+          if (data != null &&
+              FrameFormat.BINARY.value().equals(data.getFraming())) {
+            FrameCodec.upgrade(connection.channel(), maxBytes);
+            PayloadCodec negotiated = PayloadCodecs.get(data.getCodec());
+            if (negotiated == null) {
+              negotiated = PayloadCodecs.JSON;
+            }
+            if (Boolean.TRUE.equals(data.getAttachments())) {
+              negotiated = AttachmentCodec.of(negotiated);
+            }
+            FrameCodec.setPayloadCodec(connection.channel(), negotiated);
+            FrameCodec.setStreaming(connection.channel(),
+                Boolean.TRUE.equals(data.getStreams()));
+            Integer shared = data.getSharedMemory();
+            if (shared != null && shared > 0) {
+              FrameCodec.setSharedMemory(connection.channel(), shared);
+            }
+            framed = true;
+          }
+          return null;
+        });
+
+    ScheduledFuture<?> timeout = connection.channel().eventLoop().schedule(
+        () -> {
+          cancel(HANDSHAKE_ID);
+          future.completeExceptionally(new TimeoutException("握手超时"));
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+    // 握手完成后取消, 以免每个连接都在事件循环中遗留待执行的任务
+    future.whenComplete((ignore, thr) -> timeout.cancel(false));
+
+    return future;
+  }
+
+  /**
+   * 发送请求, 并等待 Server 端响应
+   *
+   * @param id      请求 ID, 必须与请求数据中的 ID 一致
+   * @param frame   按 {@link #getCodec()} 编码的请求数据帧, 写出后由 Netty 释放
+   * @param decoder 用于在响应数据帧被释放前, 按其编码方式解析响应
+   * @param <R>     解析后的响应类型
+   * @return 解析后的 Server 端响应
+   */
+  public <R> CompletableFuture<R> request(long id, ByteBuf frame,
+      BiFunction<ByteBuf, PayloadCodec, R> decoder) {
+    return request(id, frame, decoder, false);
+  }
+
+  /**
+   * 发送请求, 并等待 Server 端响应
+   *
+   * @param id       请求 ID, 必须与请求数据中的 ID 一致
+   * @param frame    按 {@link #getCodec()} 编码的请求数据帧, 写出后由 Netty 释放
+   * @param decoder  用于在响应数据帧被释放前, 按其编码方式解析响应
+   * @param streamed 之后是否以 {@link #writeStream} 写出流参数的数据
+   * @param <R>      解析后的响应类型
+   * @return 解析后的 Server 端响应
+   */
+  public <R> CompletableFuture<R> request(long id, ByteBuf frame,
+      BiFunction<ByteBuf, PayloadCodec, R> decoder, boolean streamed) {
+    CompletableFuture<R> future = new CompletableFuture<>();
+    pending.put(id, new PendingRequest<>(future, decoder));
+
+    ChannelFuture writeFuture;
+    synchronized (sendOrder) {
+      if (!requestIdSupported) {
+        sendOrder.add(id);
+      }
+      writeFuture = connection.channel().writeAndFlush(framed ?
+          new UdsFrame(id, frame, getCodec() != PayloadCodecs.JSON, streamed) :
+          frame);
+    }
+
+    writeFuture.addListener(f -> {
+      if (!f.isSuccess()) {
+        pending.remove(id);
+        future.completeExceptionally(f.cause());
+      }
+    });
+
+    return future;
+  }
+
+  /**
+   * 在请求之后以分块数据帧写出流参数的数据, 写出完毕或失败后关闭数据源
+   *
+   * @param id        请求 ID
+   * @param source    {@code InputStream} 或 {@code ReadableByteChannel}
+   * @param cancelled 返回 {@code true} 时中止写出, 如请求已超时
+   * @return 全部写出后完成
+   */
+  public CompletableFuture<Void> writeStream(long id, Object source,
+      BooleanSupplier cancelled) {
+    return track(ChunkWriter.write(connection.channel(), id, source,
+        cancelled));
+  }
+
+  /**
+   * 取走响应之后紧跟着的流返回值, 必须在解析该响应时调用
+   *
+   * @param id 请求 ID
+   * @return 由之后的分块数据帧填充的输入流, 响应没有流返回值时为 {@code null}
+   */
+  public ChunkedInputStream takeStream(long id) {
+    return responseStreams.remove(id);
+  }
+
+  /**
+   * 判断连接是否已协商支持流式传输
+   *
+   * @return {@code true} 若支持流参数及流返回值
+   */
+  public boolean isStreamingSupported() {
+    return FrameCodec.isStreaming(connection.channel());
+  }
+
+  /**
+   * 判断连接上是否仍有流数据正在传输
+   *
+   * @return {@code true} 若仍有流参数或流返回值的数据正在传输
+   */
+  public boolean hasActiveStreams() {
+    return activeStreams.get() > 0;
+  }
+
+  /**
+   * 放弃等待某个请求的响应, 之后收到的该请求的响应将被丢弃
+   *
+   * @param id 请求 ID
+   */
+  public void cancel(long id) {
+    pending.remove(id);
+  }
+
+  /**
+   * 判断 Server 端是否会在响应中返回请求 ID
+   * <p>
+   * 若不会, 则放弃等待的请求之后收到的响应将无法被正确匹配, 故该连接不可再复用
+   *
+   * @return {@code true} 若 Server 端会在响应中返回请求 ID
+   */
+  public boolean isRequestIdSupported() {
+    return requestIdSupported;
+  }
+
+  /**
+   * 判断连接是否已协商为 {@link FrameFormat#BINARY} 格式
+   *
+   * @return {@code true} 若已协商为二进制数据帧
+   */
+  public boolean isFramed() {
+    return framed;
+  }
+
+  /**
+   * 获取连接上协商的数据编码方式, 发送的请求必须按该方式编码
+   *
+   * @return 数据编码方式, 未协商时为 {@link PayloadCodecs#JSON}
+   */
+  public PayloadCodec getCodec() {
+    return FrameCodec.getPayloadCodec(connection.channel());
+  }
+
+  /**
+   * 判断连接是否仍然可用
+   *
+   * @return {@code true} 若连接仍然可用
+   */
+  public boolean isActive() {
+    return !connection.isDisposed() && connection.channel().isActive();
+  }
+
+  /**
+   * 关闭连接, 并使所有等待中的请求失败
+   */
+  void close() {
+    failAll(new UdsSdkException("连接已被 Client 关闭"));
+    connection.dispose();
+  }
+
+  int getInFlight() {
+    return inFlight.get();
+  }
+
+  void reserve() {
+    inFlight.incrementAndGet();
+  }
+
+  void unreserve() {
+    if (inFlight.decrementAndGet() == 0) {
+      lastIdleMillis = System.currentTimeMillis();
+    }
+  }
+
+  long getLastIdleMillis() {
+    return lastIdleMillis;
+  }
+
+  private void onFrame(Object msg) {
+    ByteBuf frame;
+    Long id;
+    PayloadCodec codec = PayloadCodecs.JSON;
+    UdsFrame framed = msg instanceof UdsFrame ? (UdsFrame) msg : null;
+    if (framed != null && framed.isChunk()) {
+      // 流返回值的数据块交给对应请求的输入流, 请求已被放弃时直接丢弃
+      ChunkReceiver.of(connection.channel()).onChunk(framed);
+      return;
+    }
+
+    if (framed != null) {
+      // 请求 ID 位于帧头中, 无需扫描 JSON
+      frame = framed.content();
+      id = framed.getId();
+      if (framed.isEncoded()) {
+        codec = getCodec();
+      }
+    } else {
+      frame = (ByteBuf) msg;
+      id = JsonCodec.peekLong(frame, "id");
+    }
+
+    if (id != null) {
+      if (!requestIdSupported) {
+        synchronized (sendOrder) {
+          requestIdSupported = true;
+          sendOrder.clear();
+        }
+      }
+    } else {
+      // Server 端按顺序处理请求, 故按发送顺序匹配
+      id = sendOrder.poll();
+    }
+
+    PendingRequest<?> request = id == null ? null : pending.remove(id);
+    if (request == null) {
+      log.warn("丢弃无对应请求的 Server 响应 --> " +
+          JsonCodec.toString(frame, codec));
+      return;
+    }
+
+    if (framed != null && framed.isOversized()) {
+      request.future.completeExceptionally(
+          new DataProcessException("接收的数据量过大"));
+      return;
+    }
+    if (framed != null && framed.getFailure() != null) {
+      request.future.completeExceptionally(
+          new DataProcessException("接收数据失败: " + framed.getFailure()));
+      return;
+    }
+
+    if (framed == null || !framed.isStreamed()) {
+      request.complete(frame, codec);
+      return;
+    }
+
+    // 在处理下一个数据帧前开始接收流返回值, 解析响应时由请求取走, 未被取走时直接丢弃
+    ChunkedInputStream stream =
+        ChunkReceiver.of(connection.channel()).open(id);
+    track(stream.received());
+    responseStreams.put(id, stream);
+    request.complete(frame, codec);
+    ChunkedInputStream untaken = responseStreams.remove(id);
+    if (untaken != null) {
+      untaken.close();
+    }
+  }
+
+  /**
+   * 记录正在传输的流数据
+   *
+   * @param done 流数据传输完毕时完成
+   * @return {@code done}
+   */
+  private <T> CompletableFuture<T> track(CompletableFuture<T> done) {
+    activeStreams.incrementAndGet();
+    done.whenComplete((r, thr) -> activeStreams.decrementAndGet());
+    return done;
+  }
+
+  /**
+   * 解析握手响应中的协商结果
+   *
+   * @param frame 握手响应数据帧
+   * @return 协商结果, Server 不支持握手时返回 {@code null}
+   */
+  private static HandshakeData parseHandshake(ByteBuf frame) {
+    try {
+      InnerRespData<HandshakeData> resp =
+          JsonCodec.decode(frame, HANDSHAKE_READER);
+      Integer code = resp.getCode();
+      if (code != null && code == InnerErrorCode.SUCCESS.value()) {
+        return resp.getData();
+      }
+    } catch (IOException ignore) {
+      // 无法识别的响应, 视为不支持握手
+    }
+    return null;
+  }
+
+  private void failAll(Throwable thr) {
+    for (Long id : pending.keySet()) {
+      PendingRequest<?> request = pending.remove(id);
+      if (request != null) {
+        request.future.completeExceptionally(thr);
+      }
+    }
+  }
+
+  /**
+   * 正在等待 Server 端响应的请求
+   *
+   * @param <R> 解析后的响应类型
+   */
+  private static class PendingRequest<R> {
+
+    private final CompletableFuture<R> future;
+
+    private final BiFunction<ByteBuf, PayloadCodec, R> decoder;
+
+    PendingRequest(CompletableFuture<R> future,
+        BiFunction<ByteBuf, PayloadCodec, R> decoder) {
+      this.future = future;
+      this.decoder = decoder;
+    }
+
+    /**
+     * 解析响应数据帧, 数据帧仅在本方法返回前有效
+     *
+     * @param frame 响应数据帧
+     * @param codec 响应数据的编码方式
+     */
+    void complete(ByteBuf frame, PayloadCodec codec) {
+      R resp;
+      try {
+        resp = decoder.apply(frame, codec);
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      future.complete(resp);
+    }
+  }
+}
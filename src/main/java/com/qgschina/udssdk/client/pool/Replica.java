@@ -0,0 +1,74 @@
+package com.qgschina.udssdk.client.pool;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同一命名空间下的某个 Server 副本
+ */
+public class Replica {
+
+  /**
+   * 副本的 Socket 文件路径
+   */
+  private final String socketPath;
+
+  /**
+   * 该副本的连接池
+   */
+  private final ChannelPool pool;
+
+  /**
+   * 当前 Client 进程发往该副本且尚未完成的请求数
+   */
+  private final AtomicInteger outstanding = new AtomicInteger();
+
+  /**
+   * 连接失败后暂不选择该副本的截止时间, 单位: 毫秒
+   */
+  private volatile long downUntilMillis;
+
+  Replica(String socketPath, ChannelPool pool) {
+    this.socketPath = socketPath;
+    this.pool = pool;
+  }
+
+  public String getSocketPath() {
+    return socketPath;
+  }
+
+  public ChannelPool getPool() {
+    return pool;
+  }
+
+  /**
+   * 开始向该副本发送请求, 请求完成后必须调用 {@link #end()}
+   */
+  public void begin() {
+    outstanding.incrementAndGet();
+  }
+
+  /**
+   * 发往该副本的请求已完成
+   */
+  public void end() {
+    outstanding.decrementAndGet();
+  }
+
+  /**
+   * 标记该副本连接失败 (如 Server 进程已退出但 Socket 文件仍残留),
+   * 在下次发现副本之前暂不选择该副本
+   *
+   * @param downMillis 暂不选择的时长, 单位: 毫秒
+   */
+  void markDown(long downMillis) {
+    downUntilMillis = System.currentTimeMillis() + downMillis;
+  }
+
+  int getOutstanding() {
+    return outstanding.get();
+  }
+
+  boolean isDown() {
+    return downUntilMillis > System.currentTimeMillis();
+  }
+}
@@ -0,0 +1,434 @@
+package com.qgschina.udssdk.client.pool;
+
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 同一命名空间下的所有 Server 副本
+ * <p>
+ * 副本的 Socket 文件路径为命名空间的 Socket 文件路径加上副本序号, 如
+ * {@code <ns>.0}, {@code <ns>.1}; 未加序号的 Socket 文件 (即未使用副本的 Server)
+ * 也视为一个副本. 副本在创建时及之后定期扫描 Socket 文件所在目录发现,
+ * 每个副本使用各自的连接池
+ */
+@Slf4j
+public class ReplicaSet {
+
+  /**
+   * 所有副本集合, Key 为命名空间的 Socket 文件路径, 最大字节数及连接池配置
+   * <p>
+   * 副本集合的创建, 引用计数及关闭均在该对象的锁内进行
+   */
+  private static final Map<String, ReplicaSet> SETS = new HashMap<>();
+
+  /**
+   * 用于定期发现副本的后台线程
+   */
+  private static final ScheduledExecutorService DISCOVERER =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "uds-replica-discoverer");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * 一致性哈希环上每个副本的虚拟节点数
+   */
+  private static final int VIRTUAL_NODES = 160;
+
+  /**
+   * 副本序号的格式
+   */
+  private static final Pattern INDEX_PATTERN = Pattern.compile("\\d+");
+
+  /**
+   * 该副本集合在 {@link #SETS} 中的 Key
+   */
+  private final String key;
+
+  /**
+   * 命名空间的 Socket 文件路径 (不含副本序号)
+   */
+  private final String socketPath;
+
+  /**
+   * 允许数据传输的最大字节数, 单位: MB
+   */
+  private final int maxBytesMb;
+
+  /**
+   * 连接池配置, 各副本的连接池共用
+   */
+  private final PoolConfig config;
+
+  /**
+   * 期望使用的数据编码方式, 各副本的连接池共用
+   */
+  private final PayloadCodec codec;
+
+  /**
+   * 当前已发现的副本, 按副本序号排列, 未加序号的副本排在最前
+   */
+  private volatile List<Replica> replicas;
+
+  /**
+   * 当前已发现的副本构成的一致性哈希环
+   */
+  private volatile NavigableMap<Long, Replica> ring;
+
+  /**
+   * 定期发现副本的任务, 关闭副本集合时取消
+   */
+  private final ScheduledFuture<?> discoverTask;
+
+  /**
+   * 仍在使用该副本集合的对象数, 在 {@link #SETS} 的锁内读写
+   */
+  private int refs;
+
+  /**
+   * 副本集合是否已关闭, 在本对象的锁内读写
+   */
+  private boolean closed;
+
+  private ReplicaSet(String key, String socketPath, int maxBytesMb,
+      PoolConfig config) {
+    this.key = key;
+    this.socketPath = socketPath;
+    this.maxBytesMb = maxBytesMb;
+    this.config = config;
+    this.codec = ChannelPool.resolveCodec(config);
+
+    discover();
+
+    discoverTask = DISCOVERER.scheduleWithFixedDelay(this::discover,
+        config.getDiscoverIntervalMillis(), config.getDiscoverIntervalMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 获取指定命名空间的副本集合, 若不存在则创建
+   *
+   * @param socketPath 命名空间的 Socket 文件路径 (不含副本序号)
+   * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
+   * @param config     连接池配置, 创建副本集合后不应再修改
+   * @return 副本集合, 不再使用时须调用 {@link #close()}
+   */
+  public static ReplicaSet get(String socketPath, int maxBytesMb,
+      PoolConfig config) {
+    String key = socketPath + "#" + maxBytesMb + "#" + config;
+    synchronized (SETS) {
+      ReplicaSet set = SETS.get(key);
+      if (set == null) {
+        set = new ReplicaSet(key, socketPath, maxBytesMb, config);
+        SETS.put(key, set);
+      }
+      set.refs++;
+      return set;
+    }
+  }
+
+  /**
+   * 不再使用该副本集合, 与 {@link #get(String, int, PoolConfig)} 成对调用
+   * <p>
+   * 所有使用者都已不再使用时关闭副本集合: 停止发现副本, 并关闭各副本的连接池
+   */
+  public void close() {
+    synchronized (SETS) {
+      if (--refs > 0) {
+        return;
+      }
+      SETS.remove(key);
+    }
+
+    discoverTask.cancel(false);
+
+    List<Replica> current;
+    synchronized (this) {
+      closed = true;
+      current = replicas;
+    }
+    for (Replica replica : current) {
+      replica.getPool().close();
+    }
+  }
+
+  /**
+   * 获取期望使用的数据编码方式
+   * <p>
+   * 连接实际使用的编码方式以握手结果为准, 详见 {@link PooledChannel#getCodec()}
+   *
+   * @return 数据编码方式
+   */
+  public PayloadCodec getCodec() {
+    return codec;
+  }
+
+  /**
+   * 选择本次请求使用的副本
+   * <p>
+   * 指定路由 Key 时按一致性哈希选择, 以保证相同 Key 的请求发往同一副本
+   * (除非该副本已下线); 否则按负载均衡策略选择
+   *
+   * @param routeKey 路由 Key, 可为 {@code null}
+   * @return 副本
+   */
+  public Replica choose(String routeKey) {
+    List<Replica> current = replicas;
+    if (current.size() == 1) {
+      return current.get(0);
+    }
+
+    if (routeKey != null) {
+      return chooseByHash(routeKey);
+    }
+
+    if (config.getBalancePolicy() == BalancePolicy.LEAST_OUTSTANDING) {
+      return chooseLeastOutstanding(current);
+    }
+    return choosePowerOfTwo(current);
+  }
+
+  /**
+   * 获取当前已发现的副本数
+   *
+   * @return 副本数
+   */
+  public int size() {
+    return replicas.size();
+  }
+
+  /**
+   * 获取信号订阅使用的 Socket 文件路径, 即排在最前的副本
+   * <p>
+   * 消息推送由各副本各自发起, 故订阅仅连接一个固定的副本
+   *
+   * @return Socket 文件路径
+   */
+  public String getPrimarySocketPath() {
+    return replicas.get(0).getSocketPath();
+  }
+
+  /**
+   * 报告某个副本连接失败, 在下次发现副本之前暂不选择该副本
+   *
+   * @param replica 连接失败的副本
+   */
+  public void reportConnectFailure(Replica replica) {
+    if (replicas.size() > 1) {
+      replica.markDown(config.getDiscoverIntervalMillis());
+    }
+  }
+
+  /**
+   * 扫描 Socket 文件所在目录, 更新已发现的副本, 并关闭已消失的副本的连接池
+   * <p>
+   * 与 {@link #close()} 互斥, 以免关闭后再创建连接池
+   */
+  private synchronized void discover() {
+    if (closed) {
+      return;
+    }
+
+    File socketFile = new File(socketPath);
+    String prefix = socketFile.getName() + ".";
+
+    List<String> paths = new ArrayList<>();
+    File[] files = socketFile.getParentFile().listFiles(
+        (dir, name) -> name.startsWith(prefix) &&
+            INDEX_PATTERN.matcher(name.substring(prefix.length())).matches());
+    if (files != null) {
+      for (File file : files) {
+        paths.add(file.getPath());
+      }
+    }
+    paths.sort(Comparator.comparingLong(
+        path -> Long.parseLong(path.substring(socketPath.length() + 1))));
+
+    // 未使用副本的 Server, 或尚未发现任何副本时仍连接原 Socket 文件
+    if (socketFile.exists() || paths.isEmpty()) {
+      paths.add(0, socketPath);
+    }
+
+    List<Replica> current = replicas;
+    if (current != null && samePaths(current, paths)) {
+      return;
+    }
+
+    List<Replica> found = new ArrayList<>();
+    NavigableMap<Long, Replica> newRing = new TreeMap<>();
+    for (String path : paths) {
+      Replica replica = findReplica(current, path);
+      if (replica == null) {
+        replica = new Replica(path,
+            ChannelPool.get(path, maxBytesMb, config));
+      }
+      found.add(replica);
+
+      for (int i = 0; i < VIRTUAL_NODES; ++i) {
+        newRing.put(hash(path + "#" + i), replica);
+      }
+    }
+
+    if (current != null) {
+      log.info("命名空间 " + socketPath + " 的副本已变化 --> " + paths);
+    }
+
+    ring = newRing;
+    replicas = Collections.unmodifiableList(found);
+
+    if (current != null) {
+      for (Replica replica : current) {
+        if (!found.contains(replica)) {
+          replica.getPool().close();
+        }
+      }
+    }
+  }
+
+  /**
+   * 按一致性哈希选择副本, 跳过暂不可用的副本
+   *
+   * @param routeKey 路由 Key
+   * @return 副本
+   */
+  private Replica chooseByHash(String routeKey) {
+    NavigableMap<Long, Replica> current = ring;
+    long hash = hash(routeKey);
+
+    Replica first = null;
+    for (Replica replica : current.tailMap(hash, true).values()) {
+      if (first == null) {
+        first = replica;
+      }
+      if (!replica.isDown()) {
+        return replica;
+      }
+    }
+    for (Replica replica : current.headMap(hash, false).values()) {
+      if (first == null) {
+        first = replica;
+      }
+      if (!replica.isDown()) {
+        return replica;
+      }
+    }
+
+    // 所有副本都暂不可用, 仍使用哈希对应的副本
+    return first;
+  }
+
+  /**
+   * 选择未完成请求数最少的副本, 起始位置随机以避免总是偏向靠前的副本
+   *
+   * @param current 当前已发现的副本
+   * @return 副本
+   */
+  private Replica chooseLeastOutstanding(List<Replica> current) {
+    int size = current.size();
+    int start = ThreadLocalRandom.current().nextInt(size);
+
+    Replica best = null;
+    for (int i = 0; i < size; ++i) {
+      Replica replica = current.get((start + i) % size);
+      if (replica.isDown()) {
+        continue;
+      }
+      if (best == null || replica.getOutstanding() < best.getOutstanding()) {
+        best = replica;
+      }
+    }
+
+    return best == null ? current.get(start) : best;
+  }
+
+  /**
+   * 随机选择两个不同的副本, 并返回其中未完成请求数较少的副本
+   *
+   * @param current 当前已发现的副本
+   * @return 副本
+   */
+  private Replica choosePowerOfTwo(List<Replica> current) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int size = current.size();
+    int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first) {
+      second++;
+    }
+
+    Replica a = current.get(first);
+    Replica b = current.get(second);
+    if (a.isDown() && b.isDown()) {
+      // 两者都暂不可用, 改为从所有副本中选择
+      return chooseLeastOutstanding(current);
+    }
+    if (a.isDown() != b.isDown()) {
+      return a.isDown() ? b : a;
+    }
+    return a.getOutstanding() <= b.getOutstanding() ? a : b;
+  }
+
+  private static boolean samePaths(List<Replica> replicas,
+      List<String> paths) {
+    if (replicas.size() != paths.size()) {
+      return false;
+    }
+    for (int i = 0; i < paths.size(); ++i) {
+      if (!replicas.get(i).getSocketPath().equals(paths.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Replica findReplica(List<Replica> replicas, String path) {
+    if (replicas != null) {
+      for (Replica replica : replicas) {
+        if (replica.getSocketPath().equals(path)) {
+          return replica;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 计算一致性哈希值
+   * <p>
+   * 每次按路由 Key 选择副本时都会调用, 故使用 FNV-1a 逐字符累加后再经
+   * MurmurHash3 的 fmix64 打散, 无需创建摘要对象或编码字符串
+   *
+   * @param key 哈希 Key
+   * @return 哈希值
+   */
+  static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < key.length(); ++i) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+    }
+
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,31 @@
+package com.qgschina.udssdk.client.sub;
+
+import lombok.Data;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 信号订阅的消息分发配置
+ * <p>
+ * 每个订阅都有独立的待消费消息队列, 并按接收顺序在 {@link #executor} 中逐条执行消费者
+ */
+@Data
+public class DeliveryConfig {
+
+  /**
+   * 待消费消息队列的容量
+   */
+  private int queueCapacity = 1024;
+
+  /**
+   * 队列已满时的处理策略
+   */
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+  /**
+   * 执行消费者的线程池, 为 {@code null} 时使用 SDK 内部共享的线程池
+   * <p>
+   * 注意: 不应使用 Netty I/O 线程, 否则较慢的消费者会阻塞连接上的数据读取
+   */
+  private Executor executor;
+}
@@ -0,0 +1,229 @@
+package com.qgschina.udssdk.client.sub;
+
+import com.qgschina.udssdk.common.model.InnerRespData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 信号订阅的有界待消费消息队列
+ * <p>
+ * 在 Netty I/O 线程中接收消息, 并在线程池中按接收顺序逐条执行消费者,
+ * 以免较慢的消费者阻塞连接上的数据读取
+ */
+@Slf4j
+public class DeliveryQueue {
+
+  /**
+   * 默认执行消费者的线程池
+   */
+  private static final ExecutorService DEFAULT_EXECUTOR =
+      Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "uds-sub-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * 每次连续消费的最大消息数, 超出后重新提交任务, 以免长期占用线程池中的线程
+   */
+  private static final int MAX_BATCH = 64;
+
+  /**
+   * 待消费的消息
+   */
+  private final Deque<InnerRespData<Object>> queue = new ArrayDeque<>();
+
+  /**
+   * 待消费消息队列的容量
+   */
+  private final int capacity;
+
+  /**
+   * 队列已满时的处理策略
+   */
+  private final OverflowPolicy policy;
+
+  /**
+   * 执行消费者的线程池
+   */
+  private final Executor executor;
+
+  /**
+   * 消费者
+   */
+  private final Consumer<InnerRespData<Object>> consumer;
+
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * {@link OverflowPolicy#BLOCK} 时因队列已满而暂停读取的连接, 未暂停时为 {@code null}
+   */
+  private ReadThrottle pausedOn;
+
+  /**
+   * 是否已提交消费任务
+   */
+  private boolean draining;
+
+  /**
+   * 是否已取消订阅
+   */
+  private boolean closed;
+
+  public DeliveryQueue(DeliveryConfig config,
+      Consumer<InnerRespData<Object>> consumer) {
+    capacity = Math.max(1, config.getQueueCapacity());
+    policy = config.getOverflowPolicy();
+    executor = config.getExecutor() == null ?
+        DEFAULT_EXECUTOR : config.getExecutor();
+    this.consumer = consumer;
+  }
+
+  /**
+   * 接收消息, 并按队列已满时的处理策略加入队列, 不会阻塞调用线程
+   *
+   * @param item     消息
+   * @param throttle 接收该消息的连接的读取开关, 非连接上收到的消息为 {@code null}
+   */
+  public void offer(InnerRespData<Object> item, ReadThrottle throttle) {
+    ReadThrottle toResume = null;
+    ReadThrottle toPause = null;
+    boolean schedule;
+
+    synchronized (queue) {
+      if (closed) {
+        return;
+      }
+
+      if (policy == OverflowPolicy.LATEST) {
+        dropped.add(queue.size());
+        queue.clear();
+      } else if (queue.size() >= capacity) {
+        if (policy == OverflowPolicy.DROP_NEWEST) {
+          dropped.increment();
+          return;
+        }
+
+        if (policy == OverflowPolicy.DROP_OLDEST) {
+          queue.pollFirst();
+          dropped.increment();
+        }
+      }
+
+      queue.addLast(item);
+
+      // 暂停读取前已读入的数据仍会继续到达, 因此队列可能短暂超出容量
+      if (policy == OverflowPolicy.BLOCK && throttle != null &&
+          pausedOn != throttle && queue.size() >= capacity) {
+        // 重连后改为暂停新的连接
+        toResume = pausedOn;
+        toPause = throttle;
+        pausedOn = throttle;
+      }
+
+      schedule = !draining;
+      draining = true;
+    }
+
+    if (toPause != null) {
+      toPause.pause();
+    }
+    if (toResume != null) {
+      toResume.resume();
+    }
+    if (schedule) {
+      schedule();
+    }
+  }
+
+  /**
+   * 取消订阅, 并丢弃所有待消费的消息
+   */
+  public void close() {
+    synchronized (queue) {
+      closed = true;
+      queue.clear();
+    }
+    resumeReading();
+  }
+
+  /**
+   * 获取统计信息快照
+   *
+   * @return 统计信息
+   */
+  public SubscriptionStats getStats() {
+    SubscriptionStats stats = new SubscriptionStats();
+    synchronized (queue) {
+      stats.setQueueDepth(queue.size());
+    }
+    stats.setDelivered(delivered.sum());
+    stats.setDropped(dropped.sum());
+    return stats;
+  }
+
+  /**
+   * 队列已消费至低水位或已清空时, 恢复读取已暂停的连接
+   */
+  private void resumeReading() {
+    ReadThrottle throttle;
+    synchronized (queue) {
+      if (pausedOn == null || queue.size() > capacity / 2) {
+        return;
+      }
+      throttle = pausedOn;
+      pausedOn = null;
+    }
+    throttle.resume();
+  }
+
+  private void schedule() {
+    try {
+      executor.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      log.error("信号订阅的消费任务被线程池拒绝, 丢弃所有待消费的消息", e);
+
+      synchronized (queue) {
+        dropped.add(queue.size());
+        queue.clear();
+        draining = false;
+      }
+      resumeReading();
+    }
+  }
+
+  /**
+   * 按顺序执行消费者, 同一时刻至多只有一个线程在执行
+   */
+  private void drain() {
+    for (int i = 0; i < MAX_BATCH; ++i) {
+      InnerRespData<Object> item;
+      synchronized (queue) {
+        item = queue.pollFirst();
+        if (item == null) {
+          draining = false;
+          return;
+        }
+      }
+      resumeReading();
+
+      try {
+        consumer.accept(item);
+      } catch (Exception e) {
+        log.error("信号订阅的消费者执行异常", e);
+      }
+      delivered.increment();
+    }
+
+    schedule();
+  }
+}
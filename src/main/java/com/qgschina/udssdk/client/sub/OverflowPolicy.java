@@ -0,0 +1,30 @@
+package com.qgschina.udssdk.client.sub;
+
+/**
+ * 信号订阅的待消费消息队列已满时的处理策略
+ */
+public enum OverflowPolicy {
+
+  /**
+   * 暂停读取接收消息的连接, 直至队列消费至容量的一半, 即对 Server 端形成背压
+   * <p>
+   * 不会阻塞 Netty I/O 线程, 暂停前已读入的消息仍会加入队列, 因此队列可能短暂超出容量.
+   * 注意: 暂停期间该连接上的所有订阅都无法接收消息
+   */
+  BLOCK,
+
+  /**
+   * 丢弃队列中最早的消息
+   */
+  DROP_OLDEST,
+
+  /**
+   * 丢弃新收到的消息
+   */
+  DROP_NEWEST,
+
+  /**
+   * 仅保留最新的一条待消费消息, 忽略队列容量
+   */
+  LATEST
+}
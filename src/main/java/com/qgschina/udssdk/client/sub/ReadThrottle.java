@@ -0,0 +1,43 @@
+package com.qgschina.udssdk.client.sub;
+
+import io.netty.channel.Channel;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 订阅长连接的读取开关, 用于对 Server 端形成背压
+ * <p>
+ * 同一连接上可能有多个订阅的待消费消息队列同时已满, 仅当所有队列都已恢复后
+ * 才重新开始读取
+ */
+public class ReadThrottle {
+
+  private final Channel channel;
+
+  /**
+   * 当前要求暂停读取的队列数
+   */
+  private final AtomicInteger paused = new AtomicInteger();
+
+  public ReadThrottle(Channel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * 暂停读取连接上的数据, 须与 {@link #resume()} 成对调用
+   */
+  public void pause() {
+    if (paused.getAndIncrement() == 0) {
+      channel.config().setAutoRead(false);
+    }
+  }
+
+  /**
+   * 恢复读取连接上的数据
+   */
+  public void resume() {
+    if (paused.decrementAndGet() == 0) {
+      channel.config().setAutoRead(true);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.qgschina.udssdk.client.sub;
+
+import com.qgschina.udssdk.common.model.InnerReqData;
+import com.qgschina.udssdk.common.model.InnerRespData;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 单个消费者对某个信号的订阅
+ */
+@Getter
+@RequiredArgsConstructor
+public class Subscription {
+
+  /**
+   * 信号名
+   */
+  private final String signal;
+
+  /**
+   * 信号订阅的请求数据, 仅在该信号的首个订阅时发送给 Server
+   */
+  private final InnerReqData reqData;
+
+  /**
+   * 等待 Server 端订阅响应的超时时间, 单位: 毫秒
+   */
+  private final long timeoutMillis;
+
+  /**
+   * 接收订阅响应及消息推送的监听器, 第二个参数为接收该消息的连接的读取开关,
+   * 非连接上收到的消息为 {@code null}
+   */
+  private final BiConsumer<InnerRespData<Object>, ReadThrottle> listener;
+}
@@ -0,0 +1,964 @@
+package com.qgschina.udssdk.client.sub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.qgschina.udssdk.common.codec.JsonCodec;
+import com.qgschina.udssdk.common.constant.InnerErrorCode;
+import com.qgschina.udssdk.common.constant.InnerReqType;
+import com.qgschina.udssdk.common.constant.InnerSubRespTypeCode;
+import com.qgschina.udssdk.common.exception.DataProcessException;
+import com.qgschina.udssdk.common.model.InnerReqData;
+import com.qgschina.udssdk.common.model.InnerRespData;
+import com.qgschina.udssdk.common.util.JsonEngine;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.codec.json.JsonObjectDecoder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.Connection;
+import reactor.netty.tcp.TcpClient;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 信号订阅的多路复用长连接
+ * <p>
+ * 每个 Socket 文件路径对应一个订阅长连接, 并被所有连接该路径的 Client 共享;
+ * 订阅及取消订阅请求按顺序在该连接上发送, Server 推送的消息则按其中的信号名
+ * 分发给对应的消费者, 且同一信号的多个消费者仅向 Server 订阅一次
+ * <p>
+ * 若 Server 端的响应中不存在信号名 (如其他语言的 SDK), 则该连接仅用于首个订阅的信号,
+ * 之后的信号仍各自使用独立的长连接
+ * <p>
+ * 连接意外断开后 (如 Server 重启), 会按带随机抖动的指数退避自动重连并重新订阅,
+ * 同时携带已收到的最后一条消息的序号, 以便 Server 补发断线期间的消息
+ */
+@Slf4j
+public class SubscriptionMux {
+
+  /**
+   * 所有订阅长连接, Key 为 Socket 文件路径及最大字节数
+   */
+  private static final Map<String, SubscriptionMux> MUXES =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 用于生成订阅请求 ID
+   */
+  private static final AtomicLong REQUEST_ID = new AtomicLong();
+
+  /**
+   * 重连的初始退避时间, 单位: 毫秒
+   */
+  private static final long INITIAL_BACKOFF_MILLIS = 100;
+
+  /**
+   * 重连的最大退避时间, 单位: 毫秒
+   */
+  private static final long MAX_BACKOFF_MILLIS = 30 * 1000;
+
+  /**
+   * 用于解析订阅响应及消息推送, 线程安全
+   */
+  private static final ObjectReader RESP_READER = JsonEngine.reader(
+      new TypeReference<InnerRespData<Object>>() {
+      }.getType());
+
+  /**
+   * 用于订阅请求的超时处理及延迟重连
+   */
+  private static final ScheduledExecutorService TIMEOUT_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "uds-sub-timeout");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * 用于创建新连接
+   */
+  private final TcpClient client;
+
+  /**
+   * 已订阅的信号, Key 为信号名
+   */
+  private final Map<String, SignalEntry> entries = new HashMap<>();
+
+  /**
+   * 共享的订阅长连接, 不存在时为 {@code null}
+   */
+  private CompletableFuture<Connection> shared;
+
+  /**
+   * 最后一个订阅或取消订阅请求, 用于保证请求按顺序发送
+   */
+  private CompletableFuture<?> controlTail =
+      CompletableFuture.completedFuture(null);
+
+  /**
+   * 共享连接上正在等待 Server 端响应的订阅或取消订阅请求
+   */
+  private volatile PendingControl pendingControl;
+
+  /**
+   * Server 端是否会在响应中返回信号名, 未知时为 {@code null}
+   */
+  private volatile Boolean signalTagged;
+
+  /**
+   * 若 Server 端不返回信号名, 则为共享连接上唯一订阅的信号名
+   */
+  private volatile String untaggedSignal;
+
+  /**
+   * 共享连接的连续重连次数
+   */
+  private int reconnectAttempt;
+
+  /**
+   * 是否已计划重连共享连接
+   */
+  private boolean reconnectScheduled;
+
+  private SubscriptionMux(String socketPath, int maxBytesMb) {
+    client = TcpClient.newConnection()
+        // Unix Domain Sockets (UDS)
+        .remoteAddress(() -> new DomainSocketAddress(socketPath))
+        .doOnConnected(conn -> conn
+            // 各语言间数据都是通过 JSON 字符串传递
+            .addHandlerLast(new JsonObjectDecoder(1024 * 1024 * maxBytesMb)));
+  }
+
+  /**
+   * 获取指定 Socket 文件路径的订阅长连接, 若不存在则创建
+   *
+   * @param socketPath Socket 文件路径
+   * @param maxBytesMb 允许数据传输的最大字节数, 单位: MB
+   * @return 订阅长连接
+   */
+  public static SubscriptionMux get(String socketPath, int maxBytesMb) {
+    return MUXES.computeIfAbsent(socketPath + "#" + maxBytesMb,
+        key -> new SubscriptionMux(socketPath, maxBytesMb));
+  }
+
+  /**
+   * 订阅信号
+   * <p>
+   * 若该信号已被订阅, 则直接复用已有订阅, 并将已有的订阅响应发送给该消费者
+   *
+   * @param sub 订阅
+   * @return Server 端的订阅响应, 该响应也会在返回前发送给订阅的监听器
+   */
+  public CompletableFuture<InnerRespData<Object>> subscribe(
+      Subscription sub) {
+    String signal = sub.getSignal();
+    SignalEntry entry;
+
+    synchronized (this) {
+      entry = entries.get(signal);
+      if (entry == null) {
+        entry = new SignalEntry(signal, sub.getReqData(),
+            sub.getTimeoutMillis());
+        entries.put(signal, entry);
+        entry.subscribers.add(sub);
+
+        SignalEntry newEntry = entry;
+        enqueueControl(() -> doSubscribe(newEntry))
+            .whenComplete((resp, thr) -> onSubscribed(newEntry, resp, thr));
+        return entry.ack;
+      }
+
+      if (entry.ackResp == null) {
+        // 等待已发送的订阅请求的响应
+        entry.subscribers.add(sub);
+        return entry.ack;
+      }
+    }
+
+    // 该信号已订阅成功, 先发送订阅响应, 之后再接收消息推送
+    deliver(sub, entry.ackResp, null);
+
+    synchronized (this) {
+      if (entries.get(signal) == entry) {
+        entry.subscribers.add(sub);
+        return entry.ack;
+      }
+    }
+
+    // 已有订阅恰好被取消, 重新订阅
+    return subscribe(sub);
+  }
+
+  /**
+   * 取消订阅
+   * <p>
+   * 仅当该信号的所有消费者都取消订阅后, 才向 Server 取消订阅该信号
+   *
+   * @param sub 订阅
+   */
+  public void unsubscribe(Subscription sub) {
+    SignalEntry entry;
+    boolean acked;
+
+    synchronized (this) {
+      entry = entries.get(sub.getSignal());
+      if (entry == null || !entry.subscribers.remove(sub) ||
+          !entry.subscribers.isEmpty()) {
+        return;
+      }
+
+      entries.remove(sub.getSignal());
+      acked = entry.ackResp != null;
+    }
+
+    // 仍在等待订阅响应时, 则在收到响应后再取消
+    if (acked) {
+      release(entry);
+    }
+  }
+
+  /**
+   * 发送信号订阅请求
+   *
+   * @param entry 信号订阅
+   * @return Server 端的订阅响应
+   */
+  private CompletableFuture<InnerRespData<Object>> doSubscribe(
+      SignalEntry entry) {
+    // Server 端不返回信号名时, 无法在共享连接上区分多个信号的消息推送
+    if (Boolean.FALSE.equals(signalTagged) && untaggedSignal != null) {
+      return subscribeDedicated(entry);
+    }
+
+    return connectShared().thenCompose(conn -> subscribeShared(entry, conn));
+  }
+
+  /**
+   * 在共享连接上发送信号订阅请求
+   *
+   * @param entry 信号订阅
+   * @param conn  共享连接
+   * @return Server 端的订阅响应
+   */
+  private CompletableFuture<InnerRespData<Object>> subscribeShared(
+      SignalEntry entry, Connection conn) {
+    return sendShared(conn, entry.genReqData(), entry.timeoutMillis)
+        .thenApply(resp -> {
+          if (signalTagged == null) {
+            signalTagged = resp.getSignal() != null;
+          }
+
+          if (!signalTagged && untaggedSignal == null &&
+              resp.getCode() == InnerErrorCode.SUCCESS.value()) {
+            untaggedSignal = entry.signal;
+          }
+
+          return resp;
+        });
+  }
+
+  /**
+   * 使用独立的长连接订阅信号
+   *
+   * @param entry 信号订阅
+   * @return Server 端的订阅响应
+   */
+  private CompletableFuture<InnerRespData<Object>> subscribeDedicated(
+      SignalEntry entry) {
+    CompletableFuture<InnerRespData<Object>> future =
+        new CompletableFuture<>();
+
+    client.connect().subscribe(
+        conn -> {
+          entry.dedicated = conn;
+          ReadThrottle throttle = new ReadThrottle(conn.channel());
+
+          conn.inbound()
+              .receive()
+              .subscribe(frame -> {
+                InnerRespData<Object> resp = parseResp(frame);
+                if (resp == null) {
+                  return;
+                }
+
+                if (isSubData(resp)) {
+                  publish(entry, resp, throttle);
+                } else {
+                  future.complete(resp);
+                }
+              }, thr -> conn.dispose());
+
+          conn.onDispose(() -> {
+            future.completeExceptionally(new ClosedChannelException());
+            onDedicatedDisposed(entry, conn);
+          });
+
+          send(conn, entry.genReqData(), future, entry.timeoutMillis);
+        },
+        future::completeExceptionally);
+
+    return future;
+  }
+
+  /**
+   * 处理信号订阅响应
+   *
+   * @param entry 信号订阅
+   * @param resp  Server 端的订阅响应
+   * @param thr   订阅失败时的异常
+   */
+  private void onSubscribed(SignalEntry entry, InnerRespData<Object> resp,
+      Throwable thr) {
+    boolean success = thr == null &&
+        resp.getCode() == InnerErrorCode.SUCCESS.value();
+    List<Subscription> subscribers;
+    boolean cancelled;
+
+    synchronized (this) {
+      cancelled = entries.get(entry.signal) != entry;
+      if (!success && !cancelled) {
+        entries.remove(entry.signal);
+      }
+
+      entry.ackResp = resp;
+      subscribers = new ArrayList<>(entry.subscribers);
+    }
+
+    if (success) {
+      entry.onAck(resp);
+      entry.live = true;
+    }
+
+    if (thr != null) {
+      entry.ack.completeExceptionally(thr);
+    } else {
+      subscribers.forEach(sub -> deliver(sub, resp, null));
+      entry.ack.complete(resp);
+    }
+
+    if (!success || cancelled) {
+      release(entry);
+    }
+  }
+
+  /**
+   * 释放已不再需要的信号订阅
+   *
+   * @param entry 信号订阅
+   */
+  private void release(SignalEntry entry) {
+    if (entry.dedicated != null) {
+      entry.dedicated.dispose();
+      return;
+    }
+
+    Connection conn = null;
+
+    synchronized (this) {
+      boolean idle = entries.values().stream()
+          .allMatch(e -> e.dedicated != null);
+      if (idle && shared != null) {
+        conn = shared.getNow(null);
+        shared = null;
+        signalTagged = null;
+        untaggedSignal = null;
+      }
+    }
+
+    if (conn != null) {
+      // 已无共享连接上的订阅, 直接关闭连接, 之后的取消订阅请求也无需再发送
+      conn.dispose();
+      failPendingControl();
+    } else if (Boolean.TRUE.equals(signalTagged) &&
+        entry.ackResp != null &&
+        entry.ackResp.getCode() == InnerErrorCode.SUCCESS.value()) {
+      InnerReqData reqData = new InnerReqData();
+      reqData.setType(InnerReqType.SIGNAL_UNSUB.value());
+      reqData.setSignal(entry.signal);
+
+      enqueueControl(() -> {
+        CompletableFuture<Connection> current;
+        synchronized (this) {
+          current = shared;
+        }
+
+        // 共享连接已关闭, Server 端已移除该连接上的所有订阅
+        if (current == null) {
+          return CompletableFuture.completedFuture(null);
+        }
+
+        return current.thenCompose(c ->
+            sendShared(c, reqData, entry.timeoutMillis));
+      })
+          .whenComplete((resp, thr) -> {
+            Throwable cause = thr instanceof CompletionException ?
+                thr.getCause() : thr;
+            // 共享连接关闭时, Server 端也会移除该连接上的所有订阅
+            if (cause != null && !(cause instanceof ClosedChannelException)) {
+              log.warn("取消订阅失败: " + entry.signal, cause);
+            }
+          });
+    }
+  }
+
+  /**
+   * 按顺序执行订阅或取消订阅请求
+   *
+   * @param control 发送请求
+   * @return Server 端的响应
+   */
+  private synchronized CompletableFuture<InnerRespData<Object>>
+  enqueueControl(
+      Supplier<CompletableFuture<InnerRespData<Object>>> control) {
+    CompletableFuture<InnerRespData<Object>> future = controlTail
+        .handle((r, thr) -> null)
+        .thenCompose(v -> control.get());
+    controlTail = future;
+    return future;
+  }
+
+  /**
+   * 获取共享的订阅长连接, 若不存在则创建
+   *
+   * @return 共享的订阅长连接
+   */
+  private synchronized CompletableFuture<Connection> connectShared() {
+    if (shared != null) {
+      return shared;
+    }
+
+    CompletableFuture<Connection> future = new CompletableFuture<>();
+    shared = future;
+
+    client.connect().subscribe(
+        conn -> {
+          ReadThrottle throttle = new ReadThrottle(conn.channel());
+          conn.inbound()
+              .receive()
+              // 连接断开由 `onDispose` 统一处理
+              .subscribe(frame -> onSharedFrame(frame, throttle),
+                  thr -> conn.dispose());
+
+          conn.onDispose(() -> onSharedDisposed(future));
+          future.complete(conn);
+        },
+        thr -> {
+          onSharedDisposed(future);
+          future.completeExceptionally(thr);
+        });
+
+    return future;
+  }
+
+  /**
+   * 处理共享连接断开
+   *
+   * @param future 已断开的共享连接
+   */
+  private void onSharedDisposed(CompletableFuture<Connection> future) {
+    synchronized (this) {
+      if (shared != future) {
+        return;
+      }
+
+      shared = null;
+      signalTagged = null;
+      untaggedSignal = null;
+    }
+
+    failPendingControl();
+
+    // 共享连接意外断开, 需重连并重新订阅仍存在的订阅
+    if (!getEstablishedShared().isEmpty()) {
+      scheduleReconnect();
+    }
+  }
+
+  /**
+   * 获取共享连接上已订阅成功的信号
+   *
+   * @return 已订阅成功的信号
+   */
+  private synchronized List<SignalEntry> getEstablishedShared() {
+    List<SignalEntry> result = new ArrayList<>();
+    for (SignalEntry entry : entries.values()) {
+      if (entry.dedicated == null && entry.isEstablished()) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 按带随机抖动的指数退避, 计划重连共享连接
+   */
+  private void scheduleReconnect() {
+    long delay;
+    synchronized (this) {
+      if (reconnectScheduled) {
+        return;
+      }
+      reconnectScheduled = true;
+      delay = backoffMillis(reconnectAttempt++);
+    }
+
+    log.warn("订阅长连接已断开, " + delay + " 毫秒后重连");
+    TIMEOUT_SCHEDULER.schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 重连共享连接, 并重新订阅所有已订阅成功的信号
+   * <p>
+   * 若重连失败, 则连接断开的处理会再次计划重连
+   */
+  private void reconnect() {
+    synchronized (this) {
+      reconnectScheduled = false;
+    }
+
+    List<SignalEntry> established = getEstablishedShared();
+    if (established.isEmpty()) {
+      synchronized (this) {
+        reconnectAttempt = 0;
+      }
+      return;
+    }
+
+    CompletableFuture<Connection> current = connectShared();
+    current.thenAccept(conn -> {
+      for (SignalEntry entry : established) {
+        enqueueControl(() -> subscribeShared(entry, conn))
+            .whenComplete((resp, thr) ->
+                onResubscribed(entry, resp, thr, conn));
+      }
+    });
+  }
+
+  /**
+   * 处理断线重连后的重新订阅响应
+   *
+   * @param entry 信号订阅
+   * @param resp  Server 端的订阅响应
+   * @param thr   重新订阅失败时的异常
+   * @param conn  重新订阅所使用的连接
+   */
+  private void onResubscribed(SignalEntry entry, InnerRespData<Object> resp,
+      Throwable thr, Connection conn) {
+    if (thr != null) {
+      // 如等待响应超时, 断开连接以便再次重连
+      conn.dispose();
+      return;
+    }
+
+    if (resp.getCode() == InnerErrorCode.SUCCESS.value()) {
+      entry.onAck(resp);
+      entry.live = true;
+
+      synchronized (this) {
+        if (entry.dedicated == null) {
+          reconnectAttempt = 0;
+        } else {
+          entry.reconnectAttempt = 0;
+        }
+      }
+      return;
+    }
+
+    // 重启后的 Server 已不存在该信号, 通知消费者订阅失败
+    List<Subscription> subscribers;
+    synchronized (this) {
+      if (entries.get(entry.signal) != entry) {
+        return;
+      }
+      entries.remove(entry.signal);
+      subscribers = new ArrayList<>(entry.subscribers);
+    }
+
+    log.warn("重新订阅失败: " + entry.signal + ", " + resp.getMsg());
+    subscribers.forEach(sub -> deliver(sub, resp, null));
+    release(entry);
+  }
+
+  /**
+   * 处理独立长连接断开
+   *
+   * @param entry 信号订阅
+   * @param conn  已断开的独立长连接
+   */
+  private void onDedicatedDisposed(SignalEntry entry, Connection conn) {
+    synchronized (this) {
+      if (entries.get(entry.signal) != entry || entry.dedicated != conn ||
+          !entry.live) {
+        return;
+      }
+      entry.live = false;
+    }
+
+    scheduleDedicatedReconnect(entry);
+  }
+
+  /**
+   * 按带随机抖动的指数退避, 计划重连独立长连接并重新订阅
+   *
+   * @param entry 信号订阅
+   */
+  private void scheduleDedicatedReconnect(SignalEntry entry) {
+    long delay;
+    synchronized (this) {
+      delay = backoffMillis(entry.reconnectAttempt++);
+    }
+
+    log.warn("订阅长连接已断开: " + entry.signal + ", " + delay + " 毫秒后重连");
+    TIMEOUT_SCHEDULER.schedule(() -> {
+      synchronized (this) {
+        if (entries.get(entry.signal) != entry) {
+          return;
+        }
+      }
+
+      subscribeDedicated(entry).whenComplete((resp, thr) -> {
+        if (thr == null) {
+          onResubscribed(entry, resp, null, entry.dedicated);
+          return;
+        }
+
+        Connection conn = entry.dedicated;
+        if (conn != null) {
+          conn.dispose();
+        }
+        scheduleDedicatedReconnect(entry);
+      });
+    }, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 计算带随机抖动的指数退避时间, 即在上限的一半至上限之间随机取值,
+   * 以免大量 Client 在 Server 重启后同时重连
+   *
+   * @param attempt 连续重连次数, 从 0 开始
+   * @return 退避时间, 单位: 毫秒
+   */
+  private static long backoffMillis(int attempt) {
+    long cap = Math.min(MAX_BACKOFF_MILLIS,
+        INITIAL_BACKOFF_MILLIS << Math.min(attempt, 20));
+    return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+  }
+
+  /**
+   * 使共享连接上正在等待响应的请求失败
+   */
+  private void failPendingControl() {
+    PendingControl pending = pendingControl;
+    if (pending != null) {
+      pending.future.completeExceptionally(new ClosedChannelException());
+    }
+  }
+
+  /**
+   * 在共享连接上发送订阅或取消订阅请求
+   *
+   * @param conn          共享连接
+   * @param reqData       请求数据
+   * @param timeoutMillis 等待响应的超时时间, 单位: 毫秒
+   * @return Server 端的响应
+   */
+  private CompletableFuture<InnerRespData<Object>> sendShared(
+      Connection conn, InnerReqData reqData, long timeoutMillis) {
+    CompletableFuture<InnerRespData<Object>> future =
+        new CompletableFuture<>();
+    long id = REQUEST_ID.incrementAndGet();
+
+    pendingControl = new PendingControl(id, future);
+    reqData.setId(id);
+    send(conn, reqData, future, timeoutMillis);
+
+    return future;
+  }
+
+  /**
+   * 发送请求, 并在超时后放弃等待响应
+   *
+   * @param conn          连接
+   * @param reqData       请求数据
+   * @param future        Server 端的响应
+   * @param timeoutMillis 等待响应的超时时间, 单位: 毫秒
+   */
+  private void send(Connection conn, InnerReqData reqData,
+      CompletableFuture<InnerRespData<Object>> future, long timeoutMillis) {
+    ByteBuf frame;
+    try {
+      frame = JsonCodec.encode(reqData);
+    } catch (JsonProcessingException e) {
+      future.completeExceptionally(
+          new DataProcessException("SDK 序列化失败", e));
+      return;
+    }
+
+    ScheduledFuture<?> timer = TIMEOUT_SCHEDULER.schedule(
+        () -> future.completeExceptionally(new TimeoutException("订阅超时")),
+        timeoutMillis, TimeUnit.MILLISECONDS);
+    future.whenComplete((r, thr) -> timer.cancel(false));
+
+    conn.channel()
+        .writeAndFlush(frame)
+        .addListener(f -> {
+          if (!f.isSuccess()) {
+            future.completeExceptionally(f.cause());
+          }
+        });
+  }
+
+  /**
+   * 处理共享连接上收到的数据
+   *
+   * @param frame    Server 响应 JSON 数据帧, 仅在本方法返回前有效
+   * @param throttle 共享连接的读取开关
+   */
+  private void onSharedFrame(ByteBuf frame, ReadThrottle throttle) {
+    InnerRespData<Object> resp = parseResp(frame);
+    if (resp == null) {
+      return;
+    }
+
+    if (isSubData(resp)) {
+      String signal = resp.getSignal() != null ?
+          resp.getSignal() : untaggedSignal;
+
+      SignalEntry entry;
+      synchronized (this) {
+        entry = signal == null ? null : entries.get(signal);
+      }
+
+      if (entry != null && entry.dedicated == null) {
+        publish(entry, resp, throttle);
+      }
+      return;
+    }
+
+    // 订阅或取消订阅响应, 若 Server 端返回了请求 ID 则需与之匹配
+    PendingControl pending = pendingControl;
+    if (pending == null ||
+        (resp.getId() != null && resp.getId() != pending.id)) {
+      log.warn("丢弃无对应请求的 Server 响应 --> " + JsonCodec.toString(frame));
+      return;
+    }
+
+    pendingControl = null;
+    pending.future.complete(resp);
+  }
+
+  /**
+   * 将消息推送发送给信号的所有消费者
+   *
+   * @param entry    信号订阅
+   * @param resp     消息推送
+   * @param throttle 接收消息推送的连接的读取开关
+   */
+  private void publish(SignalEntry entry, InnerRespData<Object> resp,
+      ReadThrottle throttle) {
+    // 丢弃补发时重复收到的消息
+    if (!entry.accept(resp)) {
+      return;
+    }
+
+    for (Subscription sub : entry.subscribers) {
+      deliver(sub, resp, throttle);
+    }
+  }
+
+  private void deliver(Subscription sub, InnerRespData<Object> resp,
+      ReadThrottle throttle) {
+    try {
+      sub.getListener().accept(resp, throttle);
+    } catch (Exception e) {
+      log.error("信号订阅的消费者执行异常: " + sub.getSignal(), e);
+    }
+  }
+
+  private boolean isSubData(InnerRespData<Object> resp) {
+    return InnerSubRespTypeCode.SUB_DATA.value().equals(resp.getType());
+  }
+
+  private InnerRespData<Object> parseResp(ByteBuf frame) {
+    try {
+      return JsonCodec.decode(frame, RESP_READER);
+    } catch (IOException e) {
+      log.error("Client 数据处理异常: " + JsonCodec.toString(frame), e);
+      return null;
+    }
+  }
+
+  /**
+   * 某个信号的订阅
+   */
+  private static class SignalEntry {
+
+    private final String signal;
+
+    /**
+     * 首个订阅的请求数据, 用于断线重连后重新订阅
+     */
+    private final InnerReqData reqData;
+
+    /**
+     * 等待 Server 端响应的超时时间, 单位: 毫秒
+     */
+    private final long timeoutMillis;
+
+    /**
+     * 该信号的所有消费者
+     */
+    private final List<Subscription> subscribers =
+        new CopyOnWriteArrayList<>();
+
+    /**
+     * Server 端的订阅响应
+     */
+    private final CompletableFuture<InnerRespData<Object>> ack =
+        new CompletableFuture<>();
+
+    /**
+     * 已收到的订阅响应, 未收到时为 {@code null}
+     */
+    private volatile InnerRespData<Object> ackResp;
+
+    /**
+     * Server 端不返回信号名时所使用的独立长连接
+     */
+    private volatile Connection dedicated;
+
+    /**
+     * 独立长连接是否已订阅成功且未断开
+     */
+    private volatile boolean live;
+
+    /**
+     * 独立长连接的连续重连次数
+     */
+    private int reconnectAttempt;
+
+    /**
+     * 已收到的最后一条消息所属的 Server 启动标识
+     */
+    private String epoch;
+
+    /**
+     * 已收到的最后一条消息的序号
+     */
+    private Long lastSeq;
+
+    private SignalEntry(String signal, InnerReqData reqData,
+        long timeoutMillis) {
+      this.signal = signal;
+      this.reqData = reqData;
+      this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 判断是否已订阅成功
+     *
+     * @return {@code true} 若已订阅成功
+     */
+    private boolean isEstablished() {
+      InnerRespData<Object> resp = ackResp;
+      return resp != null && resp.getCode() == InnerErrorCode.SUCCESS.value();
+    }
+
+    /**
+     * 构造订阅请求, 重新订阅时携带已收到的最后一条消息的序号
+     *
+     * @return 订阅请求
+     */
+    private synchronized InnerReqData genReqData() {
+      InnerReqData req = new InnerReqData();
+      req.setType(reqData.getType());
+      req.setSignal(reqData.getSignal());
+      req.setData(reqData.getData());
+      req.setParameterTypes(reqData.getParameterTypes());
+      req.setEpoch(epoch);
+      req.setLastSeq(lastSeq);
+      return req;
+    }
+
+    /**
+     * 根据订阅响应更新消息序号
+     *
+     * @param resp Server 端的订阅响应
+     */
+    private synchronized void onAck(InnerRespData<Object> resp) {
+      if (resp.getEpoch() == null || resp.getSeq() == null) {
+        return;
+      }
+
+      if (epoch == null) {
+        // 首次订阅, 仅接收之后的消息
+        lastSeq = resp.getSeq();
+      } else if (!epoch.equals(resp.getEpoch())) {
+        // 断线期间 Server 已重启, 序号重新从 1 开始
+        lastSeq = 0L;
+      }
+      epoch = resp.getEpoch();
+    }
+
+    /**
+     * 根据消息序号判断是否为新消息
+     *
+     * @param resp 消息推送
+     * @return {@code false} 若为重复收到的消息
+     */
+    private synchronized boolean accept(InnerRespData<Object> resp) {
+      Long seq = resp.getSeq();
+      if (seq == null) {
+        return true;
+      }
+
+      if (epoch != null && epoch.equals(resp.getEpoch()) && lastSeq != null) {
+        if (seq <= lastSeq) {
+          return false;
+        }
+
+        if (seq > lastSeq + 1) {
+          log.warn("信号 " + signal + " 的消息不连续, 已丢失 "
+              + (seq - lastSeq - 1) + " 条消息");
+        }
+      }
+
+      epoch = resp.getEpoch();
+      lastSeq = seq;
+      return true;
+    }
+  }
+
+  /**
+   * 共享连接上正在等待 Server 端响应的请求
+   */
+  private static class PendingControl {
+
+    private final long id;
+
+    private final CompletableFuture<InnerRespData<Object>> future;
+
+    private PendingControl(long id,
+        CompletableFuture<InnerRespData<Object>> future) {
+      this.id = id;
+      this.future = future;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.qgschina.udssdk.client.sub;
+
+import lombok.Data;
+
+/**
+ * 信号订阅的消息分发统计信息快照
+ */
+@Data
+public class SubscriptionStats {
+
+  /**
+   * 当前待消费的消息数
+   */
+  private int queueDepth;
+
+  /**
+   * 已执行消费者的消息数
+   */
+  private long delivered;
+
+  /**
+   * 因队列已满而被丢弃的消息数
+   */
+  private long dropped;
+}
@@ -0,0 +1,189 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 将二进制数据作为附件传输的编码方式, 包装握手时协商的其他编码方式
+ * <p>
+ * 写出时 {@code byte[]} 及 {@code ByteBuffer} 等二进制数据不再转为 Base64 字符串,
+ * 而是原样追加在请求或响应之后, 原位置仅保留附件的序号; 读取时直接从数据帧中按序号切出附件,
+ * 无需再解码 Base64. 数据布局如下, 长度及附件数均为 4 字节大端序整数:
+ *
+ * <pre>
+ * +-----------+--------+-----+------------+-----+--------+
+ * | 请求或响应 | 附件 0 | ... | 附件 0 长度 | ... | 附件数 |
+ * +-----------+--------+-----+------------+-----+--------+
+ * </pre>
+ * <p>
+ * 与其他编码方式一样, 仅用于帧头带有 {@link UdsFrame#FLAG_ENCODED} 标志的数据帧,
+ * 握手及信号推送等 JSON 数据帧中的二进制数据仍为 Base64 字符串
+ */
+public final class AttachmentCodec implements PayloadCodec {
+
+  /**
+   * 转义前缀, 即 NUL 字符; 以其开头的普通字符串写出时再加一个转义前缀, 读取时去掉,
+   * 故不会与附件序号混淆
+   */
+  static final String ESCAPE = "\u0000";
+
+  /**
+   * 请求或响应中附件序号的前缀, 以转义前缀开头
+   */
+  static final String MARKER = ESCAPE + "att:";
+
+  /**
+   * 附件数及各附件长度的字节数
+   */
+  static final int INT_BYTES = 4;
+
+  private static final Map<PayloadCodec, AttachmentCodec> CODECS =
+      new ConcurrentHashMap<>();
+
+  private final PayloadCodec inner;
+
+  private AttachmentCodec(PayloadCodec inner) {
+    this.inner = inner;
+  }
+
+  /**
+   * 获取包装指定编码方式的附件编码方式, 同一编码方式仅包装一次
+   *
+   * @param codec 请求及响应本身的编码方式
+   * @return 附件编码方式, {@code codec} 已是附件编码方式时直接返回
+   */
+  public static AttachmentCodec of(PayloadCodec codec) {
+    if (codec instanceof AttachmentCodec) {
+      return (AttachmentCodec) codec;
+    }
+    return CODECS.computeIfAbsent(codec, AttachmentCodec::new);
+  }
+
+  /**
+   * 获取请求及响应本身的编码方式
+   *
+   * @param codec 编码方式
+   * @return 附件编码方式所包装的编码方式, 否则为 {@code codec} 本身
+   */
+  public static PayloadCodec unwrap(PayloadCodec codec) {
+    return codec instanceof AttachmentCodec ?
+        ((AttachmentCodec) codec).inner : codec;
+  }
+
+  @Override
+  public String name() {
+    return inner.name();
+  }
+
+  @Override
+  public JsonGenerator createGenerator(OutputStream out) throws IOException {
+    return new AttachmentGenerator(inner.createGenerator(out), out);
+  }
+
+  @Override
+  public JsonParser createParser(InputStream in) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] chunk = new byte[4096];
+    int n;
+    while ((n = in.read(chunk)) >= 0) {
+      bytes.write(chunk, 0, n);
+    }
+    return createParser(Unpooled.wrappedBuffer(bytes.toByteArray()));
+  }
+
+  /**
+   * 创建直接从数据帧中读取附件的解析器
+   *
+   * @param content 完整的数据, 需在解析器关闭前保持有效
+   * @return 解析器, 由调用方负责关闭
+   * @throws IOException 附件格式错误或创建失败
+   */
+  JsonParser createParser(ByteBuf content) throws IOException {
+    int start = content.readerIndex();
+    int end = content.writerIndex();
+    if (end - start < INT_BYTES) {
+      throw new IOException("附件数据不完整");
+    }
+
+    int count = content.getInt(end - INT_BYTES);
+    long table = end - INT_BYTES - (long) INT_BYTES * count;
+    if (count < 0 || table < start) {
+      throw new IOException("附件数错误: " + count);
+    }
+
+    int[] lengths = new int[count];
+    long total = 0;
+    for (int i = 0; i < count; ++i) {
+      lengths[i] = content.getInt((int) table + i * INT_BYTES);
+      if (lengths[i] < 0) {
+        throw new IOException("附件长度错误: " + lengths[i]);
+      }
+      total += lengths[i];
+    }
+    if (table - total < start) {
+      throw new IOException("附件长度超出数据范围");
+    }
+
+    // 各附件依次位于请求或响应之后
+    int[] offsets = new int[count];
+    int offset = (int) (table - total);
+    for (int i = 0; i < count; ++i) {
+      offsets[i] = offset;
+      offset += lengths[i];
+    }
+
+    ByteBuf envelope = content.slice(start, (int) (table - total) - start);
+    JsonParser parser = inner.createParser(new ByteBufInputStream(envelope));
+    return count == 0 ? parser :
+        new AttachmentParser(parser, content, offsets, lengths);
+  }
+
+  @Override
+  public void encode(ObjectWriter writer, Object value, OutputStream out)
+      throws IOException {
+    try (JsonGenerator generator = createGenerator(out)) {
+      writer.writeValue(generator, value);
+    }
+  }
+
+  @Override
+  public <T> T decode(ObjectReader reader, InputStream in)
+      throws IOException {
+    try (JsonParser parser = createParser(in)) {
+      return reader.readValue(parser);
+    }
+  }
+
+  /**
+   * 直接从数据帧中解码 Java 对象, 附件不经过中间缓冲区
+   *
+   * @param content 完整的数据
+   * @param reader  目标类型的反序列化对象
+   * @param <T>     Java 对象的具体类型
+   * @return Java 对象
+   * @throws IOException 反序列化失败
+   */
+  <T> T decode(ByteBuf content, ObjectReader reader) throws IOException {
+    try (JsonParser parser = createParser(content)) {
+      return reader.readValue(parser);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return inner + "+attachments";
+  }
+}
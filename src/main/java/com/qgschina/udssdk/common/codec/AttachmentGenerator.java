@@ -0,0 +1,136 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 将二进制数据写为附件的生成器, 数据布局详见 {@link AttachmentCodec}
+ * <p>
+ * 请求或响应中的二进制数据仅写出附件序号, 附件本身在关闭时追加写出;
+ * 在此之前仅引用原数组, 故需在序列化的调用返回前关闭.
+ * 以转义前缀开头的普通字符串写出时再加一个转义前缀, 以免被读取为附件
+ */
+class AttachmentGenerator extends JsonGeneratorDelegate {
+
+  private final OutputStream out;
+
+  private final List<ByteBuffer> attachments = new ArrayList<>();
+
+  /**
+   * @param delegate 写出请求或响应本身的生成器
+   * @param out      {@code delegate} 的输出流, 附件随后写入其中
+   */
+  AttachmentGenerator(JsonGenerator delegate, OutputStream out) {
+    // 不转发 `writeObject` 等方法, 以便嵌套对象中的二进制数据同样写为附件
+    super(delegate, false);
+    delegate.disable(Feature.AUTO_CLOSE_TARGET);
+    this.out = out;
+  }
+
+  @Override
+  public void writeString(String text) throws IOException {
+    delegate.writeString(needsEscape(text) ?
+        AttachmentCodec.ESCAPE + text : text);
+  }
+
+  @Override
+  public void writeString(char[] text, int offset, int len)
+      throws IOException {
+    if (len > 0 && text[offset] == AttachmentCodec.ESCAPE.charAt(0)) {
+      writeString(new String(text, offset, len));
+    } else {
+      delegate.writeString(text, offset, len);
+    }
+  }
+
+  @Override
+  public void writeString(SerializableString text) throws IOException {
+    if (needsEscape(text.getValue())) {
+      writeString(text.getValue());
+    } else {
+      delegate.writeString(text);
+    }
+  }
+
+  @Override
+  public boolean canWriteBinaryNatively() {
+    return true;
+  }
+
+  @Override
+  public void writeBinary(Base64Variant variant, byte[] data, int offset,
+      int len) throws IOException {
+    if (data == null) {
+      writeNull();
+      return;
+    }
+    delegate.writeString(AttachmentCodec.MARKER + attachments.size());
+    attachments.add(ByteBuffer.wrap(data, offset, len));
+  }
+
+  @Override
+  public int writeBinary(Base64Variant variant, InputStream data,
+      int dataLength) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+        dataLength > 0 ? dataLength : 256);
+    byte[] chunk = new byte[4096];
+    int rest = dataLength < 0 ? Integer.MAX_VALUE : dataLength;
+    while (rest > 0) {
+      int n = data.read(chunk, 0, Math.min(rest, chunk.length));
+      if (n < 0) {
+        if (dataLength >= 0) {
+          throw new IOException("二进制数据不完整, 仍缺少 " + rest + " 字节");
+        }
+        break;
+      }
+      bytes.write(chunk, 0, n);
+      rest -= n;
+    }
+
+    byte[] all = bytes.toByteArray();
+    writeBinary(variant, all, 0, all.length);
+    return all.length;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (delegate.isClosed()) {
+      return;
+    }
+    delegate.close();
+
+    byte[] table = new byte[AttachmentCodec.INT_BYTES *
+        (attachments.size() + 1)];
+    int pos = 0;
+    for (ByteBuffer attachment : attachments) {
+      out.write(attachment.array(), attachment.position(),
+          attachment.remaining());
+      pos = putInt(table, pos, attachment.remaining());
+    }
+    putInt(table, pos, attachments.size());
+    out.write(table);
+    attachments.clear();
+  }
+
+  private static boolean needsEscape(String text) {
+    return text != null && text.startsWith(AttachmentCodec.ESCAPE);
+  }
+
+  private static int putInt(byte[] dst, int pos, int value) {
+    dst[pos] = (byte) (value >>> 24);
+    dst[pos + 1] = (byte) (value >>> 16);
+    dst[pos + 2] = (byte) (value >>> 8);
+    dst[pos + 3] = (byte) value;
+    return pos + AttachmentCodec.INT_BYTES;
+  }
+}
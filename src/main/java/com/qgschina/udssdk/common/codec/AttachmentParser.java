@@ -0,0 +1,256 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * 将附件序号还原为二进制数据的解析器, 数据布局详见 {@link AttachmentCodec}
+ * <p>
+ * 附件序号被读取为 {@link JsonToken#VALUE_EMBEDDED_OBJECT}, 其值为 {@code byte[]},
+ * 仅在被读取时才从数据帧中复制, 跳过的附件不会复制; 转义过的普通字符串在此还原
+ */
+class AttachmentParser extends JsonParserDelegate {
+
+  private final ByteBuf content;
+
+  private final int[] offsets;
+
+  private final int[] lengths;
+
+  /**
+   * 当前值对应的附件序号, 不是附件时为 -1
+   */
+  private int attachment = -1;
+
+  private byte[] binary;
+
+  /**
+   * 当前字符串去掉转义前缀后的值, 未转义时为 {@code null}
+   */
+  private String unescaped;
+
+  /**
+   * @param delegate 读取请求或响应本身的解析器
+   * @param content  完整的数据, 需在解析器关闭前保持有效
+   * @param offsets  各附件在 {@code content} 中的位置
+   * @param lengths  各附件的字节数
+   */
+  AttachmentParser(JsonParser delegate, ByteBuf content, int[] offsets,
+      int[] lengths) {
+    super(delegate);
+    this.content = content;
+    this.offsets = offsets;
+    this.lengths = lengths;
+  }
+
+  @Override
+  public JsonToken nextToken() throws IOException {
+    attachment = -1;
+    binary = null;
+    unescaped = null;
+    JsonToken token = delegate.nextToken();
+    if (token == JsonToken.VALUE_STRING && startsWithEscape()) {
+      String text = delegate.getText();
+      if (text.startsWith(AttachmentCodec.ESCAPE, 1)) {
+        unescaped = text.substring(1);
+      } else {
+        attachment = attachmentIndex(text);
+        if (attachment >= 0) {
+          return JsonToken.VALUE_EMBEDDED_OBJECT;
+        }
+      }
+    }
+    return token;
+  }
+
+  @Override
+  public JsonToken nextValue() throws IOException {
+    JsonToken token = nextToken();
+    return token == JsonToken.FIELD_NAME ? nextToken() : token;
+  }
+
+  @Override
+  public JsonToken currentToken() {
+    return attachment >= 0 ? JsonToken.VALUE_EMBEDDED_OBJECT :
+        delegate.currentToken();
+  }
+
+  @Override
+  public JsonToken getCurrentToken() {
+    return currentToken();
+  }
+
+  @Override
+  public int currentTokenId() {
+    return attachment >= 0 ? JsonTokenId.ID_EMBEDDED_OBJECT :
+        delegate.currentTokenId();
+  }
+
+  // Jackson 内部仍可能调用已弃用的方法, 需同样返回附件的记号
+  @SuppressWarnings("deprecation")
+  @Override
+  public int getCurrentTokenId() {
+    return currentTokenId();
+  }
+
+  @Override
+  public boolean hasCurrentToken() {
+    return attachment >= 0 || delegate.hasCurrentToken();
+  }
+
+  @Override
+  public boolean hasTokenId(int id) {
+    return attachment >= 0 ? id == JsonTokenId.ID_EMBEDDED_OBJECT :
+        delegate.hasTokenId(id);
+  }
+
+  @Override
+  public boolean hasToken(JsonToken t) {
+    return attachment >= 0 ? t == JsonToken.VALUE_EMBEDDED_OBJECT :
+        delegate.hasToken(t);
+  }
+
+  @Override
+  public void clearCurrentToken() {
+    attachment = -1;
+    binary = null;
+    unescaped = null;
+    delegate.clearCurrentToken();
+  }
+
+  @Override
+  public String getText() throws IOException {
+    // 与其他二进制格式一致, 按文本读取时为 Base64 字符串
+    String text = replacedText();
+    return text != null ? text : delegate.getText();
+  }
+
+  @Override
+  public int getText(Writer writer) throws IOException {
+    String text = replacedText();
+    if (text == null) {
+      return delegate.getText(writer);
+    }
+    writer.write(text);
+    return text.length();
+  }
+
+  @Override
+  public boolean hasTextCharacters() {
+    return attachment < 0 && unescaped == null &&
+        delegate.hasTextCharacters();
+  }
+
+  @Override
+  public char[] getTextCharacters() throws IOException {
+    String text = replacedText();
+    return text != null ? text.toCharArray() : delegate.getTextCharacters();
+  }
+
+  @Override
+  public int getTextLength() throws IOException {
+    String text = replacedText();
+    return text != null ? text.length() : delegate.getTextLength();
+  }
+
+  @Override
+  public int getTextOffset() throws IOException {
+    return replacedText() != null ? 0 : delegate.getTextOffset();
+  }
+
+  @Override
+  public String getValueAsString() throws IOException {
+    String text = replacedText();
+    return text != null ? text : delegate.getValueAsString();
+  }
+
+  @Override
+  public String getValueAsString(String defaultValue) throws IOException {
+    String text = replacedText();
+    return text != null ? text : delegate.getValueAsString(defaultValue);
+  }
+
+  @Override
+  public Object getEmbeddedObject() throws IOException {
+    return attachment >= 0 ? binary() : delegate.getEmbeddedObject();
+  }
+
+  @Override
+  public byte[] getBinaryValue(Base64Variant variant) throws IOException {
+    return attachment >= 0 ? binary() : delegate.getBinaryValue(variant);
+  }
+
+  @Override
+  public int readBinaryValue(Base64Variant variant, OutputStream out)
+      throws IOException {
+    if (attachment < 0) {
+      return delegate.readBinaryValue(variant, out);
+    }
+    content.getBytes(offsets[attachment], out, lengths[attachment]);
+    return lengths[attachment];
+  }
+
+  /**
+   * 判断当前字符串是否以转义前缀开头, 即可能是附件序号或转义过的字符串
+   */
+  private boolean startsWithEscape() throws IOException {
+    return delegate.getTextLength() > 0 &&
+        delegate.getTextCharacters()[delegate.getTextOffset()] ==
+            AttachmentCodec.ESCAPE.charAt(0);
+  }
+
+  /**
+   * 解析字符串中的附件序号
+   *
+   * @param text 以转义前缀开头的字符串
+   * @return 附件序号, 不是附件时为 -1
+   */
+  private int attachmentIndex(String text) {
+    int prefix = AttachmentCodec.MARKER.length();
+    int length = text.length();
+    if (length <= prefix || length > prefix + 10 ||
+        !text.startsWith(AttachmentCodec.MARKER)) {
+      return -1;
+    }
+    long index = 0;
+    for (int i = prefix; i < length; ++i) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      index = index * 10 + c - '0';
+    }
+    return index < offsets.length ? (int) index : -1;
+  }
+
+  private byte[] binary() {
+    if (binary == null) {
+      binary = ByteBufUtil.getBytes(content, offsets[attachment],
+          lengths[attachment]);
+    }
+    return binary;
+  }
+
+  /**
+   * 获取替换后的当前文本
+   *
+   * @return 附件的 Base64 字符串或去掉转义前缀的字符串, 无需替换时为 {@code null}
+   */
+  private String replacedText() {
+    return attachment >= 0 ? base64() : unescaped;
+  }
+
+  private String base64() {
+    return Base64Variants.getDefaultVariant().encode(binary());
+  }
+}
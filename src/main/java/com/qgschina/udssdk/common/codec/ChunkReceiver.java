@@ -0,0 +1,95 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按请求 ID 将连接上的分块数据帧分发给对应的 {@link ChunkedInputStream}
+ * <p>
+ * 每个连接至多一个, 连接断开时所有未接收完毕的输入流均以 {@link ClosedChannelException} 失败
+ */
+public class ChunkReceiver {
+
+  private static final AttributeKey<ChunkReceiver> RECEIVER =
+      AttributeKey.valueOf("udsChunkReceiver");
+
+  private final Channel channel;
+
+  /**
+   * 正在接收的输入流, Key 为请求 ID
+   */
+  private final Map<Long, ChunkedInputStream> streams =
+      new ConcurrentHashMap<>();
+
+  private ChunkReceiver(Channel channel) {
+    this.channel = channel;
+    channel.closeFuture().addListener(f -> {
+      for (Long id : streams.keySet()) {
+        ChunkedInputStream stream = streams.remove(id);
+        if (stream != null) {
+          stream.fail(new ClosedChannelException());
+        }
+      }
+    });
+  }
+
+  /**
+   * 获取连接上的分块数据帧接收器, 不存在时创建
+   *
+   * @param channel 连接
+   * @return 分块数据帧接收器
+   */
+  public static ChunkReceiver of(Channel channel) {
+    ChunkReceiver receiver = channel.attr(RECEIVER).get();
+    if (receiver == null) {
+      ChunkReceiver created = new ChunkReceiver(channel);
+      receiver = channel.attr(RECEIVER).setIfAbsent(created);
+      if (receiver == null) {
+        receiver = created;
+      }
+    }
+    return receiver;
+  }
+
+  /**
+   * 开始接收某个请求或响应之后的分块数据帧, 必须在收到该请求或响应的事件循环线程中执行,
+   * 以免其后的数据帧已先到达
+   *
+   * @param id 请求 ID
+   * @return 由之后的分块数据帧填充的输入流
+   */
+  public ChunkedInputStream open(long id) {
+    ChunkedInputStream stream = new ChunkedInputStream(channel);
+    ChunkedInputStream previous = streams.put(id, stream);
+    if (previous != null) {
+      previous.fail(new IOException("请求 ID 重复: " + id));
+    }
+    if (!channel.isActive()) {
+      streams.remove(id);
+      stream.fail(new ClosedChannelException());
+    }
+    return stream;
+  }
+
+  /**
+   * 分发一个分块数据帧, 无对应输入流时直接丢弃
+   *
+   * @param chunk 分块数据帧, 仅在本方法返回前有效
+   * @return {@code true} 若存在对应的输入流
+   */
+  public boolean onChunk(UdsFrame chunk) {
+    long id = chunk.getId() == null ? 0 : chunk.getId();
+    ChunkedInputStream stream = chunk.isLast() || chunk.isAborted() ?
+        streams.remove(id) : streams.get(id);
+    if (stream == null) {
+      return false;
+    }
+    stream.offer(chunk);
+    return true;
+  }
+}
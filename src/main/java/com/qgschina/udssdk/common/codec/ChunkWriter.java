@@ -0,0 +1,170 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 将输入流按固定大小切分为分块数据帧 ({@link UdsFrame#KIND_CHUNK}) 写出
+ * <p>
+ * 在独立的线程中读取输入流, 读取下一块的同时写出上一块, 并等待上一块写出后才写出下一块,
+ * 故无论数据总量多大, 至多只有两个数据块位于内存中
+ */
+@Slf4j
+public final class ChunkWriter {
+
+  /**
+   * 每个数据块的最大字节数, 远小于数据帧允许的最大字节数
+   */
+  public static final int CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * 读取输入流可能阻塞, 故不在事件循环线程中执行
+   */
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+      new DefaultThreadFactory("uds-chunk-writer", true));
+
+  private ChunkWriter() {
+  }
+
+  /**
+   * 判断对象是否可作为流式传输的数据源
+   *
+   * @param value 对象
+   * @return {@code true} 若为 {@link InputStream} 或 {@link ReadableByteChannel}
+   */
+  public static boolean isSource(Object value) {
+    return value instanceof InputStream ||
+        value instanceof ReadableByteChannel;
+  }
+
+  /**
+   * 在请求或响应之后写出数据源的全部数据, 写出完毕或失败后关闭数据源
+   * <p>
+   * 数据源读取失败或被取消时写出中止标志, 以便接收方得到异常而非不完整的数据
+   *
+   * @param channel   已写出请求或响应的连接
+   * @param id        请求 ID
+   * @param source    {@link InputStream} 或 {@link ReadableByteChannel}
+   * @param cancelled 返回 {@code true} 时不再继续写出, 如对方已不再等待
+   * @return 全部写出后完成; 读取或写出失败时以异常完成
+   */
+  public static CompletableFuture<Void> write(Channel channel, long id,
+      Object source, BooleanSupplier cancelled) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    InputStream in = source instanceof InputStream ? (InputStream) source :
+        Channels.newInputStream((ReadableByteChannel) source);
+
+    EXECUTOR.execute(() -> {
+      Exception failure = null;
+      try {
+        copy(channel, id, in, cancelled);
+      } catch (Exception e) {
+        failure = e;
+      } finally {
+        // 先关闭数据源再完成, 以便调用方得知完成时数据源均已关闭
+        close(in);
+      }
+
+      if (failure == null) {
+        done.complete(null);
+        return;
+      }
+      if (channel.isActive()) {
+        channel.writeAndFlush(UdsFrame.chunk(id, Unpooled.EMPTY_BUFFER,
+            false, true));
+      }
+      if (failure instanceof CancellationException) {
+        log.debug("数据流写出已取消, 已通知对端中止");
+      } else {
+        log.warn("数据流写出失败, 已通知对端中止 --> " + failure);
+      }
+      done.completeExceptionally(failure);
+    });
+    return done;
+  }
+
+  private static void copy(Channel channel, long id, InputStream in,
+      BooleanSupplier cancelled) throws IOException {
+    ChannelFuture previous = null;
+    while (true) {
+      ByteBuf chunk = channel.alloc().buffer(CHUNK_SIZE, CHUNK_SIZE);
+      boolean last;
+      try {
+        last = fill(chunk, in);
+        await(previous);
+        if (cancelled.getAsBoolean()) {
+          throw new CancellationException("数据流传输已被取消");
+        }
+      } catch (IOException | RuntimeException e) {
+        chunk.release();
+        throw e;
+      }
+
+      previous = channel.writeAndFlush(UdsFrame.chunk(id, chunk, last, false));
+      if (last) {
+        await(previous);
+        return;
+      }
+    }
+  }
+
+  /**
+   * 从输入流中读取数据, 直到填满数据块或读取完毕
+   *
+   * @param chunk 数据块
+   * @param in    输入流
+   * @return {@code true} 若输入流已读取完毕
+   * @throws IOException 读取失败
+   */
+  private static boolean fill(ByteBuf chunk, InputStream in)
+      throws IOException {
+    while (chunk.isWritable()) {
+      if (chunk.writeBytes(in, chunk.writableBytes()) < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void close(InputStream in) {
+    try {
+      in.close();
+    } catch (IOException e) {
+      log.warn("关闭数据流失败 --> " + e);
+    }
+  }
+
+  private static void await(ChannelFuture future) throws IOException {
+    if (future == null) {
+      return;
+    }
+
+    try {
+      future.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("等待数据块写出时被中断");
+    }
+    if (!future.isSuccess()) {
+      Throwable cause = future.cause();
+      throw cause instanceof IOException ? (IOException) cause :
+          new ClosedChannelException();
+    }
+  }
+}
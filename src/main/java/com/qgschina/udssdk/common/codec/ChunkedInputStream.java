@@ -0,0 +1,257 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 由分块数据帧 ({@link UdsFrame#KIND_CHUNK}) 逐块填充的输入流,
+ * 同时也是 {@link ReadableByteChannel}
+ * <p>
+ * 至多缓存 {@value #MAX_QUEUED} 个数据块, 缓存已满时暂停读取连接上的数据,
+ * 直到读取方取走一半后才恢复, 故内存占用仅与数据块大小有关, 而与数据总量无关.
+ * 暂停期间该连接上的其他数据帧也无法读取, 故需及时读取完毕或关闭
+ */
+public class ChunkedInputStream extends InputStream
+    implements ReadableByteChannel {
+
+  /**
+   * 最多缓存的数据块数
+   */
+  public static final int MAX_QUEUED = 4;
+
+  /**
+   * 接收数据块的连接
+   */
+  private final Channel channel;
+
+  /**
+   * 已收到但尚未读取的数据块; 需持有本对象的锁访问
+   */
+  private final Queue<ByteBuf> queue = new ArrayDeque<>();
+
+  /**
+   * 所有数据块均已收到或传输失败时完成
+   */
+  private final CompletableFuture<Void> received = new CompletableFuture<>();
+
+  /**
+   * 正在读取的数据块
+   */
+  private ByteBuf current;
+
+  /**
+   * 是否已收到最后一个数据块
+   */
+  private boolean last;
+
+  /**
+   * 传输失败的原因
+   */
+  private IOException failure;
+
+  private boolean closed;
+
+  /**
+   * 是否已因缓存已满而暂停读取连接
+   */
+  private boolean paused;
+
+  public ChunkedInputStream(Channel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * 填充一个数据块, 在连接的事件循环线程中执行
+   *
+   * @param chunk 分块数据帧, 其数据由本方法按需保留
+   */
+  synchronized void offer(UdsFrame chunk) {
+    if (chunk.isAborted()) {
+      failure = new IOException("对端已中止数据流传输");
+    } else if (!closed && failure == null && chunk.content().isReadable()) {
+      queue.add(chunk.content().retain());
+    }
+
+    if (chunk.isLast() || chunk.isAborted()) {
+      last = true;
+      // 之后不会再有数据块, 恢复读取以免其他数据帧被阻塞
+      resume();
+      received.complete(null);
+    } else if (!paused && queue.size() >= MAX_QUEUED) {
+      paused = true;
+      channel.config().setAutoRead(false);
+    }
+    notifyAll();
+  }
+
+  /**
+   * 连接断开等原因导致无法继续接收数据块
+   *
+   * @param cause 失败原因
+   */
+  synchronized void fail(IOException cause) {
+    if (!last) {
+      failure = cause;
+      last = true;
+      received.complete(null);
+      notifyAll();
+    }
+  }
+
+  /**
+   * 获取数据块的接收状态
+   *
+   * @return 所有数据块均已收到或传输失败时完成, 此后连接上不会再有该流的数据帧
+   */
+  public CompletableFuture<Void> received() {
+    return received;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] one = new byte[1];
+    return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+  }
+
+  @Override
+  public synchronized int read(byte[] b, int off, int len)
+      throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+
+    ByteBuf buf = await();
+    if (buf == null) {
+      return -1;
+    }
+    int n = Math.min(len, buf.readableBytes());
+    buf.readBytes(b, off, n);
+    return n;
+  }
+
+  @Override
+  public synchronized int read(ByteBuffer dst) throws IOException {
+    if (!dst.hasRemaining()) {
+      return 0;
+    }
+
+    ByteBuf buf = await();
+    if (buf == null) {
+      return -1;
+    }
+    int n = Math.min(dst.remaining(), buf.readableBytes());
+    ByteBuffer src = dst.duplicate();
+    src.limit(src.position() + n);
+    buf.readBytes(src);
+    dst.position(dst.position() + n);
+    return n;
+  }
+
+  @Override
+  public synchronized long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n) {
+      ByteBuf buf = await();
+      if (buf == null) {
+        break;
+      }
+      int step = (int) Math.min(n - skipped, buf.readableBytes());
+      buf.skipBytes(step);
+      skipped += step;
+    }
+    return skipped;
+  }
+
+  @Override
+  public synchronized int available() {
+    int n = current == null ? 0 : current.readableBytes();
+    for (ByteBuf buf : queue) {
+      n += buf.readableBytes();
+    }
+    return n;
+  }
+
+  @Override
+  public synchronized boolean isOpen() {
+    return !closed;
+  }
+
+  /**
+   * 关闭输入流, 之后收到的数据块均被直接丢弃
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    releaseCurrent();
+    queue.forEach(ByteBuf::release);
+    queue.clear();
+    resume();
+    notifyAll();
+  }
+
+  /**
+   * 等待下一段可读的数据
+   *
+   * @return 可读的数据块, 已读取完毕时返回 {@code null}
+   * @throws IOException 输入流已关闭, 传输失败或等待时被中断
+   */
+  private ByteBuf await() throws IOException {
+    while (true) {
+      if (closed) {
+        throw new IOException("输入流已关闭");
+      }
+      if (current != null && current.isReadable()) {
+        return current;
+      }
+
+      releaseCurrent();
+      current = queue.poll();
+      if (current != null) {
+        if (paused && queue.size() <= MAX_QUEUED / 2) {
+          resume();
+        }
+        continue;
+      }
+
+      if (failure != null) {
+        throw failure;
+      }
+      if (last) {
+        return null;
+      }
+
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("等待数据块时被中断");
+      }
+    }
+  }
+
+  private void resume() {
+    if (paused) {
+      paused = false;
+      channel.config().setAutoRead(true);
+    }
+  }
+
+  private void releaseCurrent() {
+    if (current != null) {
+      current.release();
+      current = null;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.json.JsonObjectDecoder;
+import io.netty.util.AttributeKey;
+import reactor.netty.Connection;
+
+/**
+ * 连接上数据帧格式的安装与切换
+ * <p>
+ * 连接建立时均以 {@link FrameFormat#JSON} 格式开始, 握手成功后再切换为
+ * {@link FrameFormat#BINARY} 格式. 切换时双方均不会有未处理的数据:
+ * Client 在收到握手响应前不会再发送请求, Server 在收到下一个请求前也不会再写出响应.
+ * <p>
+ * {@link FrameFormat#BINARY} 格式的连接还可协商数据的编码方式 ({@link PayloadCodec}),
+ * 此后各数据帧按帧头中的 {@link UdsFrame#FLAG_ENCODED} 标志使用协商的编码方式或 JSON;
+ * 同时还可协商是否以分块数据帧流式传输 {@code InputStream} 等流参数及流返回值,
+ * 以及是否将超过阈值的数据帧经由共享内存 ({@link SharedMemory}) 传输
+ */
+public class FrameCodec {
+
+  /**
+   * 数据帧解码器在 Pipeline 中的名称
+   */
+  public static final String DECODER = "udsFrameDecoder";
+
+  /**
+   * 数据帧编码器在 Pipeline 中的名称
+   */
+  public static final String ENCODER = "udsFrameEncoder";
+
+  /**
+   * 连接上协商的数据编码方式
+   */
+  private static final AttributeKey<PayloadCodec> PAYLOAD_CODEC =
+      AttributeKey.valueOf("udsPayloadCodec");
+
+  /**
+   * 连接是否已协商支持流式传输
+   */
+  private static final AttributeKey<Boolean> STREAMING =
+      AttributeKey.valueOf("udsStreaming");
+
+  private FrameCodec() {
+  }
+
+  /**
+   * 为新建立的连接安装 {@link FrameFormat#JSON} 格式的编解码器
+   *
+   * @param conn     新建立的连接
+   * @param maxBytes 允许接收的最大字节数
+   */
+  public static void install(Connection conn, int maxBytes) {
+    conn.addHandlerLast(DECODER, new JsonObjectDecoder(maxBytes))
+        .addHandlerFirst(ENCODER, new FrameEncoder());
+  }
+
+  /**
+   * 将连接切换为 {@link FrameFormat#BINARY} 格式, 必须在连接的事件循环线程中执行
+   *
+   * @param channel  已安装编解码器的连接
+   * @param maxBytes 允许接收的最大字节数
+   */
+  public static void upgrade(Channel channel, int maxBytes) {
+    ChannelPipeline pipeline = channel.pipeline();
+    if (pipeline.get(DECODER) instanceof FrameDecoder) {
+      return;
+    }
+
+    pipeline.replace(DECODER, DECODER, new FrameDecoder(maxBytes));
+    ((FrameEncoder) pipeline.get(ENCODER)).setBinary(true);
+  }
+
+  /**
+   * 判断连接是否已切换为 {@link FrameFormat#BINARY} 格式
+   *
+   * @param channel 已安装编解码器的连接
+   * @return {@code true} 若已切换
+   */
+  public static boolean isBinary(Channel channel) {
+    return ((FrameEncoder) channel.pipeline().get(ENCODER)).isBinary();
+  }
+
+  /**
+   * 设置连接上协商的数据编码方式, 必须在切换为 {@link FrameFormat#BINARY} 格式后设置
+   *
+   * @param channel 已切换为二进制数据帧的连接
+   * @param codec   协商的编码方式
+   */
+  public static void setPayloadCodec(Channel channel, PayloadCodec codec) {
+    channel.attr(PAYLOAD_CODEC).set(codec);
+  }
+
+  /**
+   * 获取连接上协商的数据编码方式
+   *
+   * @param channel 连接
+   * @return 协商的编码方式, 未协商时为 {@link PayloadCodecs#JSON}
+   */
+  public static PayloadCodec getPayloadCodec(Channel channel) {
+    PayloadCodec codec = channel.attr(PAYLOAD_CODEC).get();
+    return codec == null ? PayloadCodecs.JSON : codec;
+  }
+
+  /**
+   * 设置连接是否支持以分块数据帧流式传输, 必须在切换为 {@link FrameFormat#BINARY} 格式后设置
+   *
+   * @param channel   已切换为二进制数据帧的连接
+   * @param streaming 是否支持流式传输
+   */
+  public static void setStreaming(Channel channel, boolean streaming) {
+    channel.attr(STREAMING).set(streaming);
+  }
+
+  /**
+   * 判断连接是否支持以分块数据帧流式传输
+   *
+   * @param channel 连接
+   * @return {@code true} 若已协商支持
+   */
+  public static boolean isStreaming(Channel channel) {
+    return Boolean.TRUE.equals(channel.attr(STREAMING).get());
+  }
+
+  /**
+   * 设置连接上经由共享内存传输的最小数据字节数, 必须在切换为 {@link FrameFormat#BINARY} 格式后设置
+   *
+   * @param channel   已切换为二进制数据帧的连接
+   * @param threshold 经由共享内存传输的最小数据字节数, 必须大于 0
+   */
+  public static void setSharedMemory(Channel channel, int threshold) {
+    ((FrameEncoder) channel.pipeline().get(ENCODER))
+        .setSharedThreshold(threshold);
+    SharedMemory.track(channel);
+  }
+}
@@ -0,0 +1,182 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.CorruptedFrameException;
+
+/**
+ * {@link FrameFormat#BINARY} 格式的数据帧解码器
+ * <p>
+ * 读取帧头后即知道数据长度, 无需扫描数据内容: 若数据已完整位于本次读取的缓冲区中,
+ * 则直接切片而不复制; 否则按数据长度一次分配恰好大小的缓冲区, 再逐次填充.
+ * 超过最大字节数的数据会被跳过, 并以 {@link UdsFrame#isOversized()} 的数据帧通知,
+ * 以便按请求 ID 返回错误响应而不必断开连接.
+ * 经由共享内存传输的数据帧在此映射为数据本身, 其数据字节数同样受最大字节数的限制
+ */
+public class FrameDecoder extends ChannelInboundHandlerAdapter {
+
+  /**
+   * 允许的最大数据字节数
+   */
+  private final int maxLength;
+
+  /**
+   * 跨越多次读取的帧头
+   */
+  private final ByteBuf header = Unpooled.buffer(UdsFrame.HEADER_LENGTH);
+
+  private byte kind;
+
+  private byte flags;
+
+  private long id;
+
+  /**
+   * 正在填充的数据, 未读取到帧头或数据未跨越多次读取时为 {@code null}
+   */
+  private ByteBuf payload;
+
+  /**
+   * 超过最大字节数的数据仍需跳过的字节数
+   */
+  private int discarding;
+
+  public FrameDecoder(int maxLength) {
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) {
+    if (!(msg instanceof ByteBuf)) {
+      ctx.fireChannelRead(msg);
+      return;
+    }
+
+    ByteBuf in = (ByteBuf) msg;
+    try {
+      while (in.isReadable() && ctx.channel().isActive()) {
+        decode(ctx, in);
+      }
+    } finally {
+      in.release();
+    }
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    releasePayload();
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext ctx) {
+    releasePayload();
+    header.release();
+  }
+
+  /**
+   * 从本次读取的缓冲区中解码, 每次至多完成一个数据帧
+   *
+   * @param ctx 上下文
+   * @param in  本次读取的缓冲区
+   */
+  private void decode(ChannelHandlerContext ctx, ByteBuf in) {
+    if (discarding > 0) {
+      int skip = Math.min(discarding, in.readableBytes());
+      in.skipBytes(skip);
+      discarding -= skip;
+      return;
+    }
+
+    if (payload == null) {
+      int length = readHeader(in);
+      if (length < 0) {
+        return;
+      }
+
+      if (length > maxLength) {
+        discarding = length;
+        ctx.fireChannelRead(
+            new UdsFrame(kind, flags, id, Unpooled.EMPTY_BUFFER, true));
+        return;
+      }
+
+      // 数据已完整位于本次读取的缓冲区中, 直接切片
+      if (in.readableBytes() >= length) {
+        ByteBuf content = in.retainedSlice(in.readerIndex(), length);
+        in.skipBytes(length);
+        fireFrame(ctx, content);
+        return;
+      }
+
+      payload = ctx.alloc().directBuffer(length, length);
+    }
+
+    payload.writeBytes(in,
+        Math.min(payload.writableBytes(), in.readableBytes()));
+    if (!payload.isWritable()) {
+      ByteBuf content = payload;
+      payload = null;
+      fireFrame(ctx, content);
+    }
+  }
+
+  /**
+   * 传递已完整读取的数据帧
+   *
+   * @param ctx     上下文
+   * @param content 数据, 经由共享内存传输时为共享内存段的描述
+   */
+  private void fireFrame(ChannelHandlerContext ctx, ByteBuf content) {
+    if ((flags & UdsFrame.FLAG_SHARED) == 0) {
+      ctx.fireChannelRead(new UdsFrame(kind, flags, id, content, false));
+      return;
+    }
+
+    UdsFrame frame;
+    try {
+      frame = SharedMemory.open(kind, flags, id, content, maxLength);
+    } finally {
+      content.release();
+    }
+    ctx.fireChannelRead(frame);
+  }
+
+  /**
+   * 读取帧头
+   *
+   * @param in 本次读取的缓冲区
+   * @return 数据长度, 帧头尚不完整时返回 -1
+   */
+  private int readHeader(ByteBuf in) {
+    ByteBuf src = in;
+    if (header.isReadable() || in.readableBytes() < UdsFrame.HEADER_LENGTH) {
+      in.readBytes(header,
+          Math.min(header.writableBytes(), in.readableBytes()));
+      if (header.isWritable()) {
+        return -1;
+      }
+      src = header;
+    }
+
+    int length = src.readInt();
+    kind = src.readByte();
+    flags = src.readByte();
+    id = src.readLong();
+    header.clear();
+
+    if (length < 0) {
+      throw new CorruptedFrameException("数据帧长度错误: " + length);
+    }
+    return length;
+  }
+
+  private void releasePayload() {
+    if (payload != null) {
+      payload.release();
+      payload = null;
+    }
+  }
+}
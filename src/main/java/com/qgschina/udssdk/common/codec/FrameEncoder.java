@@ -0,0 +1,71 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link UdsFrame} 的编码器
+ * <p>
+ * 连接协商为 {@link FrameFormat#BINARY} 格式后, 在数据前拼接帧头 (不复制数据);
+ * 否则直接写出数据. 其他类型的消息 (如握手阶段的 JSON 数据帧) 原样写出.
+ * 协商了共享内存传输时, 超过阈值的请求或响应写入共享内存段, 仅写出该段的描述
+ */
+@Slf4j
+public class FrameEncoder extends MessageToMessageEncoder<UdsFrame> {
+
+  /**
+   * 连接是否已协商为 {@link FrameFormat#BINARY} 格式
+   */
+  private volatile boolean binary;
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  void setBinary(boolean binary) {
+    this.binary = binary;
+  }
+
+  /**
+   * 经由共享内存传输的最小数据字节数, 为 0 时不使用共享内存
+   */
+  private volatile int sharedThreshold;
+
+  void setSharedThreshold(int sharedThreshold) {
+    this.sharedThreshold = sharedThreshold;
+  }
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, UdsFrame frame,
+      List<Object> out) {
+    if (!binary) {
+      out.add(frame.content().retain());
+      return;
+    }
+
+    // 分块数据帧本身较小, 且需与流数据的其他分块依次到达, 故不经由共享内存
+    int threshold = sharedThreshold;
+    if (threshold > 0 && !frame.isChunk() &&
+        frame.content().readableBytes() >= threshold) {
+      try {
+        frame = SharedMemory.share(ctx.channel(), frame);
+      } catch (IOException e) {
+        log.warn("写入共享内存失败, 改为经由 Socket 传输 --> " + e);
+        frame = frame.retain();
+      }
+    } else {
+      frame = frame.retain();
+    }
+
+    ByteBuf content = frame.content();
+    ByteBuf header = ctx.alloc().directBuffer(UdsFrame.HEADER_LENGTH);
+    frame.writeHeader(header);
+    out.add(ctx.alloc().compositeDirectBuffer(2)
+        .addComponents(true, header, content));
+  }
+}
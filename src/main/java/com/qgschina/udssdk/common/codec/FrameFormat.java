@@ -0,0 +1,28 @@
+package com.qgschina.udssdk.common.codec;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 连接上的数据帧格式, 由 Client 在建立连接时与 Server 握手协商
+ */
+@RequiredArgsConstructor
+public enum FrameFormat {
+
+  /**
+   * 以完整的 JSON 对象作为数据帧, 接收方需逐字节扫描括号才能确定帧边界;
+   * 各语言 SDK 均支持, 也是握手失败时使用的格式
+   */
+  JSON("json"),
+
+  /**
+   * 以固定长度的帧头开始的二进制数据帧, 帧头中包含数据长度及请求 ID,
+   * 详见 {@link UdsFrame}
+   */
+  BINARY("binary");
+
+  private final String value;
+
+  public String value() {
+    return value;
+  }
+}
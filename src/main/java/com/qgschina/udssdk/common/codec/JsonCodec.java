@@ -0,0 +1,294 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.qgschina.udssdk.common.util.JsonEngine;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.util.CharsetUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Client 与 Server 共用的 JSON 数据帧编解码
+ * <p>
+ * 直接从入栈的 {@link ByteBuf} 流式解析数据帧, 并将对象直接序列化到池化的直接内存缓冲区,
+ * 中间不再经过 JSON 字符串及非池化的堆内存缓冲区.
+ * 连接上协商了其他 {@link PayloadCodec} 时, 也可按该编码方式编解码;
+ * 协商了二进制附件 ({@link AttachmentCodec}) 时, 直接从数据帧中读取附件
+ */
+public class JsonCodec {
+
+  /**
+   * 用于流式读取 JSON, 线程安全
+   */
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * 用于序列化数据帧, 线程安全
+   */
+  private static final ObjectWriter WRITER =
+      JsonEngine.writer();
+
+  /**
+   * 用于将其他编码方式的数据转为 JSON 字符串, 仅用于日志
+   */
+  private static final ObjectReader TREE_READER =
+      JsonEngine.reader(JsonNode.class);
+
+  /**
+   * 日志中最多输出的无法解析的数据字节数
+   */
+  private static final int MAX_DUMP_BYTES = 256;
+
+  /**
+   * 数据帧的缓冲区分配器
+   */
+  private static final ByteBufAllocator ALLOC = PooledByteBufAllocator.DEFAULT;
+
+  private JsonCodec() {
+  }
+
+  /**
+   * 将 Java 对象序列化到池化的直接内存缓冲区
+   * <p>
+   * 返回的缓冲区由调用方负责写出或释放
+   *
+   * @param value Java 对象
+   * @return 数据帧
+   * @throws JsonProcessingException JSON 序列化失败
+   */
+  public static ByteBuf encode(Object value) throws JsonProcessingException {
+    ByteBuf buf = ALLOC.directBuffer();
+    try {
+      // `ByteBufOutputStream` 同时实现了 `DataOutput`, 需明确按输出流写出
+      WRITER.writeValue((OutputStream) new ByteBufOutputStream(buf), value);
+      return buf;
+    } catch (JsonProcessingException e) {
+      buf.release();
+      throw e;
+    } catch (IOException e) {
+      buf.release();
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
+  /**
+   * 按指定的编码方式将 Java 对象序列化到池化的直接内存缓冲区
+   * <p>
+   * 返回的缓冲区由调用方负责写出或释放
+   *
+   * @param value Java 对象
+   * @param codec 编码方式
+   * @return 数据帧
+   * @throws JsonProcessingException 序列化失败
+   */
+  public static ByteBuf encode(Object value, PayloadCodec codec)
+      throws JsonProcessingException {
+    if (codec == PayloadCodecs.JSON) {
+      return encode(value);
+    }
+
+    ByteBuf buf = ALLOC.directBuffer();
+    try {
+      codec.encode(WRITER, value, new ByteBufOutputStream(buf));
+      return buf;
+    } catch (JsonProcessingException e) {
+      buf.release();
+      throw e;
+    } catch (IOException e) {
+      buf.release();
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    } catch (RuntimeException e) {
+      buf.release();
+      throw e;
+    }
+  }
+
+  /**
+   * 从数据帧中流式解析 Java 对象, 不改变数据帧的读取位置
+   *
+   * @param frame  数据帧
+   * @param reader 目标类型的反序列化对象
+   * @param <T>    Java 对象的具体类型
+   * @return Java 对象
+   * @throws IOException JSON 反序列化失败
+   */
+  public static <T> T decode(ByteBuf frame, ObjectReader reader)
+      throws IOException {
+    if (frame.hasArray()) {
+      return reader.readValue(frame.array(),
+          frame.arrayOffset() + frame.readerIndex(), frame.readableBytes());
+    }
+
+    try (InputStream in = new ByteBufInputStream(frame.duplicate())) {
+      return reader.readValue(in);
+    }
+  }
+
+  /**
+   * 按指定的编码方式从数据帧中解析 Java 对象, 不改变数据帧的读取位置
+   *
+   * @param frame  数据帧
+   * @param codec  编码方式
+   * @param reader 目标类型的反序列化对象
+   * @param <T>    Java 对象的具体类型
+   * @return Java 对象
+   * @throws IOException 反序列化失败
+   */
+  public static <T> T decode(ByteBuf frame, PayloadCodec codec,
+      ObjectReader reader) throws IOException {
+    if (codec == PayloadCodecs.JSON) {
+      return decode(frame, reader);
+    }
+    if (codec instanceof AttachmentCodec) {
+      return ((AttachmentCodec) codec).decode(frame, reader);
+    }
+
+    try (InputStream in = new ByteBufInputStream(frame.duplicate())) {
+      return codec.decode(reader, in);
+    }
+  }
+
+  /**
+   * 流式读取数据帧中某个顶层字段的整数值
+   * <p>
+   * 读取到该字段后立即返回, 无需解析完整的数据帧
+   *
+   * @param frame 数据帧
+   * @param field 顶层字段名
+   * @return 字段的整数值, 字段不存在, 不是整数或 JSON 格式错误时返回 {@code null}
+   */
+  public static Long peekLong(ByteBuf frame, String field) {
+    try (InputStream in = new ByteBufInputStream(frame.duplicate());
+        JsonParser parser = JSON_FACTORY.createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+
+        if (field.equals(name)) {
+          return token == JsonToken.VALUE_NUMBER_INT ?
+              parser.getLongValue() : null;
+        }
+
+        parser.skipChildren();
+      }
+    } catch (IOException ignore) {
+      // JSON 格式错误
+    }
+
+    return null;
+  }
+
+  /**
+   * 将数据帧转为字符串, 仅用于日志
+   *
+   * @param frame 数据帧
+   * @return JSON 字符串
+   */
+  public static String toString(ByteBuf frame) {
+    return frame.toString(CharsetUtil.UTF_8);
+  }
+
+  /**
+   * 将指定编码方式的数据帧转为 JSON 字符串, 仅用于日志
+   *
+   * @param frame 数据帧
+   * @param codec 编码方式
+   * @return JSON 字符串, 无法解析时为数据开头部分的十六进制表示
+   */
+  public static String toString(ByteBuf frame, PayloadCodec codec) {
+    if (codec == PayloadCodecs.JSON) {
+      return toString(frame);
+    }
+
+    try {
+      JsonNode tree = decode(frame, codec, TREE_READER);
+      return String.valueOf(tree);
+    } catch (IOException | RuntimeException e) {
+      int length = Math.min(frame.readableBytes(), MAX_DUMP_BYTES);
+      return codec.name() + "(" + frame.readableBytes() + " bytes): " +
+          ByteBufUtil.hexDump(frame, frame.readerIndex(), length);
+    }
+  }
+
+  /**
+   * 预先编码不含请求 ID 的固定响应
+   *
+   * @param value 固定响应对象, 序列化后必须为非空 JSON 对象, 且之后不可再修改
+   * @return 预先编码的响应
+   */
+  public static PreEncoded preEncode(Object value) {
+    try {
+      ByteBuf body = encode(value);
+      if (body.readableBytes() <= 2) {
+        body.release();
+        throw new IllegalArgumentException("固定响应不能为空 JSON 对象");
+      }
+      return new PreEncoded(body);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("固定响应无法序列化", e);
+    }
+  }
+
+  /**
+   * 预先编码的固定响应, 发送时仅需在开头拼接请求 ID
+   */
+  public static class PreEncoded {
+
+    private static final byte[] ID_PREFIX =
+        "{\"id\":".getBytes(CharsetUtil.US_ASCII);
+
+    /**
+     * 不含请求 ID 的完整响应, 常驻内存且不会被释放
+     */
+    private final ByteBuf body;
+
+    private PreEncoded(ByteBuf body) {
+      this.body = body;
+    }
+
+    /**
+     * 生成带有请求 ID 的响应
+     * <p>
+     * 返回的缓冲区由调用方负责写出或释放
+     *
+     * @param id 请求 ID, 为 {@code null} 时直接返回预先编码的响应
+     * @return 数据帧
+     */
+    public ByteBuf withId(Long id) {
+      if (id == null) {
+        return body.retainedDuplicate();
+      }
+
+      String digits = Long.toString(id);
+      // 跳过预先编码响应开头的 `{`
+      int rest = body.readableBytes() - 1;
+      ByteBuf buf = ALLOC.directBuffer(
+          ID_PREFIX.length + digits.length() + 1 + rest);
+      buf.writeBytes(ID_PREFIX)
+          .writeCharSequence(digits, CharsetUtil.US_ASCII);
+      buf.writeByte(',')
+          .writeBytes(body, body.readerIndex() + 1, rest);
+      return buf;
+    }
+  }
+}
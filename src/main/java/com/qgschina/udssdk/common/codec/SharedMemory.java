@@ -0,0 +1,375 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.qgschina.udssdk.common.model.SharedSegmentData;
+import com.qgschina.udssdk.common.util.JsonEngine;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 同一主机上的进程间经由共享内存交接数据帧
+ * <p>
+ * 发送方将超过阈值的数据写入 {@code /dev/shm} 下的共享内存段, 数据帧中仅写出该段的描述
+ * ({@link SharedSegmentData}), 数据不再经过 Socket 缓冲区; 接收方以只读方式映射该段后
+ * 随即删除其文件名, 映射在数据帧被释放时解除, 此后共享内存即由内核回收.
+ * <p>
+ * 共享内存段的文件名为 {@code uds-sdk-<进程标识>-<序号>}, 每个进程在存活期间持有
+ * {@code uds-sdk-<进程标识>.lock} 的文件锁, 作为其所有共享内存段的租约:
+ * <ul>
+ *   <li>接收方崩溃时连接随之断开, 发送方删除该连接上尚未被接收的共享内存段</li>
+ *   <li>超过 {@value #LEASE_MILLIS} 毫秒仍未被接收的共享内存段由发送方删除</li>
+ *   <li>发送方崩溃时其文件锁随之释放, 其余进程在后台定期删除其遗留的共享内存段</li>
+ * </ul>
+ * 共享内存段仅所有者可读写, 故 Client 与 Server 需以同一用户运行并共享 {@code /dev/shm}
+ */
+@Slf4j
+public final class SharedMemory {
+
+  /**
+   * 共享内存段所在目录
+   */
+  private static final Path DIRECTORY = Paths.get("/dev/shm");
+
+  private static final String PREFIX = "uds-sdk-";
+
+  private static final String LOCK_SUFFIX = ".lock";
+
+  /**
+   * 共享内存段及租约的文件名, 分组 1 为所属进程的标识;
+   * 仅映射符合该格式的文件, 以免按对端给出的名称打开任意文件
+   */
+  private static final Pattern FILE_NAME =
+      Pattern.compile("uds-sdk-([0-9a-f]{16})(-[0-9]{1,19}|\\.lock)");
+
+  /**
+   * 共享内存段的租约时长, 单位: 毫秒
+   */
+  static final long LEASE_MILLIS = 30 * 1000;
+
+  /**
+   * 后台清理过期及遗留共享内存段的时间间隔, 单位: 毫秒
+   */
+  private static final long SWEEP_INTERVAL_MILLIS = 10 * 1000;
+
+  /**
+   * 共享内存段仅所有者可读写
+   */
+  private static final FileAttribute<?> OWNER_ONLY =
+      PosixFilePermissions.asFileAttribute(
+          PosixFilePermissions.fromString("rw-------"));
+
+  private static final ObjectReader DESCRIPTOR_READER =
+      JsonEngine.reader(SharedSegmentData.class);
+
+  private static final AtomicLong SEQ = new AtomicLong();
+
+  /**
+   * 本进程写出且尚未过期的共享内存段, Key 为文件名
+   */
+  private static final Map<String, Lease> LEASES = new ConcurrentHashMap<>();
+
+  /**
+   * 本进程的标识, 共享内存不可用时为 {@code null}
+   */
+  private static String token;
+
+  /**
+   * 本进程持有的文件锁, 进程退出时由操作系统释放
+   */
+  private static FileLock lock;
+
+  private static boolean initialized;
+
+  private SharedMemory() {
+  }
+
+  /**
+   * 判断共享内存是否可用, 首次调用时创建本进程的租约, 并开始在后台清理遗留的共享内存段
+   *
+   * @return {@code true} 若 {@code /dev/shm} 存在且可写
+   */
+  public static synchronized boolean isAvailable() {
+    if (initialized) {
+      return token != null;
+    }
+    initialized = true;
+
+    if (!Files.isDirectory(DIRECTORY) || !Files.isWritable(DIRECTORY)) {
+      log.info("共享内存目录 " + DIRECTORY + " 不存在或不可写, 不使用共享内存传输");
+      return false;
+    }
+
+    try {
+      acquireLease();
+    } catch (IOException e) {
+      log.warn("无法创建共享内存租约, 不使用共享内存传输 --> " + e);
+      return false;
+    }
+
+    ScheduledExecutorService sweeper = Executors
+        .newSingleThreadScheduledExecutor(
+            new DefaultThreadFactory("uds-shm-sweeper", true));
+    sweeper.scheduleWithFixedDelay(SharedMemory::sweep, 0,
+        SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    return true;
+  }
+
+  /**
+   * 连接断开时删除其上尚未被接收的共享内存段, 每个连接仅需注册一次
+   *
+   * @param channel 已协商经由共享内存传输的连接
+   */
+  static void track(Channel channel) {
+    channel.closeFuture().addListener(f -> LEASES.entrySet().removeIf(e -> {
+      if (e.getValue().channel != channel) {
+        return false;
+      }
+      delete(e.getKey());
+      return true;
+    }));
+  }
+
+  /**
+   * 将数据帧中的数据写入新的共享内存段, 并替换为该段的描述
+   *
+   * @param channel 写出数据帧的连接
+   * @param frame   数据帧, 其数据由调用方释放
+   * @return 带有 {@link UdsFrame#FLAG_SHARED} 标志的数据帧
+   * @throws IOException 共享内存不可用或空间不足
+   */
+  static UdsFrame share(Channel channel, UdsFrame frame) throws IOException {
+    if (!isAvailable()) {
+      throw new IOException("共享内存不可用");
+    }
+
+    String name = PREFIX + token + "-" + SEQ.incrementAndGet();
+    ByteBuf content = frame.content();
+    long length = content.readableBytes();
+
+    // 先登记租约, 以便写入失败或之后连接断开时均可删除
+    LEASES.put(name, new Lease(channel,
+        System.currentTimeMillis() + LEASE_MILLIS));
+    try (FileChannel out = FileChannel.open(DIRECTORY.resolve(name),
+        EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+        OWNER_ONLY)) {
+      ByteBuffer[] buffers = content.nioBuffers();
+      long written = 0;
+      while (written < length) {
+        written += out.write(buffers);
+      }
+    } catch (IOException e) {
+      LEASES.remove(name);
+      delete(name);
+      throw e;
+    }
+
+    SharedSegmentData descriptor = new SharedSegmentData();
+    descriptor.setName(name);
+    descriptor.setLength(length);
+    try {
+      return frame.share(JsonCodec.encode(descriptor));
+    } catch (IOException e) {
+      LEASES.remove(name);
+      delete(name);
+      throw e;
+    }
+  }
+
+  /**
+   * 以只读方式映射数据帧描述的共享内存段, 并删除其文件名
+   *
+   * @param kind       数据帧类型
+   * @param flags      标志
+   * @param id         请求 ID
+   * @param descriptor 共享内存段的描述, 由调用方释放
+   * @param maxLength  允许的最大数据字节数
+   * @return 数据为映射后的共享内存的数据帧; 无法映射时为带有失败原因的空数据帧
+   */
+  static UdsFrame open(byte kind, byte flags, long id, ByteBuf descriptor,
+      int maxLength) {
+    SharedSegmentData data;
+    try {
+      data = JsonCodec.decode(descriptor, DESCRIPTOR_READER);
+    } catch (IOException e) {
+      return UdsFrame.failed(kind, flags, id, "共享内存段描述格式错误");
+    }
+
+    String name = data.getName();
+    Long length = data.getLength();
+    if (name == null || length == null || length < 0 ||
+        !FILE_NAME.matcher(name).matches() || name.endsWith(LOCK_SUFFIX)) {
+      return UdsFrame.failed(kind, flags, id, "共享内存段描述错误: " + name);
+    }
+
+    try {
+      if (length > maxLength) {
+        return new UdsFrame(kind, flags, id, Unpooled.EMPTY_BUFFER, true);
+      }
+
+      try (FileChannel in = FileChannel.open(DIRECTORY.resolve(name),
+          StandardOpenOption.READ)) {
+        if (in.size() < length) {
+          return UdsFrame.failed(kind, flags, id, "共享内存段不完整: " + name);
+        }
+        return UdsFrame.mapped(kind, flags, id,
+            in.map(FileChannel.MapMode.READ_ONLY, 0, length));
+      }
+    } catch (NoSuchFileException e) {
+      return UdsFrame.failed(kind, flags, id, "共享内存段已不存在: " + name);
+    } catch (IOException e) {
+      return UdsFrame.failed(kind, flags, id, "无法映射共享内存段: " + e);
+    } finally {
+      // 映射不依赖文件名, 删除后共享内存在映射解除时即被回收
+      delete(name);
+    }
+  }
+
+  /**
+   * 创建本进程的租约文件并持有其文件锁
+   *
+   * @throws IOException 无法创建或锁定租约文件
+   */
+  private static void acquireLease() throws IOException {
+    SecureRandom random = new SecureRandom();
+    for (int attempt = 0; ; ++attempt) {
+      String candidate = String.format("%016x", random.nextLong());
+      Path file = DIRECTORY.resolve(PREFIX + candidate + LOCK_SUFFIX);
+      FileChannel channel;
+      try {
+        channel = FileChannel.open(file, EnumSet.of(
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+            OWNER_ONLY);
+      } catch (FileAlreadyExistsException e) {
+        continue;
+      }
+
+      // 其他进程可能恰好将刚创建的租约文件视为遗留文件而删除, 此时换一个标识重试
+      FileLock acquired = channel.tryLock();
+      if (acquired != null && Files.exists(file)) {
+        token = candidate;
+        lock = acquired;
+        // 正常退出时删除租约文件, 其余进程随即将本进程的共享内存段视为遗留而删除
+        file.toFile().deleteOnExit();
+        return;
+      }
+      channel.close();
+      if (attempt >= 2) {
+        throw new IOException("无法锁定租约文件: " + file);
+      }
+    }
+  }
+
+  /**
+   * 删除本进程已过期的共享内存段, 以及已退出进程遗留的共享内存段及租约文件,
+   * 由后台定期执行
+   */
+  static void sweep() {
+    long now = System.currentTimeMillis();
+    LEASES.entrySet().removeIf(e -> {
+      if (e.getValue().expireMillis > now) {
+        return false;
+      }
+      delete(e.getKey());
+      return true;
+    });
+
+    Map<String, Boolean> alive = new HashMap<>();
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(DIRECTORY, PREFIX + "*")) {
+      for (Path file : files) {
+        Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches() || matcher.group(1).equals(token)) {
+          continue;
+        }
+        if (!alive.computeIfAbsent(matcher.group(1), SharedMemory::isAlive)) {
+          delete(file.getFileName().toString());
+        }
+      }
+    } catch (IOException | DirectoryIteratorException e) {
+      log.debug("清理遗留的共享内存段失败 --> " + e);
+    }
+  }
+
+  /**
+   * 判断共享内存段所属的进程是否仍然存活, 即是否仍持有其租约文件的文件锁
+   *
+   * @param owner 进程标识
+   * @return {@code false} 若租约文件不存在或其文件锁可被获取, 此时一并删除租约文件
+   */
+  private static boolean isAlive(String owner) {
+    Path file = DIRECTORY.resolve(PREFIX + owner + LOCK_SUFFIX);
+    try (FileChannel channel = FileChannel.open(file,
+        StandardOpenOption.WRITE)) {
+      if (channel.tryLock() == null) {
+        return true;
+      }
+      // 持有文件锁时删除, 以免进程恰好以同一标识创建了新的租约文件
+      Files.deleteIfExists(file);
+      return false;
+    } catch (NoSuchFileException e) {
+      return false;
+    } catch (IOException | OverlappingFileLockException e) {
+      // 无法确定时视为存活
+      return true;
+    }
+  }
+
+  private static void delete(String name) {
+    try {
+      Files.deleteIfExists(DIRECTORY.resolve(name));
+    } catch (IOException e) {
+      log.debug("删除共享内存段 " + name + " 失败 --> " + e);
+    }
+  }
+
+  /**
+   * 共享内存段的租约
+   */
+  private static class Lease {
+
+    /**
+     * 写出该段的连接
+     */
+    private final Channel channel;
+
+    /**
+     * 过期时间, 单位: 毫秒
+     */
+    private final long expireMillis;
+
+    Lease(Channel channel, long expireMillis) {
+      this.channel = channel;
+      this.expireMillis = expireMillis;
+    }
+  }
+}
@@ -0,0 +1,371 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link FrameFormat#BINARY} 格式的数据帧
+ * <p>
+ * 帧头固定为 {@value #HEADER_LENGTH} 字节, 均为大端序:
+ *
+ * <pre>
+ * +----------+--------+---------+------------+------------------+
+ * | 长度 (4) | 类型 (1) | 标志 (1) | 请求 ID (8) | 数据 (长度个字节) |
+ * +----------+--------+---------+------------+------------------+
+ * </pre>
+ *
+ * <ul>
+ *   <li>长度: 帧头之后的数据字节数, 不包括帧头本身</li>
+ *   <li>类型: {@link #KIND_MESSAGE} 或 {@link #KIND_CHUNK}</li>
+ *   <li>标志: {@link #FLAG_HAS_ID} 表示请求 ID 有效, {@link #FLAG_ENCODED}
+ *   表示数据使用握手时协商的编码方式, 否则为 JSON; 其余标志用于流式传输及共享内存传输</li>
+ *   <li>请求 ID: 与 JSON 中的 {@code id} 一致, 无请求 ID 时为 0</li>
+ * </ul>
+ * <p>
+ * 带有 {@link #FLAG_STREAMED} 标志的请求或响应之后, 紧跟着若干相同请求 ID 的
+ * {@link #KIND_CHUNK} 数据帧, 依次为其中流参数或流返回值的数据,
+ * 直到带有 {@link #FLAG_LAST} 或 {@link #FLAG_ABORTED} 标志的数据块为止;
+ * 其间可穿插其他请求或响应的数据帧.
+ * <p>
+ * 带有 {@link #FLAG_SHARED} 标志的数据帧中仅为共享内存段的描述, 由 {@link SharedMemory}
+ * 在发送时写出, 在接收时替换为映射后的数据
+ */
+public class UdsFrame extends DefaultByteBufHolder {
+
+  /**
+   * 帧头的字节数
+   */
+  public static final int HEADER_LENGTH = 14;
+
+  /**
+   * 数据帧类型: 数据为完整的请求或响应 JSON
+   */
+  public static final byte KIND_MESSAGE = 0;
+
+  /**
+   * 数据帧类型: 数据为之前某个请求或响应的流数据中的一块
+   */
+  public static final byte KIND_CHUNK = 1;
+
+  /**
+   * 标志位: 帧头中的请求 ID 有效
+   */
+  public static final byte FLAG_HAS_ID = 1;
+
+  /**
+   * 标志位: 数据使用握手时协商的编码方式, 而非 JSON
+   */
+  public static final byte FLAG_ENCODED = 2;
+
+  /**
+   * 标志位: 请求或响应之后紧跟着流数据的分块数据帧
+   */
+  public static final byte FLAG_STREAMED = 4;
+
+  /**
+   * 标志位: 流数据的最后一块
+   */
+  public static final byte FLAG_LAST = 8;
+
+  /**
+   * 标志位: 发送方读取流数据失败, 已中止传输, 数据块本身为空
+   */
+  public static final byte FLAG_ABORTED = 16;
+
+  /**
+   * 标志位: 数据位于共享内存段中, 数据帧中仅为该段的描述
+   */
+  public static final byte FLAG_SHARED = 32;
+
+  private final byte kind;
+
+  private final byte flags;
+
+  private final long id;
+
+  /**
+   * 数据是否超过允许的最大字节数而已被丢弃, 仅在接收方本地使用, 不会写出
+   */
+  private final boolean oversized;
+
+  /**
+   * 数据无法读取的原因, 仅在接收方本地使用, 不会写出
+   */
+  private final String failure;
+
+  /**
+   * 数据所在的共享内存映射, 数据帧被释放时解除映射, 仅在接收方本地使用
+   */
+  private final ByteBuffer mapped;
+
+  /**
+   * 构造携带完整请求或响应的数据帧
+   *
+   * @param id      请求 ID, 可为 {@code null}
+   * @param content 数据
+   */
+  public UdsFrame(Long id, ByteBuf content) {
+    this(id, content, false);
+  }
+
+  /**
+   * 构造携带完整请求或响应的数据帧
+   *
+   * @param id      请求 ID, 可为 {@code null}
+   * @param content 数据
+   * @param encoded 数据是否使用握手时协商的编码方式
+   */
+  public UdsFrame(Long id, ByteBuf content, boolean encoded) {
+    this(id, content, encoded, false);
+  }
+
+  /**
+   * 构造携带完整请求或响应的数据帧
+   *
+   * @param id       请求 ID, 可为 {@code null}
+   * @param content  数据
+   * @param encoded  数据是否使用握手时协商的编码方式
+   * @param streamed 之后是否紧跟着流数据的分块数据帧
+   */
+  public UdsFrame(Long id, ByteBuf content, boolean encoded,
+      boolean streamed) {
+    this(KIND_MESSAGE, (byte) ((id == null ? 0 : FLAG_HAS_ID) |
+            (encoded ? FLAG_ENCODED : 0) | (streamed ? FLAG_STREAMED : 0)),
+        id == null ? 0 : id, content, false);
+  }
+
+  UdsFrame(byte kind, byte flags, long id, ByteBuf content,
+      boolean oversized) {
+    this(kind, flags, id, content, oversized, null, null);
+  }
+
+  private UdsFrame(byte kind, byte flags, long id, ByteBuf content,
+      boolean oversized, String failure, ByteBuffer mapped) {
+    super(content);
+    this.kind = kind;
+    this.flags = flags;
+    this.id = id;
+    this.oversized = oversized;
+    this.failure = failure;
+    this.mapped = mapped;
+  }
+
+  /**
+   * 构造流数据的分块数据帧
+   *
+   * @param id      所属请求或响应的请求 ID
+   * @param content 数据块
+   * @param last    是否为最后一块
+   * @param aborted 发送方是否已中止传输
+   * @return 分块数据帧
+   */
+  public static UdsFrame chunk(long id, ByteBuf content, boolean last,
+      boolean aborted) {
+    return new UdsFrame(KIND_CHUNK, (byte) (FLAG_HAS_ID |
+        (last ? FLAG_LAST : 0) | (aborted ? FLAG_ABORTED : 0)), id, content,
+        false);
+  }
+
+  /**
+   * 构造数据位于共享内存映射中的数据帧, 数据帧被释放时解除映射
+   *
+   * @param kind   数据帧类型
+   * @param flags  标志
+   * @param id     请求 ID
+   * @param mapped 只读的共享内存映射
+   * @return 数据帧
+   */
+  static UdsFrame mapped(byte kind, byte flags, long id, ByteBuffer mapped) {
+    return new UdsFrame(kind, flags, id, Unpooled.wrappedBuffer(mapped), false,
+        null, mapped);
+  }
+
+  /**
+   * 构造数据无法读取的数据帧, 以便按请求 ID 返回错误而不必断开连接
+   *
+   * @param kind    数据帧类型
+   * @param flags   标志
+   * @param id      请求 ID
+   * @param failure 数据无法读取的原因
+   * @return 数据帧
+   */
+  static UdsFrame failed(byte kind, byte flags, long id, String failure) {
+    return new UdsFrame(kind, flags, id, Unpooled.EMPTY_BUFFER, false, failure,
+        null);
+  }
+
+  public byte getKind() {
+    return kind;
+  }
+
+  public byte getFlags() {
+    return flags;
+  }
+
+  /**
+   * 获取帧头中的请求 ID
+   *
+   * @return 请求 ID, 不存在时为 {@code null}
+   */
+  public Long getId() {
+    return (flags & FLAG_HAS_ID) != 0 ? id : null;
+  }
+
+  /**
+   * 判断数据是否使用握手时协商的编码方式
+   *
+   * @return {@code true} 若使用协商的编码方式, {@code false} 表示为 JSON
+   */
+  public boolean isEncoded() {
+    return (flags & FLAG_ENCODED) != 0;
+  }
+
+  /**
+   * 判断是否为流数据的分块数据帧
+   *
+   * @return {@code true} 若类型为 {@link #KIND_CHUNK}
+   */
+  public boolean isChunk() {
+    return kind == KIND_CHUNK;
+  }
+
+  /**
+   * 判断请求或响应之后是否紧跟着流数据的分块数据帧
+   *
+   * @return {@code true} 若带有 {@link #FLAG_STREAMED} 标志
+   */
+  public boolean isStreamed() {
+    return (flags & FLAG_STREAMED) != 0;
+  }
+
+  /**
+   * 判断是否为流数据的最后一块
+   *
+   * @return {@code true} 若带有 {@link #FLAG_LAST} 标志
+   */
+  public boolean isLast() {
+    return (flags & FLAG_LAST) != 0;
+  }
+
+  /**
+   * 判断发送方是否已中止流数据的传输
+   *
+   * @return {@code true} 若带有 {@link #FLAG_ABORTED} 标志
+   */
+  public boolean isAborted() {
+    return (flags & FLAG_ABORTED) != 0;
+  }
+
+  /**
+   * 判断数据是否超过允许的最大字节数而已被丢弃, 此时 {@link #content()} 为空
+   *
+   * @return {@code true} 若数据已被丢弃
+   */
+  public boolean isOversized() {
+    return oversized;
+  }
+
+  /**
+   * 判断数据是否经由共享内存传输
+   *
+   * @return {@code true} 若带有 {@link #FLAG_SHARED} 标志
+   */
+  public boolean isShared() {
+    return (flags & FLAG_SHARED) != 0;
+  }
+
+  /**
+   * 获取数据无法读取的原因, 如共享内存段已不存在, 此时 {@link #content()} 为空
+   *
+   * @return 数据无法读取的原因, 数据正常时为 {@code null}
+   */
+  public String getFailure() {
+    return failure;
+  }
+
+  /**
+   * 写出帧头
+   *
+   * @param header 用于写出帧头的缓冲区
+   */
+  void writeHeader(ByteBuf header) {
+    header.writeInt(content().readableBytes())
+        .writeByte(kind)
+        .writeByte(flags)
+        .writeLong(id);
+  }
+
+  @Override
+  public UdsFrame replace(ByteBuf content) {
+    return new UdsFrame(kind, flags, id, content, oversized, failure, mapped);
+  }
+
+  /**
+   * 将数据替换为共享内存段的描述, 数据本身由调用方释放
+   *
+   * @param descriptor 共享内存段的描述
+   * @return 带有 {@link #FLAG_SHARED} 标志的数据帧
+   */
+  UdsFrame share(ByteBuf descriptor) {
+    return new UdsFrame(kind, (byte) (flags | FLAG_SHARED), id, descriptor,
+        false);
+  }
+
+  @Override
+  public boolean release() {
+    return unmapIfReleased(super.release());
+  }
+
+  @Override
+  public boolean release(int decrement) {
+    return unmapIfReleased(super.release(decrement));
+  }
+
+  /**
+   * 数据被释放后立即解除共享内存映射, 而非等待垃圾回收, 以便及时回收共享内存
+   *
+   * @param released 数据是否已被释放
+   * @return {@code released}
+   */
+  private boolean unmapIfReleased(boolean released) {
+    if (released && mapped != null) {
+      PlatformDependent.freeDirectBuffer(mapped);
+    }
+    return released;
+  }
+
+  @Override
+  public UdsFrame retain() {
+    super.retain();
+    return this;
+  }
+
+  @Override
+  public UdsFrame retain(int increment) {
+    super.retain(increment);
+    return this;
+  }
+
+  @Override
+  public UdsFrame touch() {
+    super.touch();
+    return this;
+  }
+
+  @Override
+  public UdsFrame touch(Object hint) {
+    super.touch(hint);
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "UdsFrame(kind=" + kind + ", flags=" + flags + ", id=" + getId() +
+        ", length=" + content().readableBytes() + ", oversized=" + oversized +
+        (failure != null ? ", failure=" + failure : "") + ")";
+  }
+}
@@ -33,7 +33,12 @@ public enum InnerParamType {
   /**
    * 列表 ({@code List})
    */
-  LIST("List");
+  LIST("List"),
+
+  /**
+   * 流 ({@code InputStream} 或 {@code ReadableByteChannel}), 数据以分块数据帧传输
+   */
+  STREAM("stream");
 
   private final String value;
 
@@ -13,6 +13,11 @@ public enum InnerReqType {
    */
   CALL_METHOD("callMethod"),
 
+  /**
+   * 批量方法调用, 各方法调用相互独立且并行执行
+   */
+  BATCH_CALL_METHOD("batchCallMethod"),
+
   /**
    * 信号触发 (异步方法调用)
    */
@@ -23,6 +28,11 @@ public enum InnerReqType {
    */
   SIGNAL_SUB("subSignal"),
 
+  /**
+   * 取消信号订阅
+   */
+  SIGNAL_UNSUB("unsubSignal"),
+
   /**
    * 获取地址空间 - 获取可被调用的方法
    */
@@ -36,7 +46,12 @@ public enum InnerReqType {
   /**
    * 获取地址空间 - 获取可被调用的方法, 及可被触发或订阅的信号
    */
-  GET_ALL_METHODS_SIGNALS("getMethodAndSignal");
+  GET_ALL_METHODS_SIGNALS("getMethodAndSignal"),
+
+  /**
+   * 握手 - 协商连接上的数据帧格式, 仅在连接建立后作为首个请求发送
+   */
+  HANDSHAKE("handshake");
 
   private final String value;
 
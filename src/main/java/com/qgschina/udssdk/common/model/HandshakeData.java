@@ -0,0 +1,40 @@
+package com.qgschina.udssdk.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.qgschina.udssdk.common.codec.FrameFormat;
+import lombok.Data;
+
+/**
+ * 握手成功后 Server 返回的协商结果
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class HandshakeData {
+
+  /**
+   * 之后双方使用的数据帧格式, 详见 {@link FrameFormat#value()}
+   */
+  private String framing;
+
+  /**
+   * 之后双方使用的数据编码方式, 仅在数据帧格式为 {@code binary} 时存在, 否则为 JSON
+   */
+  private String codec;
+
+  /**
+   * 之后双方是否以附件形式传输二进制数据, 仅在数据帧格式为 {@code binary} 时存在
+   */
+  private Boolean attachments;
+
+  /**
+   * 之后双方是否以分块数据帧流式传输 {@code InputStream} 等参数及返回值,
+   * 仅在数据帧格式为 {@code binary} 时存在
+   */
+  private Boolean streams;
+
+  /**
+   * 之后双方经由共享内存传输的最小数据字节数, 仅在数据帧格式为 {@code binary}
+   * 且 Server 同样可使用共享内存时存在
+   */
+  private Integer sharedMemory;
+}
@@ -1,5 +1,6 @@
 package com.qgschina.udssdk.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.qgschina.udssdk.common.constant.InnerParamType;
 import com.qgschina.udssdk.common.constant.InnerReqType;
 import java.util.List;
@@ -7,10 +8,20 @@ import lombok.Data;
 
 /**
  * 用于 SDK 内部的 Client 请求参数
+ * <p>
+ * 解析时忽略未知字段, 以便与新增了字段的 Client 互通
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class InnerReqData {
 
+  /**
+   * 请求 ID, 用于在同一连接上匹配请求与响应
+   * <p>
+   * 注意: 该字段可选, 不存在时 Server 端按请求顺序返回响应
+   */
+  private Long id;
+
   /**
    * 请求类型, 详见 {@link InnerReqType#value()}
    */
@@ -26,6 +37,14 @@ public class InnerReqData {
    */
   private String method;
 
+  /**
+   * 请求的截止时间, 即 Unix 时间戳, 单位: 毫秒
+   * <p>
+   * 注意: 该字段可选, Server 端不再执行已超过截止时间的请求
+   * (同一主机上的 Client 与 Server 共享系统时钟)
+   */
+  private Long deadline;
+
   /**
    * 参数数据列表
    */
@@ -35,4 +54,51 @@ public class InnerReqData {
    * 参数类型统一标识列表, 详见 {@link InnerParamType#value()}
    */
   private List<String> parameterTypes;
+
+  /**
+   * 各方法调用的请求数据列表 (仅批量方法调用时才存在)
+   * <p>
+   * 注意: 列表中的请求数据仅需方法名及参数, 无需请求类型及请求 ID
+   */
+  private List<InnerReqData> calls;
+
+  /**
+   * Client 已缓存的地址空间版本号 (仅获取地址空间时才存在)
+   */
+  private String version;
+
+  /**
+   * Client 已收到的最后一条消息推送的序号 (仅断线重连后重新订阅时才存在)
+   */
+  private Long lastSeq;
+
+  /**
+   * {@link #lastSeq} 所属的 Server 启动标识 (仅断线重连后重新订阅时才存在)
+   */
+  private String epoch;
+
+  /**
+   * Client 支持的数据帧格式, 按优先级排列 (仅握手时才存在)
+   */
+  private List<String> framings;
+
+  /**
+   * Client 支持的数据编码方式, 按优先级排列 (仅握手时才存在)
+   */
+  private List<String> codecs;
+
+  /**
+   * Client 是否支持以附件形式传输二进制数据 (仅握手时才存在)
+   */
+  private Boolean attachments;
+
+  /**
+   * Client 是否支持以分块数据帧流式传输参数及返回值 (仅握手时才存在)
+   */
+  private Boolean streams;
+
+  /**
+   * Client 期望经由共享内存传输的最小数据字节数 (仅握手时才存在)
+   */
+  private Integer sharedMemory;
 }
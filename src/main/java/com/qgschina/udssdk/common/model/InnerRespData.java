@@ -1,15 +1,27 @@
 package com.qgschina.udssdk.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.qgschina.udssdk.common.constant.InnerErrorCode;
 import com.qgschina.udssdk.common.constant.InnerSubRespTypeCode;
 import lombok.Data;
 
 /**
  * SDK Server 内部返回数据
+ * <p>
+ * 解析时忽略未知字段, 以便与新增了字段的 Server 互通
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class InnerRespData<T> {
 
+  /**
+   * 对应的请求 ID, 详见 {@link InnerReqData#getId()}
+   * <p>
+   * 注意: 该字段位于首位, 以便 Client 无需解析完整数据即可匹配请求;
+   * 请求中不存在请求 ID 或为消息推送时, 则没有该字段
+   */
+  private Long id;
+
   /**
    * 错误代码, 详见 {@link InnerErrorCode#value()}
    */
@@ -33,4 +45,36 @@ public class InnerRespData<T> {
    * 注意: 方法调用和信号触发都没有该字段
    */
   private String type;
+
+  /**
+   * 信号名, 用于 Client 在同一连接上区分多个信号的订阅响应及消息推送
+   * <p>
+   * 注意: 仅信号订阅的响应及消息推送时才有该字段
+   */
+  private String signal;
+
+  /**
+   * 消息推送的序号, 同一信号的序号从 1 开始连续递增; 订阅响应中则为最近一次消息推送的序号
+   * <p>
+   * 注意: 仅信号订阅的响应及消息推送时才有该字段
+   */
+  private Long seq;
+
+  /**
+   * Server 启动标识, Server 重启后即改变, 此时序号重新从 1 开始
+   * <p>
+   * 注意: 仅信号订阅的响应及消息推送时才有该字段
+   */
+  private String epoch;
+
+  /**
+   * 地址空间的版本号, 注册信息变化后即改变 (仅获取地址空间时才存在)
+   */
+  private String version;
+
+  /**
+   * 地址空间是否与 Client 已缓存的版本一致, 一致时则没有具体的返回结果
+   * (仅获取地址空间时才存在)
+   */
+  private Boolean notModified;
 }
@@ -1,5 +1,6 @@
 package com.qgschina.udssdk.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.util.List;
 import lombok.Data;
 
@@ -7,6 +8,7 @@ import lombok.Data;
  * 获取地址空间返回时的数据结果包装对象
  */
 @Data
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class NamespaceResultData {
 
   /**
@@ -0,0 +1,22 @@
+package com.qgschina.udssdk.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/**
+ * 经由共享内存传输的数据帧中, 代替数据本身写出的共享内存段描述
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SharedSegmentData {
+
+  /**
+   * 共享内存段的文件名, 位于 {@code /dev/shm} 目录下
+   */
+  private String name;
+
+  /**
+   * 共享内存段中的数据字节数
+   */
+  private Long length;
+}
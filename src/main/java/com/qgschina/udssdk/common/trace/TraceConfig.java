@@ -0,0 +1,34 @@
+package com.qgschina.udssdk.common.trace;
+
+import java.util.Collections;
+import java.util.Set;
+import lombok.Data;
+
+/**
+ * 请求追踪配置
+ * <p>
+ * 默认仅记录失败的请求, 正常请求不产生任何日志开销
+ */
+@Data
+public class TraceConfig {
+
+  /**
+   * 采样率, 取值范围为 [0, 1]; 被采样的请求会记录摘要及完整的请求与响应数据
+   */
+  private double sampleRate = 0;
+
+  /**
+   * 记录每次调用摘要的方法名或信号名, 不记录完整数据
+   */
+  private Set<String> methods = Collections.emptySet();
+
+  /**
+   * 是否记录失败请求的摘要及完整的请求与响应数据
+   */
+  private boolean traceErrors = true;
+
+  /**
+   * 记录的请求或响应数据的最大字符数, 超出部分将被截断
+   */
+  private int maxPayloadChars = 4096;
+}
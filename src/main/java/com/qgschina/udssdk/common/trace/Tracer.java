@@ -0,0 +1,154 @@
+package com.qgschina.udssdk.common.trace;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 请求追踪
+ * <p>
+ * 取代对每个数据帧的 Wire Logger 及 Reactor 日志: 仅按配置为部分请求记录单行摘要
+ * (请求类型, 方法名, 请求与响应字节数, 耗时, 结果), 且仅为被采样或失败的请求记录完整数据.
+ * 配置对当前进程中的 Client 及 Server 均生效
+ */
+@Slf4j
+public class Tracer {
+
+  /**
+   * 当前生效的追踪配置
+   */
+  private static volatile TraceConfig config = new TraceConfig();
+
+  private Tracer() {
+  }
+
+  /**
+   * 设置追踪配置, 立即对之后的请求生效
+   *
+   * @param config 追踪配置
+   */
+  public static void setConfig(TraceConfig config) {
+    Tracer.config = config;
+  }
+
+  /**
+   * 获取当前生效的追踪配置
+   *
+   * @return 追踪配置
+   */
+  public static TraceConfig getConfig() {
+    return config;
+  }
+
+  /**
+   * 在请求开始时决定追踪级别
+   *
+   * @param name 方法名或信号名, 可为 {@code null}
+   * @return 追踪级别
+   */
+  public static Level begin(String name) {
+    TraceConfig current = config;
+    if (log.isInfoEnabled()) {
+      double rate = current.getSampleRate();
+      if (rate >= 1 ||
+          (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+        return Level.SAMPLED;
+      }
+
+      if (name != null && current.getMethods().contains(name)) {
+        return Level.SUMMARY;
+      }
+    }
+
+    return current.isTraceErrors() && log.isWarnEnabled() ?
+        Level.ERROR_ONLY : Level.NONE;
+  }
+
+  /**
+   * 在请求完成时记录追踪日志
+   *
+   * @param level      请求开始时决定的追踪级别
+   * @param side       {@code client} 或 {@code server}
+   * @param type       请求类型
+   * @param name       方法名或信号名
+   * @param reqBytes   请求数据帧的字节数
+   * @param reqJson    用于在需要时获取请求 JSON 字符串
+   * @param respBytes  响应数据帧的字节数, 无响应时为 0
+   * @param respJson   用于在需要时获取响应 JSON 字符串, 无响应时为 {@code null}
+   * @param startNanos 请求开始的时间, 即 {@link System#nanoTime()}
+   * @param code       请求结果
+   * @param failed     请求是否失败
+   */
+  public static void end(Level level, String side, String type, String name,
+      int reqBytes, Supplier<String> reqJson, int respBytes,
+      Supplier<String> respJson, long startNanos, String code,
+      boolean failed) {
+    if (level == Level.NONE || (level == Level.ERROR_ONLY && !failed)) {
+      return;
+    }
+
+    long micros =
+        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+
+    StringBuilder sb = new StringBuilder(128)
+        .append(side)
+        .append(" type=").append(type)
+        .append(" name=").append(name)
+        .append(" reqBytes=").append(reqBytes)
+        .append(" respBytes=").append(respBytes)
+        .append(" latencyUs=").append(micros)
+        .append(" code=").append(code);
+
+    if (level == Level.SAMPLED || failed) {
+      int max = config.getMaxPayloadChars();
+      // 仅在此时才生成完整数据的字符串
+      sb.append(" req=").append(truncate(get(reqJson), max))
+          .append(" resp=").append(truncate(get(respJson), max));
+    }
+
+    if (failed) {
+      log.warn(sb.toString());
+    } else {
+      log.info(sb.toString());
+    }
+  }
+
+  private static String get(Supplier<String> supplier) {
+    return supplier == null ? null : supplier.get();
+  }
+
+  private static String truncate(String str, int max) {
+    if (str == null || str.length() <= max) {
+      return str;
+    }
+    return str.substring(0, max) + "...(" + str.length() + " chars)";
+  }
+
+  /**
+   * 追踪级别
+   */
+  public enum Level {
+
+    /**
+     * 不记录
+     */
+    NONE,
+
+    /**
+     * 仅在请求失败时记录
+     */
+    ERROR_ONLY,
+
+    /**
+     * 记录摘要, 失败时同时记录完整数据
+     */
+    SUMMARY,
+
+    /**
+     * 记录摘要及完整数据
+     */
+    SAMPLED
+  }
+}
@@ -1,7 +1,9 @@
 package com.qgschina.udssdk.common.util;
 
 import com.qgschina.udssdk.common.constant.InnerParamType;
+import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -24,6 +26,10 @@ public class DataTypeUtils {
       return Optional.empty();
     }
 
+    if (checkIfStream(obj.getClass())) {
+      return Optional.of(InnerParamType.STREAM.value());
+    }
+
     if (obj instanceof String || checkIfByteArray(obj.getClass())) {
       return Optional.of(InnerParamType.STRING.value());
     }
@@ -63,6 +69,10 @@ public class DataTypeUtils {
       return Optional.empty();
     }
 
+    if (checkIfStream(paramClass)) {
+      return Optional.of(InnerParamType.STREAM.value());
+    }
+
     if (checkIfSameClassName(String.class, paramClass) ||
         checkIfByteArray(paramClass)) {
       return Optional.of(InnerParamType.STRING.value());
@@ -106,6 +116,17 @@ public class DataTypeUtils {
     return Objects.equals("byte[]", clazz.getSimpleName());
   }
 
+  /**
+   * 判断类型是否为以分块数据帧传输的流
+   *
+   * @param clazz 类类型
+   * @return {@code true} 若类型为 {@link InputStream} 或 {@link ReadableByteChannel}
+   */
+  public static boolean checkIfStream(Class<?> clazz) {
+    return InputStream.class.isAssignableFrom(clazz) ||
+        ReadableByteChannel.class.isAssignableFrom(clazz);
+  }
+
   /**
    * 判断类型是数组但不是字节数组
    *
@@ -0,0 +1,65 @@
+package com.qgschina.udssdk.common.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 基于 Jackson 数据格式模块 {@link JsonFactory} 的编码方式,
+ * 如 jackson-dataformat-cbor, jackson-dataformat-smile 及 jackson-dataformat-msgpack
+ */
+public class JacksonPayloadCodec implements PayloadCodec {
+
+  private final String name;
+
+  private final JsonFactory factory;
+
+  /**
+   * @param name    编码方式的名称
+   * @param factory 该数据格式的 {@link JsonFactory}, 线程安全
+   */
+  public JacksonPayloadCodec(String name, JsonFactory factory) {
+    this.name = name;
+    this.factory = factory;
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public JsonGenerator createGenerator(OutputStream out) throws IOException {
+    return factory.createGenerator(out, JsonEncoding.UTF8);
+  }
+
+  @Override
+  public JsonParser createParser(InputStream in) throws IOException {
+    return factory.createParser(in);
+  }
+
+  @Override
+  public void encode(ObjectWriter writer, Object value, OutputStream out)
+      throws IOException {
+    // 仅替换底层的数据格式, 仍复用原序列化对象中缓存的序列化器
+    writer.with(factory).writeValue(out, value);
+  }
+
+  @Override
+  public <T> T decode(ObjectReader reader, InputStream in)
+      throws IOException {
+    return reader.with(factory).readValue(in);
+  }
+
+  @Override
+  public String toString() {
+    return name + "(" + factory.getFormatName() + ")";
+  }
+}
@@ -0,0 +1,218 @@
+package com.qgschina.udssdk.common.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SDK 共用的 JSON 序列化引擎
+ * <p>
+ * 整个进程只使用一个配置好的 {@link ObjectMapper}, 并按类型缓存 {@link ObjectReader} 及
+ * {@link ObjectWriter}, 以复用 Jackson 内部的序列化器及反序列化器缓存.
+ * <p>
+ * 若类路径中存在 Jackson Afterburner 模块, 则自动启用以字节码生成代替反射访问属性;
+ * 也可通过系统属性 {@value #MODULE_PROPERTY} 指定其他加速模块的类名,
+ * 或设为 {@code none} 禁用. 该属性仅在首次使用本类前设置才生效
+ */
+@Slf4j
+public class JsonEngine {
+
+  /**
+   * 指定加速模块的系统属性名
+   */
+  public static final String MODULE_PROPERTY = "udssdk.json.module";
+
+  /**
+   * 未指定加速模块时自动检测的模块
+   */
+  private static final String AFTERBURNER_MODULE =
+      "com.fasterxml.jackson.module.afterburner.AfterburnerModule";
+
+  /**
+   * 已启用的加速模块名, 未启用时为 {@code null}
+   */
+  private static String moduleName;
+
+  /**
+   * 共用的 {@link ObjectMapper}, 创建后不可再修改配置
+   */
+  private static final ObjectMapper MAPPER = createMapper();
+
+  /**
+   * 不指定根类型的序列化对象
+   */
+  private static final ObjectWriter WRITER = MAPPER.writer();
+
+  private static final Map<JavaType, ObjectReader> READERS =
+      new ConcurrentHashMap<>();
+
+  private static final Map<JavaType, ObjectWriter> WRITERS =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 各类型是否可被 JSON 序列化
+   */
+  private static final Map<Class<?>, Boolean> SERIALIZABLE =
+      new ConcurrentHashMap<>();
+
+  private JsonEngine() {
+  }
+
+  /**
+   * 获取共用的 {@link ObjectMapper}
+   * <p>
+   * 注意: 不可修改其配置, 需自定义配置时请使用 {@link #newMapper()}
+   *
+   * @return 共用的 {@link ObjectMapper}
+   */
+  public static ObjectMapper getMapper() {
+    return MAPPER;
+  }
+
+  /**
+   * 复制一个与共用配置一致的 {@link ObjectMapper}, 可自行修改配置
+   *
+   * @return 新的 {@link ObjectMapper}
+   */
+  public static ObjectMapper newMapper() {
+    return MAPPER.copy();
+  }
+
+  /**
+   * 获取已启用的加速模块名
+   *
+   * @return 加速模块名, 未启用时为 {@code null}
+   */
+  public static String getModuleName() {
+    return moduleName;
+  }
+
+  /**
+   * 构造包含泛型信息的类型
+   *
+   * @param type Java 类型
+   * @return Jackson 类型
+   */
+  public static JavaType constructType(Type type) {
+    return MAPPER.getTypeFactory().constructType(type);
+  }
+
+  /**
+   * 获取指定类型的反序列化对象, 同一类型仅构造一次
+   *
+   * @param type 目标类型
+   * @return 反序列化对象
+   */
+  public static ObjectReader reader(Type type) {
+    return reader(constructType(type));
+  }
+
+  /**
+   * 获取指定类型的反序列化对象, 同一类型仅构造一次
+   *
+   * @param type 目标类型
+   * @return 反序列化对象
+   */
+  public static ObjectReader reader(JavaType type) {
+    return READERS.computeIfAbsent(type, MAPPER::readerFor);
+  }
+
+  /**
+   * 获取不指定根类型的序列化对象, 按对象的运行时类型序列化
+   *
+   * @return 序列化对象
+   */
+  public static ObjectWriter writer() {
+    return WRITER;
+  }
+
+  /**
+   * 获取指定根类型的序列化对象, 同一类型仅构造一次
+   *
+   * @param type 根类型
+   * @return 序列化对象
+   */
+  public static ObjectWriter writer(Type type) {
+    return WRITERS.computeIfAbsent(constructType(type), MAPPER::writerFor);
+  }
+
+  /**
+   * 判断该类型是否可被 JSON 序列化, 结果按类型缓存
+   *
+   * @param clazz 对象类类型
+   * @return {@code true} 若该类型可被 JSON 序列化
+   */
+  public static boolean canSerialize(Class<?> clazz) {
+    return SERIALIZABLE.computeIfAbsent(clazz, MAPPER::canSerialize);
+  }
+
+  /**
+   * 预热指定类型的序列化器及反序列化器, 以免首次请求时才构造
+   *
+   * @param types 需预热的类型
+   */
+  public static void warmUp(Type... types) {
+    for (Type type : types) {
+      if (type == void.class || type == Void.class) {
+        continue;
+      }
+
+      try {
+        // 构造时即会预先获取根类型的序列化器及反序列化器
+        reader(type);
+        writer(type);
+      } catch (RuntimeException e) {
+        // 预热失败不影响使用, 首次请求时会得到同样的错误
+        log.debug("JSON 类型预热失败: " + type, e);
+      }
+    }
+  }
+
+  private static ObjectMapper createMapper() {
+    ObjectMapper mapper = new ObjectMapper();
+    mapper.setSerializationInclusion(Include.NON_NULL);
+
+    Module module = loadModule();
+    if (module != null) {
+      mapper.registerModule(module);
+      moduleName = module.getModuleName();
+      log.info("已启用 JSON 加速模块: " + moduleName);
+    }
+
+    return mapper;
+  }
+
+  /**
+   * 按系统属性加载加速模块
+   *
+   * @return 加速模块, 不启用时为 {@code null}
+   */
+  private static Module loadModule() {
+    String name = System.getProperty(MODULE_PROPERTY);
+    if ("none".equalsIgnoreCase(name)) {
+      return null;
+    }
+
+    boolean explicit = name != null && !name.isEmpty();
+    try {
+      Class<?> clazz = Class.forName(explicit ? name : AFTERBURNER_MODULE);
+      return clazz.asSubclass(Module.class).getDeclaredConstructor()
+          .newInstance();
+    } catch (ClassNotFoundException e) {
+      if (explicit) {
+        log.warn("未找到 JSON 加速模块, 将不启用: " + name);
+      }
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      log.warn("无法加载 JSON 加速模块, 将不启用: " + name, e);
+    }
+    return null;
+  }
+}
@@ -1,6 +1,5 @@
 package com.qgschina.udssdk.common.util;
 
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,13 +11,14 @@ public class JsonUtils {
 
   /**
    * 获取配置后的 Jackson 的 {@link ObjectMapper}
+   * <p>
+   * 返回的是共用配置的副本, 可自行修改配置; 仅需序列化或反序列化时请直接使用
+   * {@link JsonEngine} 中已缓存的对象
    *
    * @return 配置后的 {@link ObjectMapper}
    */
   public static ObjectMapper getObjectMapper() {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.setSerializationInclusion(Include.NON_NULL);
-    return mapper;
+    return JsonEngine.newMapper();
   }
 
   /**
@@ -29,7 +29,7 @@ public class JsonUtils {
    * @throws JsonProcessingException JSON 序列化失败
    */
   public static String toJson(Object obj) throws JsonProcessingException {
-    return getObjectMapper().writeValueAsString(obj);
+    return JsonEngine.writer().writeValueAsString(obj);
   }
 
   /**
@@ -43,7 +43,7 @@ public class JsonUtils {
    */
   public static <T> T parseJson(String json, Class<T> clazz)
       throws JsonProcessingException {
-    return getObjectMapper().readValue(json, clazz);
+    return JsonEngine.reader(clazz).readValue(json);
   }
 
   /**
@@ -57,7 +57,7 @@ public class JsonUtils {
    */
   public static <T> T parseJson(String json, TypeReference<T> ref)
       throws JsonProcessingException {
-    return getObjectMapper().readValue(json, ref);
+    return JsonEngine.reader(ref.getType()).readValue(json);
   }
 
   /**
@@ -67,7 +67,6 @@ public class JsonUtils {
    * @return {@code true} 若该对象可被 JSON 序列化
    */
   public static boolean checkIfCanSerialize(Class<?> clazz) {
-    ObjectMapper mapper = new ObjectMapper();
-    return mapper.canSerialize(clazz);
+    return JsonEngine.canSerialize(clazz);
   }
 }
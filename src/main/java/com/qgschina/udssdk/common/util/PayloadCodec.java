@@ -0,0 +1,71 @@
+package com.qgschina.udssdk.common.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 请求及响应数据的编码方式
+ * <p>
+ * 对象与数据之间的转换仍由 {@link JsonEngine} 中缓存的序列化对象完成,
+ * 编码方式仅决定数据的字节表示, 故注解及模块等 Jackson 配置对各编码方式均有效.
+ * <p>
+ * 除内置的编码方式外, 也可实现本接口, 并在
+ * {@code META-INF/services/com.qgschina.udssdk.common.util.PayloadCodec}
+ * 中声明实现类, 由 {@link PayloadCodecs} 通过 {@link java.util.ServiceLoader} 加载.
+ * 实现必须线程安全
+ */
+public interface PayloadCodec {
+
+  /**
+   * 获取编码方式的名称, 握手时用于协商, 不区分大小写
+   *
+   * @return 编码方式的名称
+   */
+  String name();
+
+  /**
+   * 创建写出该编码方式数据的生成器, 用于需逐个处理写出事件的场景 (如二进制附件)
+   *
+   * @param out 输出流
+   * @return 生成器, 由调用方负责关闭
+   * @throws IOException 创建失败
+   */
+  JsonGenerator createGenerator(OutputStream out) throws IOException;
+
+  /**
+   * 创建读取该编码方式数据的解析器, 用于需逐个处理读取事件的场景 (如二进制附件)
+   *
+   * @param in 输入流, 其中恰好为一个完整的数据
+   * @return 解析器, 由调用方负责关闭
+   * @throws IOException 创建失败
+   */
+  JsonParser createParser(InputStream in) throws IOException;
+
+  /**
+   * 将 Java 对象编码后写出
+   *
+   * @param writer 序列化对象
+   * @param value  Java 对象
+   * @param out    输出流, 由调用方负责关闭
+   * @throws IOException 编码失败
+   */
+  void encode(ObjectWriter writer, Object value, OutputStream out)
+      throws IOException;
+
+  /**
+   * 从完整的数据中解码 Java 对象
+   *
+   * @param reader 目标类型的反序列化对象
+   * @param in     输入流, 其中恰好为一个完整的数据, 由调用方负责关闭
+   * @param <T>    Java 对象的具体类型
+   * @return Java 对象
+   * @throws IOException 解码失败
+   */
+  <T> T decode(ObjectReader reader, InputStream in) throws IOException;
+}
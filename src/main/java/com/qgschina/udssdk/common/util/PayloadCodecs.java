@@ -0,0 +1,129 @@
+package com.qgschina.udssdk.common.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * 可用的数据编码方式
+ * <p>
+ * 依次加载以下编码方式, 名称相同时后加载的优先:
+ * <ol>
+ *   <li>{@link #JSON}, 始终可用, 也是未协商时的默认编码方式</li>
+ *   <li>CBOR 编码方式 (jackson-dataformat-cbor), 名称为 {@code cbor}</li>
+ *   <li>类路径中存在的 Jackson 数据格式模块: jackson-dataformat-smile 及
+ *   msgpack-jackson, 名称分别为 {@code smile} 及 {@code msgpack}</li>
+ *   <li>通过 {@link ServiceLoader} 声明的 {@link PayloadCodec} 实现</li>
+ * </ol>
+ */
+@Slf4j
+public class PayloadCodecs {
+
+  /**
+   * JSON 编码方式, 各语言的 SDK 均支持
+   */
+  public static final PayloadCodec JSON =
+      new JacksonPayloadCodec("json", JsonEngine.getMapper().getFactory());
+
+  /**
+   * 按类路径自动检测的 Jackson 数据格式模块, 依次为名称及 {@link JsonFactory} 类名
+   */
+  private static final String[][] JACKSON_FORMATS = {
+      {"smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory"},
+      {"msgpack", "org.msgpack.jackson.dataformat.MessagePackFactory"},
+  };
+
+  /**
+   * 可用的编码方式, Key 为小写的名称
+   */
+  private static final Map<String, PayloadCodec> CODECS = load();
+
+  private PayloadCodecs() {
+  }
+
+  /**
+   * 按名称获取编码方式
+   *
+   * @param name 编码方式的名称, 不区分大小写
+   * @return 编码方式, 不可用时为 {@code null}
+   */
+  public static PayloadCodec get(String name) {
+    return name == null ? null : CODECS.get(name.toLowerCase(Locale.ROOT));
+  }
+
+  /**
+   * 获取所有可用的编码方式的名称
+   *
+   * @return 小写的名称
+   */
+  public static Set<String> names() {
+    return Collections.unmodifiableSet(CODECS.keySet());
+  }
+
+  /**
+   * 按对方给出的优先级选择第一个可用的编码方式
+   *
+   * @param offered 对方支持的编码方式的名称, 按优先级排列, 可为 {@code null}
+   * @return 选择的编码方式, 均不可用时为 {@link #JSON}
+   */
+  public static PayloadCodec negotiate(List<String> offered) {
+    if (offered != null) {
+      for (String name : offered) {
+        PayloadCodec codec = get(name);
+        if (codec != null) {
+          return codec;
+        }
+      }
+    }
+    return JSON;
+  }
+
+  private static Map<String, PayloadCodec> load() {
+    Map<String, PayloadCodec> codecs = new LinkedHashMap<>();
+    register(codecs, JSON);
+    register(codecs, new JacksonPayloadCodec("cbor", new CBORFactory()));
+
+    for (String[] format : JACKSON_FORMATS) {
+      try {
+        JsonFactory factory = Class.forName(format[1])
+            .asSubclass(JsonFactory.class).getDeclaredConstructor()
+            .newInstance();
+        register(codecs, new JacksonPayloadCodec(format[0], factory));
+      } catch (ClassNotFoundException | NoClassDefFoundError e) {
+        // 未引入该模块
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        log.warn("无法加载数据编码模块, 将不启用: " + format[1], e);
+      }
+    }
+
+    try {
+      for (PayloadCodec codec : ServiceLoader.load(PayloadCodec.class)) {
+        register(codecs, codec);
+      }
+    } catch (ServiceConfigurationError e) {
+      log.warn("无法加载自定义的数据编码方式", e);
+    }
+
+    log.debug("可用的数据编码方式: " + codecs.values());
+    return codecs;
+  }
+
+  private static void register(Map<String, PayloadCodec> codecs,
+      PayloadCodec codec) {
+    String name = codec.name().toLowerCase(Locale.ROOT);
+    if (name.equals(JSON.name()) && codec != JSON) {
+      log.warn("JSON 编码方式不可替换, 已忽略: " + codec);
+      return;
+    }
+    codecs.put(name, codec);
+  }
+}
@@ -0,0 +1,78 @@
+package com.qgschina.udssdk.common.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * 预先序列化的值, 用于多次写出的不变数据
+ * <p>
+ * 构造时序列化一次, 写出 JSON 时直接写入已序列化的文本;
+ * 写出 CBOR 等不支持写入原始文本的编码时, 回放已缓存的 JSON 记号,
+ * 均无需再次序列化或解析
+ */
+public class PreEncodedValue implements JsonSerializable {
+
+  /**
+   * 已序列化的 JSON 文本
+   */
+  private final String json;
+
+  /**
+   * 已缓存的 JSON 记号
+   */
+  private final TokenBuffer tokens;
+
+  /**
+   * @param value 需要序列化的值
+   * @throws JsonProcessingException 序列化失败
+   */
+  public PreEncodedValue(Object value) throws JsonProcessingException {
+    json = JsonUtils.toJson(value);
+    tokens = new TokenBuffer(JsonEngine.getMapper(), false);
+    try {
+      JsonEngine.getMapper().writeValue(tokens, value);
+    } catch (JsonProcessingException e) {
+      throw e;
+    } catch (IOException e) {
+      // 写入内存中的记号不会出现 I/O 异常
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void serialize(JsonGenerator gen, SerializerProvider serializers)
+      throws IOException {
+    if (isJson(gen)) {
+      gen.writeRawValue(json);
+    } else {
+      tokens.serialize(gen);
+    }
+  }
+
+  @Override
+  public void serializeWithType(JsonGenerator gen,
+      SerializerProvider serializers, TypeSerializer typeSer)
+      throws IOException {
+    serialize(gen, serializers);
+  }
+
+  @Override
+  public String toString() {
+    return json;
+  }
+
+  private static boolean isJson(JsonGenerator gen) {
+    while (gen instanceof JsonGeneratorDelegate) {
+      gen = ((JsonGeneratorDelegate) gen).delegate();
+    }
+    return gen instanceof JsonGeneratorImpl;
+  }
+}
@@ -1,46 +1,75 @@
 package com.qgschina.udssdk.server;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.qgschina.udssdk.common.codec.AttachmentCodec;
+import com.qgschina.udssdk.common.codec.ChunkReceiver;
+import com.qgschina.udssdk.common.codec.ChunkWriter;
+import com.qgschina.udssdk.common.codec.ChunkedInputStream;
+import com.qgschina.udssdk.common.codec.FrameCodec;
+import com.qgschina.udssdk.common.codec.FrameFormat;
+import com.qgschina.udssdk.common.codec.JsonCodec;
+import com.qgschina.udssdk.common.codec.SharedMemory;
+import com.qgschina.udssdk.common.codec.UdsFrame;
 import com.qgschina.udssdk.common.constant.InnerErrorCode;
 import com.qgschina.udssdk.common.constant.InnerReqType;
 import com.qgschina.udssdk.common.constant.InnerSubRespTypeCode;
 import com.qgschina.udssdk.common.constant.ServiceType;
 import com.qgschina.udssdk.common.exception.*;
+import com.qgschina.udssdk.common.model.HandshakeData;
 import com.qgschina.udssdk.common.model.InnerReqData;
 import com.qgschina.udssdk.common.model.InnerRespData;
 import com.qgschina.udssdk.common.model.NamespaceResultData;
 import com.qgschina.udssdk.common.model.NamespaceResultDataItem;
-import com.qgschina.udssdk.common.util.Base64Utils;
+import com.qgschina.udssdk.common.trace.Tracer;
 import com.qgschina.udssdk.common.util.DataTypeUtils;
+import com.qgschina.udssdk.common.util.JsonEngine;
 import com.qgschina.udssdk.common.util.JsonUtils;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import com.qgschina.udssdk.common.util.PreEncodedValue;
 import com.qgschina.udssdk.common.util.ReflectionUtils;
+import com.qgschina.udssdk.server.annotation.DispatchMode;
 import com.qgschina.udssdk.server.annotation.UdsMethod;
 import com.qgschina.udssdk.server.annotation.UdsService;
 import com.qgschina.udssdk.server.annotation.UdsSignal;
+import com.qgschina.udssdk.server.dispatch.DispatchConfig;
+import com.qgschina.udssdk.server.dispatch.DispatchStats;
+import com.qgschina.udssdk.server.dispatch.Dispatcher;
+import com.qgschina.udssdk.server.dispatch.SignalLanes;
+import com.qgschina.udssdk.server.model.MethodInvoker;
+import com.qgschina.udssdk.server.model.ParamBinder;
 import com.qgschina.udssdk.server.model.SignalMapItem;
+import com.qgschina.udssdk.server.model.SubSignalItem;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelId;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.channel.unix.DomainSocketAddress;
-import io.netty.handler.codec.json.JsonObjectDecoder;
-import io.netty.util.CharsetUtil;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import io.netty.util.concurrent.DefaultEventExecutor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
 import reactor.netty.DisposableChannel;
 import reactor.netty.DisposableServer;
 import reactor.netty.NettyInbound;
 import reactor.netty.tcp.TcpClient;
 import reactor.netty.tcp.TcpServer;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.Closeable;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 /**
  * 用于为 Client 提供服务
@@ -48,6 +77,50 @@ import java.util.concurrent.Executors;
 @Slf4j
 public class Server {
 
+  /**
+   * 本次启动的唯一标识, 用于保证重启后的版本号及消息推送序号不会与重启前混淆
+   */
+  private static final String BOOT_ID =
+      Long.toHexString(System.currentTimeMillis());
+
+  /**
+   * 用于将请求参数绑定为方法参数
+   */
+  private static final ObjectMapper PARAM_MAPPER = JsonEngine.getMapper();
+
+  /**
+   * 用于解析请求, 其中的方法参数保留为 {@link TokenBuffer},
+   * 以便之后由参数绑定器直接绑定为方法参数类型
+   */
+  private static final ObjectReader REQ_READER = PARAM_MAPPER.copy()
+      .addMixIn(InnerReqData.class, ReqDataMixIn.class)
+      .readerFor(InnerReqData.class);
+
+  /**
+   * 信号触发成功的固定响应, 不可修改
+   */
+  private static final InnerRespData<?> SIGNAL_TRIGGERED =
+      constRespData(InnerErrorCode.SUCCESS, "信号触发成功");
+
+  /**
+   * 无返回值的方法调用成功的固定响应, 不可修改
+   */
+  private static final InnerRespData<?> METHOD_RETURNED_VOID =
+      constRespData(InnerErrorCode.SUCCESS, "方法调用成功");
+
+  /**
+   * 预先编码的固定响应, 发送时仅需拼接请求 ID, 无需再次序列化
+   */
+  private static final JsonCodec.PreEncoded SIGNAL_TRIGGERED_FRAME =
+      JsonCodec.preEncode(SIGNAL_TRIGGERED);
+
+  private static final JsonCodec.PreEncoded METHOD_RETURNED_VOID_FRAME =
+      JsonCodec.preEncode(METHOD_RETURNED_VOID);
+
+  private static final JsonCodec.PreEncoded SERIALIZE_FAILED_FRAME =
+      JsonCodec.preEncode(
+          constRespData(InnerErrorCode.ERROR, "SDK 序列化失败"));
+
   /**
    * 用于启动 UDS 服务的 Socket 文件所在路径
    */
@@ -63,25 +136,54 @@ public class Server {
    */
   private static boolean CONFIGURED = false;
 
+  /**
+   * "方法调用"执行线程池及"信号触发"执行通道的配置
+   */
+  private static DispatchConfig DISPATCH_CONFIG = new DispatchConfig();
+
+  /**
+   * 连接上最近一个无请求 ID 的请求的响应写出状态, 用于按请求顺序写出响应
+   */
+  private static final AttributeKey<CompletableFuture<Void>> ORDERED_TAIL =
+      AttributeKey.valueOf("udsOrderedTail");
+
   /**
    * 存储所有能被"方法调用"的方法名, Key 为方法名
    */
-  private final Map<String, SignalMapItem> methodMap = new HashMap<>();
+  private final Map<String, SignalMapItem> methodMap =
+      new ConcurrentHashMap<>();
 
   /**
    * 存储所有能被"信号触发"的信号名 (不包含"信号订阅"), Key 信号名
    */
-  private final Map<String, SignalMapItem> signalMap = new HashMap<>();
+  private final Map<String, SignalMapItem> signalMap =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 用于按方法的执行方式执行"方法调用"
+   */
+  private final Dispatcher dispatcher = new Dispatcher(DISPATCH_CONFIG);
+
+  /**
+   * 用于按信号及分区参数执行信号触发
+   */
+  private final SignalLanes signalLanes = new SignalLanes(DISPATCH_CONFIG);
+
+  /**
+   * 可进行"信号订阅"的 Channel ID 及消息推送状态, Key 为信号名
+   */
+  private final Map<String, SubSignalItem> recipientMap =
+      new ConcurrentHashMap<>();
 
   /**
-   * 用于执行信号触发的线程池
+   * 用于生成注册信息的版本号
    */
-  private final Executor executor = Executors.newSingleThreadExecutor();
+  private final AtomicLong registryVersion = new AtomicLong();
 
   /**
-   * 可进行"信号订阅"的 Channel ID, Key 为信号名
+   * 当前版本注册信息的地址空间缓存, 注册信息变化后即被替换
    */
-  private final Map<String, Set<ChannelId>> recipientMap = new HashMap<>();
+  private volatile NamespaceCache namespaceCache = newNamespaceCache();
 
   /**
    * 可进行"信号订阅"的 Channel 组
@@ -105,17 +207,13 @@ public class Server {
     server = TcpServer.create()
         // Unix Domain Sockets (UDS)
         .bindAddress(() -> new DomainSocketAddress(SOCKET_PATH))
-        // 开启 Wire Logger
-        .wiretap(true)
-        .doOnConnection(conn -> conn
-            // 各语言间数据都是通过 JSON 字符串传递
-            // 默认最大支持 1 MB 字节数
-            .addHandler(new JsonObjectDecoder(1024 * 1024 * MAX_BYTES_MB)))
+        // 各语言间数据都是通过 JSON 字符串传递, 握手后可切换为二进制数据帧
+        // 默认最大支持 1 MB 字节数
+        .doOnConnection(conn -> FrameCodec.install(conn, maxBytes()))
+        // 直接从入栈的数据帧解析请求, 数据帧在 `handleResp` 返回后即被释放
         .handle((in, out) -> in
-            .receive()
-            .asString(CharsetUtil.UTF_8)
-            .log() // 记录 Log
-            .map(jsonReq -> handleResp(in, jsonReq))
+            .receiveObject()
+            .flatMap(msg -> handleResp(in, msg))
             .flatMap(out::sendObject))
         .bindNow();
 
@@ -132,68 +230,352 @@ public class Server {
   /**
    * 处理 Client 的请求
    *
-   * @param in      Netty 入栈
-   * @param jsonReq Client 提交的 JSON 字符串
-   * @return 最终返回给 Client 的 Netty 字节缓冲区
+   * @param in  Netty 入栈
+   * @param msg Client 提交的 JSON 数据帧或 {@link UdsFrame},
+   *            仅在本方法返回前有效
+   * @return 最终返回给 Client 的 Netty 字节缓冲区或 {@link UdsFrame}
    */
-  private ByteBuf handleResp(NettyInbound in, String jsonReq) {
+  private Mono<Object> handleResp(NettyInbound in, Object msg) {
+    long startNanos = System.nanoTime();
+    // 请求以二进制数据帧发送时, 响应也以二进制数据帧及相同的编码方式返回
+    UdsFrame framed = msg instanceof UdsFrame ? (UdsFrame) msg : null;
+    ByteBuf frame = framed != null ? framed.content() : (ByteBuf) msg;
+    PayloadCodec codec = framed != null && framed.isEncoded() ?
+        FrameCodec.getPayloadCodec(channelOf(in)) : PayloadCodecs.JSON;
+    int reqBytes = frame.readableBytes();
+    InnerReqData reqData = null;
+    ChunkedInputStream stream = null;
+
+    // 流参数的数据块交给对应请求的输入流, 不产生响应
+    if (framed != null && framed.isChunk()) {
+      ChunkReceiver.of(channelOf(in)).onChunk(framed);
+      return Mono.empty();
+    }
+
+    Mono<InnerRespData<?>> respData;
     try {
+      if (framed != null && framed.isOversized()) {
+        throw new DataProcessException("接收的数据量过大, 最大允许 "
+            + MAX_BYTES_MB + " MB");
+      }
+      if (framed != null && framed.getFailure() != null) {
+        throw new DataProcessException("接收数据失败: "
+            + framed.getFailure());
+      }
+
       // 获取请求数据对象
-      InnerReqData reqData = parseReqData(jsonReq);
+      reqData = parseReqData(frame, codec);
+
+      // 请求之后紧跟着流参数的数据块, 需在处理下一个数据帧前开始接收
+      if (framed != null && framed.isStreamed() && reqData.getId() != null) {
+        stream = ChunkReceiver.of(channelOf(in)).open(reqData.getId());
+      }
 
       // 内部写死, 用于错误回滚
       if (reqData.getType().equals("error")) {
         throw new UdsSdkException(reqData.getSignal());
       }
 
-      // 若为方法调用, 则直接调用方法, 并返回方法的返回值
-      if (reqData.getType()
-          .equals(InnerReqType.CALL_METHOD.value())) {
-        return callMethod(reqData);
-      }
+      // Client 已放弃等待的请求不再执行, 但仍返回错误响应, 以免按顺序匹配的响应错位
+      checkDeadline(reqData);
 
-      // 若为信号触发, 则在线程池中调用方法, 且不返回方法返回值
-      if (reqData.getType().equals(InnerReqType.SIGNAL.value())) {
-        return triggerSignal(reqData);
+      // 若为批量方法调用, 则按各方法的执行方式调用, 完成后一并返回
+      if (reqData.getType().equals(
+          InnerReqType.BATCH_CALL_METHOD.value())) {
+        respData = Mono.fromFuture(callMethods(in, reqData));
+      } else if (reqData.getType().equals(
+          InnerReqType.CALL_METHOD.value())) {
+        // 按方法的执行方式在事件循环线程或工作线程中调用方法
+        respData = Mono.fromFuture(dispatchMethod(in, reqData, stream));
+      } else {
+        // 信号订阅成功时已直接写出响应
+        respData = Mono.justOrEmpty(dispatch(in, reqData));
       }
+    } catch (Exception e) {
+      respData = Mono.just(genErrorRespData(e));
+    }
 
-      // 若为信号订阅, 则加入订阅组, 并返回订阅成功的消息
-      if (reqData.getType().equals(
-          InnerReqType.SIGNAL_SUB.value())) {
-        return addRecipient(in, reqData);
+    // 方法返回后不再读取流参数, 之后收到的数据块均被丢弃
+    if (stream != null) {
+      ChunkedInputStream opened = stream;
+      respData = respData.doFinally(signal -> opened.close());
+    }
+
+    // 返回请求 ID, 以便 Client 在同一连接上匹配请求与响应
+    Long id = reqData != null ? reqData.getId() :
+        framed != null ? framed.getId() : JsonCodec.peekLong(frame, "id");
+
+    String type = reqData == null ? null : reqData.getType();
+    String name = reqData == null ? null :
+        reqData.getMethod() != null ? reqData.getMethod() : reqData.getSignal();
+    Tracer.Level traceLevel = Tracer.begin(name);
+
+    // 数据帧在本方法返回后即被释放, 故仅在记录追踪日志时才按需生成请求的字符串
+    Supplier<String> reqJson;
+    if (traceLevel == Tracer.Level.NONE) {
+      reqJson = null;
+    } else if (reqData == null) {
+      String raw = JsonCodec.toString(frame, codec);
+      reqJson = () -> raw;
+    } else {
+      InnerReqData parsed = reqData;
+      reqJson = () -> toTraceJson(parsed);
+    }
+
+    // 响应中没有请求 ID 时 Client 按发送顺序匹配响应, 故需按请求顺序写出
+    CompletableFuture<Void> written = null;
+    if (id == null) {
+      Attribute<CompletableFuture<Void>> tail =
+          channelOf(in).attr(ORDERED_TAIL);
+      CompletableFuture<Void> previous = tail.get();
+      written = new CompletableFuture<>();
+      tail.set(written);
+      if (previous != null) {
+        respData = respData.delayUntil(resp -> Mono.fromFuture(previous));
       }
+    }
 
-      // 获取地址空间 - 获取可被调用的方法
-      if (reqData.getType().equals(
-          InnerReqType.GET_ALL_METHODS.value())) {
-        return getAllMethods();
+    Mono<Object> result = respData.flatMap(resp -> {
+      // 流返回值不随响应编码, 而是在响应之后以分块数据帧写出
+      Object source = takeStreamSource(in, framed, id, resp);
+      if (source != null) {
+        resp = genRespData(InnerErrorCode.SUCCESS, resp.getMsg(), null, null);
       }
 
-      // 获取地址空间 - 获取可被触发或订阅的信号
-      if (reqData.getType().equals(
-          InnerReqType.GET_ALL_SIGNALS.value())) {
-        return getAllSignals();
+      // 固定响应不含二进制数据, 附件编码方式下仍可直接使用预先编码的 JSON 数据帧
+      PayloadCodec respCodec = isFixed(resp) &&
+          AttachmentCodec.unwrap(codec) == PayloadCodecs.JSON ?
+          PayloadCodecs.JSON : codec;
+      ByteBuf buf = encodeResp(id, resp, respCodec);
+
+      boolean failed = resp.getCode() != InnerErrorCode.SUCCESS.value();
+      Tracer.end(traceLevel, "server", type, name, reqBytes, reqJson,
+          buf.readableBytes(), () -> JsonCodec.toString(buf, respCodec),
+          startNanos, failed ? "ERROR" : "SUCCESS", failed);
+
+      if (source == null) {
+        return Mono.just(framed != null ?
+            new UdsFrame(id, buf, respCodec != PayloadCodecs.JSON) : buf);
       }
 
-      // 获取地址空间 - 获取可被调用的方法, 及可被触发或订阅的信号
-      if (reqData.getType().equals(
-          InnerReqType.GET_ALL_METHODS_SIGNALS.value())) {
-        return getAllMethodsAndSignals();
+      // 直接写出响应, 写出后再开始写出数据块, 以保证数据块位于响应之后
+      Channel channel = channelOf(in);
+      channel.writeAndFlush(new UdsFrame(id, buf,
+          respCodec != PayloadCodecs.JSON, true)).addListener(f -> {
+        if (f.isSuccess()) {
+          ChunkWriter.write(channel, id, source, () -> !channel.isActive());
+        } else {
+          closeQuietly(source);
+        }
+      });
+      return Mono.empty();
+    });
+
+    if (written == null) {
+      return result;
+    }
+    CompletableFuture<Void> done = written;
+    return result.doFinally(signal -> done.complete(null));
+  }
+
+  /**
+   * 取出响应中的流返回值
+   * <p>
+   * 连接未协商流式传输时 (如其他语言的 Client) 关闭流返回值, 并将响应改为错误响应
+   *
+   * @param in     Netty 入栈
+   * @param framed 请求的二进制数据帧, JSON 数据帧时为 {@code null}
+   * @param id     请求 ID
+   * @param resp   Server 的响应对象
+   * @return 流返回值, 不存在或无法流式传输时为 {@code null}
+   */
+  private Object takeStreamSource(NettyInbound in, UdsFrame framed, Long id,
+      InnerRespData<?> resp) {
+    Object source = resp.getData();
+    if (!ChunkWriter.isSource(source)) {
+      return null;
+    }
+
+    if (framed == null || id == null ||
+        !FrameCodec.isStreaming(channelOf(in))) {
+      closeQuietly(source);
+      resp.setData(null);
+      resp.setCode(InnerErrorCode.ERROR.value());
+      resp.setMsg("Client 不支持流式传输的返回值");
+      return null;
+    }
+    return source;
+  }
+
+  /**
+   * 关闭流参数或流返回值
+   *
+   * @param source {@code InputStream} 或 {@code ReadableByteChannel}
+   */
+  private static void closeQuietly(Object source) {
+    try {
+      ((Closeable) source).close();
+    } catch (IOException e) {
+      log.warn("关闭数据流失败", e);
+    }
+  }
+
+  /**
+   * 按方法的执行方式调用方法
+   *
+   * @param in      Netty 入栈
+   * @param reqData 请求数据对象
+   * @param stream  由请求之后的分块数据帧填充的流参数, 可为 {@code null}
+   * @return Server 的响应对象, 在连接自身的事件循环线程中完成
+   */
+  private CompletableFuture<InnerRespData<?>> dispatchMethod(NettyInbound in,
+      InnerReqData reqData, ChunkedInputStream stream) {
+    SignalMapItem item = methodMap.get(reqData.getMethod());
+    if (item == null) {
+      throw new ParamException("方法名不存在");
+    }
+
+    return dispatchMethod(in, reqData, stream, item.getDispatchMode());
+  }
+
+  /**
+   * 按指定的执行方式调用方法
+   *
+   * @param in      Netty 入栈
+   * @param reqData 请求数据对象
+   * @param stream  由请求之后的分块数据帧填充的流参数, 可为 {@code null}
+   * @param mode    执行方式
+   * @return Server 的响应对象, 在连接自身的事件循环线程中完成
+   */
+  private CompletableFuture<InnerRespData<?>> dispatchMethod(NettyInbound in,
+      InnerReqData reqData, ChunkedInputStream stream, DispatchMode mode) {
+    return dispatcher.<InnerRespData<?>>submit(reqData.getMethod(), mode,
+        () -> {
+          try {
+            return callMethod(reqData, stream);
+          } catch (Exception e) {
+            return genErrorRespData(e);
+          }
+        }, channelOf(in).eventLoop())
+        .exceptionally(thr -> genErrorRespData(thr instanceof Exception ?
+            (Exception) thr : new UdsSdkException(thr.toString(), thr)));
+  }
+
+  /**
+   * 获取入栈对应的 Channel
+   *
+   * @param in Netty 入栈
+   * @return Channel
+   */
+  private static Channel channelOf(NettyInbound in) {
+    Channel[] channel = new Channel[1];
+    in.withConnection(conn -> channel[0] = conn.channel());
+    return channel[0];
+  }
+
+  /**
+   * 编码带有请求 ID 的响应
+   *
+   * @param id    请求 ID, 可为 {@code null}
+   * @param resp  Server 的响应对象
+   * @param codec 数据编码方式
+   * @return Netty 字节缓冲区
+   */
+  private ByteBuf encodeResp(Long id, InnerRespData<?> resp,
+      PayloadCodec codec) {
+    // 固定响应不可修改其请求 ID, JSON 编码时直接使用预先编码的数据帧
+    if (isFixed(resp)) {
+      if (codec == PayloadCodecs.JSON) {
+        return resp == SIGNAL_TRIGGERED ?
+            SIGNAL_TRIGGERED_FRAME.withId(id) :
+            METHOD_RETURNED_VOID_FRAME.withId(id);
       }
+      resp = genRespData(InnerErrorCode.SUCCESS, resp.getMsg(), null, null);
+    }
 
-      // 其他请求类型, 直接拒绝
-      return genHandledByteBuf(genRespData(InnerErrorCode.ERROR,
-          "请求类型错误", null, null));
-    } catch (UdsSdkException e) {
+    resp.setId(id);
+    return genHandledByteBuf(resp, codec);
+  }
+
+  /**
+   * 判断是否为预先编码的固定响应
+   *
+   * @param resp Server 的响应对象
+   * @return {@code true} 若为固定响应
+   */
+  private static boolean isFixed(InnerRespData<?> resp) {
+    return resp == SIGNAL_TRIGGERED || resp == METHOD_RETURNED_VOID;
+  }
+
+  /**
+   * 构造请求处理失败时的响应对象
+   *
+   * @param e 请求处理过程中捕获的异常
+   * @return Server 的响应对象
+   */
+  private InnerRespData<?> genErrorRespData(Exception e) {
+    if (e instanceof UdsSdkException) {
       log.warn("返回给 Client 的错误消息 --> " + e.getMessage());
-      return genHandledByteBuf(genRespData(InnerErrorCode.ERROR,
-          e.getMessage(), null, null));
-    } catch (Exception e) {
-      log.error("SDK Server 内部异常", e);
-      return genHandledByteBuf(genRespData(InnerErrorCode.ERROR,
-          "SDK Server 端内部异常: " + e.getMessage(),
-          null, null));
+      return genRespData(InnerErrorCode.ERROR, e.getMessage(), null, null);
     }
+
+    log.error("SDK Server 内部异常", e);
+    return genRespData(InnerErrorCode.ERROR,
+        "SDK Server 端内部异常: " + e.getMessage(), null, null);
+  }
+
+  /**
+   * 根据请求类型分发请求
+   *
+   * @param in      Netty 入栈
+   * @param reqData 请求数据对象
+   * @return Server 的响应对象
+   * @throws Exception 方法执行失败
+   */
+  private InnerRespData<?> dispatch(NettyInbound in, InnerReqData reqData)
+      throws Exception {
+    // 若为信号触发, 则在线程池中调用方法, 且不返回方法返回值
+    if (reqData.getType().equals(InnerReqType.SIGNAL.value())) {
+      return triggerSignal(reqData);
+    }
+
+    // 若为信号订阅, 则加入订阅组, 并返回订阅成功的消息
+    if (reqData.getType().equals(
+        InnerReqType.SIGNAL_SUB.value())) {
+      return addRecipient(in, reqData);
+    }
+
+    // 若为取消信号订阅, 则移出订阅组, 并返回取消订阅成功的消息
+    if (reqData.getType().equals(
+        InnerReqType.SIGNAL_UNSUB.value())) {
+      return removeRecipient(in, reqData);
+    }
+
+    // 获取地址空间 - 获取可被调用的方法
+    if (reqData.getType().equals(
+        InnerReqType.GET_ALL_METHODS.value())) {
+      return getAllMethods(reqData);
+    }
+
+    // 获取地址空间 - 获取可被触发或订阅的信号
+    if (reqData.getType().equals(
+        InnerReqType.GET_ALL_SIGNALS.value())) {
+      return getAllSignals(reqData);
+    }
+
+    // 获取地址空间 - 获取可被调用的方法, 及可被触发或订阅的信号
+    if (reqData.getType().equals(
+        InnerReqType.GET_ALL_METHODS_SIGNALS.value())) {
+      return getAllMethodsAndSignals(reqData);
+    }
+
+    // 握手, 协商连接上的数据帧格式
+    if (reqData.getType().equals(InnerReqType.HANDSHAKE.value())) {
+      return handshake(in, reqData);
+    }
+
+    // 其他请求类型, 直接拒绝
+    return genRespData(InnerErrorCode.ERROR, "请求类型错误", null, null);
   }
 
   private static class SingletonHelper {
@@ -214,6 +596,44 @@ public class Server {
     SOCKET_PATH = type.value() + "." + namespace;
     MAX_BYTES_MB = maxBytesMb;
     CONFIGURED = true;
+
+    // 预热 SDK 内部数据的序列化器, 以免首个请求时才构造
+    JsonEngine.warmUp(InnerRespData.class, NamespaceResultData.class);
+  }
+
+  /**
+   * 初始化 Server 配置, 作为命名空间的某个副本启动
+   * <p>
+   * 同一命名空间可由多个 Server 进程以不同的副本序号同时提供服务,
+   * Client 会自动发现所有副本并在副本间进行负载均衡
+   * <p>
+   * 注意: 该方法只会在 {@link Server#getInstance()} 前生效一次;
+   * 各副本的注册信息应保持一致, 且消息推送仅送达连接该副本的订阅者
+   *
+   * @param type         服务类型
+   * @param namespace    服务子命名空间
+   * @param maxBytesMb   允许数据传输的最大字节数, 单位: MB
+   * @param replicaIndex 副本序号, 从 0 开始
+   */
+  public static void init(ServiceType type, String namespace, int maxBytesMb,
+      int replicaIndex) {
+    if (replicaIndex < 0) {
+      throw new ConfigException("副本序号不能小于 0");
+    }
+
+    init(type, namespace, maxBytesMb);
+    SOCKET_PATH = SOCKET_PATH + "." + replicaIndex;
+  }
+
+  /**
+   * 设置"方法调用"执行线程池及"信号触发"执行通道的配置
+   * <p>
+   * 注意: 该方法只会在 {@link Server#getInstance()} 前生效
+   *
+   * @param config 执行配置
+   */
+  public static void setDispatchConfig(DispatchConfig config) {
+    DISPATCH_CONFIG = config;
   }
 
   /**
@@ -251,6 +671,8 @@ public class Server {
 
     // 将打上了 `UdsMethod` 和 `UdsSignal` 注解的方法加入到 Map 中
     addMethodAndSignalMap(service);
+
+    namespaceCache = newNamespaceCache();
   }
 
   /**
@@ -264,11 +686,25 @@ public class Server {
    * @param signal 注册为信号订阅的信号名
    */
   public void registerSubSignal(String signal) {
+    registerSubSignal(signal, 0);
+  }
+
+  /**
+   * 注册信号订阅, 并保留最近推送的消息
+   * <p>
+   * Client 断线重连后重新订阅时, 会补发其未收到的已保留消息
+   *
+   * @param signal     注册为信号订阅的信号名
+   * @param replaySize 最多保留的最近推送消息数, 为 0 时不保留
+   */
+  public void registerSubSignal(String signal, int replaySize) {
     if (recipientMap.containsKey(signal)) {
       throw new RegisterException("存在同名的信号订阅: " + signal);
     }
 
-    recipientMap.put(signal, new HashSet<>());
+    recipientMap.put(signal, new SubSignalItem(replaySize));
+
+    namespaceCache = newNamespaceCache();
   }
 
   /**
@@ -282,7 +718,8 @@ public class Server {
    * @param data   推送给 Client 的数据
    */
   public void send(String signal, Object data) {
-    if (!recipientMap.containsKey(signal)) {
+    SubSignalItem item = recipientMap.get(signal);
+    if (item == null) {
       throw new RegisterException("未注册信号: " + signal);
     }
 
@@ -292,25 +729,68 @@ public class Server {
 
     InnerRespData<Object> respData = genRespData(InnerErrorCode.SUCCESS,
         "消息推送", InnerSubRespTypeCode.SUB_DATA, data);
+    // 标记信号名, 以便 Client 在同一连接上订阅多个信号
+    respData.setSignal(signal);
+    respData.setEpoch(BOOT_ID);
 
-    String jsonReq;
-    try {
-      jsonReq = JsonUtils.toJson(respData);
-    } catch (JsonProcessingException e) {
-      throw new DataProcessException("SDK 序列化失败", e);
+    // 加锁以保证序号与推送顺序一致, 且不会与新加入的订阅者的补发消息交错
+    synchronized (item) {
+      long seq = item.nextSeq();
+      respData.setSeq(seq);
+
+      // 仅编码一次, 各连接及补发均写出共享数据的副本
+      ByteBuf frame;
+      try {
+        frame = JsonCodec.encode(respData);
+      } catch (JsonProcessingException e) {
+        throw new DataProcessException("SDK 序列化失败", e);
+      }
+
+      // 各连接的编码器按其协商的数据帧格式写出
+      recipients.writeAndFlush(new UdsFrame(null, frame.retainedDuplicate()),
+          channel -> item.getRecipients().contains(channel.id()));
+      item.addReplay(seq, frame);
     }
+  }
+
+  /**
+   * 获取某个"方法调用"的执行统计, 包括排队时间及执行时间
+   *
+   * @param method 方法名
+   * @return 执行统计, 方法从未被调用时为 {@code null}
+   */
+  public DispatchStats getDispatchStats(String method) {
+    return dispatcher.getStats(method);
+  }
 
-    recipients.writeAndFlush(Unpooled.copiedBuffer(jsonReq, CharsetUtil.UTF_8),
-        channel -> recipientMap.get(signal).contains(channel.id()));
+  /**
+   * 获取某个"信号触发"的执行统计, 包括排队时间, 执行时间及被拒绝或丢弃的次数
+   *
+   * @param signal 信号名
+   * @return 执行统计, 信号未注册时为 {@code null}
+   */
+  public DispatchStats getSignalStats(String signal) {
+    return signalLanes.getStats(signal);
   }
 
   /**
-   * 关闭服务
+   * 关闭服务, 并关闭执行方法调用及信号触发的线程池, 已提交的方法及信号触发仍会执行完毕
    * <p>
    * 注意: 通常 Server 都不是通过自身程序关闭的, 故执行本方法并不会关闭 JVM
    */
   public void stop() {
     server.disposeNow();
+    dispatcher.shutdown();
+    signalLanes.shutdown();
+  }
+
+  /**
+   * 获取允许接收的最大字节数
+   *
+   * @return 最大字节数
+   */
+  private static int maxBytes() {
+    return 1024 * 1024 * MAX_BYTES_MB;
   }
 
   /**
@@ -356,6 +836,21 @@ public class Server {
     return respData;
   }
 
+  /**
+   * 构造固定响应对象
+   *
+   * @param error 内部错误码
+   * @param msg   提示消息
+   * @return 响应对象
+   */
+  private static InnerRespData<?> constRespData(InnerErrorCode error,
+      String msg) {
+    InnerRespData<Object> respData = new InnerRespData<>();
+    respData.setCode(error.value());
+    respData.setMsg(msg);
+    return respData;
+  }
+
   /**
    * 构造 Netty 字节缓冲区
    *
@@ -363,206 +858,427 @@ public class Server {
    * @return Netty 字节缓冲区
    */
   private ByteBuf genHandledByteBuf(InnerRespData<?> response) {
-    return Unpooled.copiedBuffer(toJson(response), CharsetUtil.UTF_8);
+    return genHandledByteBuf(response, PayloadCodecs.JSON);
   }
 
   /**
-   * JSON 序列化+异常处理
+   * 按指定的编码方式构造 Netty 字节缓冲区
    *
-   * @param obj 需要被序列化的对象
-   * @return JSON 字符串
+   * @param response Server 的响应对象
+   * @param codec    数据编码方式
+   * @return Netty 字节缓冲区
    */
-  private String toJson(Object obj) {
+  private ByteBuf genHandledByteBuf(InnerRespData<?> response,
+      PayloadCodec codec) {
     try {
-      return JsonUtils.toJson(obj);
-    } catch (JsonProcessingException e) {
+      return JsonCodec.encode(response, codec);
+    } catch (JsonProcessingException | RuntimeException e) {
       log.error("SDK 序列化失败", e);
-      InnerRespData<Object> respData = genRespData(InnerErrorCode.ERROR,
-          "SDK 序列化失败", null, null);
+    }
 
+    if (codec != PayloadCodecs.JSON) {
+      InnerRespData<?> failed =
+          genRespData(InnerErrorCode.ERROR, "SDK 序列化失败", null, null);
+      failed.setId(response.getId());
       try {
-        return JsonUtils.toJson(respData);
-      } catch (JsonProcessingException e1) {
-        log.error("SDK 内部数据序列化错误", e1);
-        return "SDK 内部数据序列化错误";
+        return JsonCodec.encode(failed, codec);
+      } catch (JsonProcessingException | RuntimeException e) {
+        log.error("SDK 序列化失败", e);
       }
     }
+    return SERIALIZE_FAILED_FRAME.withId(response.getId());
+  }
+
+  /**
+   * 生成追踪日志中的请求 JSON 字符串
+   *
+   * @param reqData 请求数据对象
+   * @return JSON 字符串
+   */
+  private String toTraceJson(InnerReqData reqData) {
+    try {
+      return JsonUtils.toJson(reqData);
+    } catch (JsonProcessingException e) {
+      return "SDK 序列化失败: " + e.getMessage();
+    }
   }
 
   /**
-   * 解析请求的 JSON 字符串
+   * 从请求的数据帧中流式解析请求
    *
-   * @param json JSON 字符串
-   * @return JSON 反序列化后的请求数据对象
-   * @throws JsonProcessingException JSON 反序列化失败
+   * @param frame 数据帧
+   * @param codec 数据编码方式
+   * @return 反序列化后的请求数据对象
+   * @throws IOException 反序列化失败
+   */
+  private InnerReqData parseReqData(ByteBuf frame, PayloadCodec codec)
+      throws IOException {
+    return JsonCodec.decode(frame, codec, REQ_READER);
+  }
+
+  /**
+   * 检查请求是否已超过 Client 指定的截止时间
+   *
+   * @param reqData 请求数据对象
+   * @throws UdsSdkException 请求已超过截止时间
    */
-  private InnerReqData parseReqData(String json)
-      throws JsonProcessingException {
-    return JsonUtils.parseJson(json, InnerReqData.class);
+  private void checkDeadline(InnerReqData reqData) {
+    Long deadline = reqData.getDeadline();
+    if (deadline != null && System.currentTimeMillis() >= deadline) {
+      throw new UdsSdkException("请求已超过截止时间, 不再执行");
+    }
   }
 
   /**
    * 执行方法调用
    *
    * @param reqData 请求数据对象
-   * @return Netty 节点缓冲区
-   * @throws InvocationTargetException 通过反射调用方法失败
-   * @throws IllegalAccessException    通过反射调用方法失败
+   * @param stream  由请求之后的分块数据帧填充的流参数, 可为 {@code null}
+   * @return Server 的响应对象, 方法返回流时其数据即为该流
+   * @throws Exception 方法执行失败
    */
-  private ByteBuf callMethod(InnerReqData reqData)
-      throws InvocationTargetException, IllegalAccessException {
+  private InnerRespData<?> callMethod(InnerReqData reqData,
+      ChunkedInputStream stream) throws Exception {
     if (!methodMap.containsKey(reqData.getMethod())) {
       throw new ParamException("方法名不存在");
     }
 
-    Object result = invokeMethod(reqData, InvokeMethodType.METHOD);
+    // 请求可能在线程池中排队, 故执行前需再次检查截止时间
+    checkDeadline(reqData);
+    Object result = invokeMethod(reqData, stream);
+    if (result == null) {
+      return METHOD_RETURNED_VOID;
+    }
+
+    return genRespData(InnerErrorCode.SUCCESS,
+        "方法调用成功", null, result);
+  }
+
+  /**
+   * 执行批量方法调用
+   * <p>
+   * 各方法调用相互独立且并行执行, 各自返回成功或失败;
+   * 执行方式为 {@link DispatchMode#INLINE} 的方法改为在线程池中执行,
+   * 以免整个批量在事件循环线程中逐个执行并阻塞该线程上的其他连接
+   *
+   * @param in      Netty 入栈
+   * @param reqData 请求数据对象
+   * @return Server 的响应对象, 具体数据为各方法调用的响应对象列表
+   */
+  private CompletableFuture<InnerRespData<?>> callMethods(NettyInbound in,
+      InnerReqData reqData) {
+    List<InnerReqData> calls = reqData.getCalls();
+    if (calls == null || calls.isEmpty()) {
+      throw new ParamException("批量方法调用列表不能为空");
+    }
+
+    List<CompletableFuture<InnerRespData<?>>> futures = new ArrayList<>();
+    for (InnerReqData call : calls) {
+      // 批量中的各方法调用共享整个批量请求的截止时间
+      call.setDeadline(reqData.getDeadline());
+      CompletableFuture<InnerRespData<?>> future;
+      try {
+        // 批量请求之后没有流参数的数据块
+        SignalMapItem item = methodMap.get(call.getMethod());
+        if (item == null) {
+          throw new ParamException("方法名不存在");
+        }
+        if (item.getBinder().hasStreamParam()) {
+          throw new ParamException("批量方法调用不支持带有流参数的方法");
+        }
 
-    return genHandledByteBuf(genRespData(InnerErrorCode.SUCCESS,
-        "方法调用成功", null, result));
+        DispatchMode mode = item.getDispatchMode();
+        future = dispatchMethod(in, call, null,
+            mode == DispatchMode.INLINE ? DispatchMode.POOL : mode);
+      } catch (Exception e) {
+        future = CompletableFuture.completedFuture(genErrorRespData(e));
+      }
+      futures.add(future);
+    }
+
+    return CompletableFuture
+        .allOf(futures.toArray(new CompletableFuture<?>[0]))
+        .thenApply(ignore -> {
+          List<InnerRespData<?>> results = new ArrayList<>();
+          for (CompletableFuture<InnerRespData<?>> future : futures) {
+            InnerRespData<?> result = future.join();
+            // 批量响应只有一个数据帧, 无法携带流返回值
+            if (ChunkWriter.isSource(result.getData())) {
+              closeQuietly(result.getData());
+              result = genRespData(InnerErrorCode.ERROR,
+                  "批量方法调用不支持流式返回值", null, null);
+            }
+            results.add(result);
+          }
+
+          return genRespData(InnerErrorCode.SUCCESS,
+              "批量方法调用完成", null, results);
+        });
   }
 
   /**
    * 执行信号触发 (异步调用方法)
    *
    * @param reqData 请求数据对象
-   * @return Netty 字节缓冲区
+   * @return Server 的响应对象
    */
-  private ByteBuf triggerSignal(InnerReqData reqData) {
-    if (!signalMap.containsKey(reqData.getSignal())) {
+  private InnerRespData<?> triggerSignal(InnerReqData reqData) {
+    SignalMapItem item = signalMap.get(reqData.getSignal());
+    if (item == null) {
       throw new ParamException("信号名不存在");
     }
 
-    executor.execute(() -> {
+    // 先绑定参数, 以取得分区参数值
+    Object[] args = item.getBinder().bind(reqData.getData());
+    Object key = item.getKeyParam() < 0 ? null : args[item.getKeyParam()];
+
+    signalLanes.submit(reqData.getSignal(), key, () -> {
       try {
-        invokeMethod(reqData, InvokeMethodType.SIGNAL);
-      } catch (InvocationTargetException | IllegalAccessException e) {
-        log.error("反射调用方法失败", e);
+        item.getInvoker().invoke(args);
+      } catch (Exception e) {
+        log.error("信号触发的方法执行失败: " + reqData.getSignal(), e);
       }
     });
 
-    return genHandledByteBuf(genRespData(InnerErrorCode.SUCCESS,
-        "信号触发成功", null, null));
+    return SIGNAL_TRIGGERED;
   }
 
   /**
-   * 利用反射机制调用某个对象的某个方法
+   * 调用"方法调用"对应的服务对象的方法
+   * <p>
+   * 信号触发在绑定参数后直接提交到 {@link SignalLanes}, 不经过本方法
    *
    * @param reqData 请求数据
-   * @param type    方法调用类型
+   * @param stream  由请求之后的分块数据帧填充的流参数, 可为 {@code null}
    * @return 方法调用成功后的返回结果
-   * @throws InvocationTargetException 通过反射调用方法失败
-   * @throws IllegalAccessException    通过反射调用方法失败
+   * @throws Exception 方法执行失败
    */
-  private Object invokeMethod(InnerReqData reqData, InvokeMethodType type)
-      throws InvocationTargetException, IllegalAccessException {
-    List<Object> params = reqData.getData();
+  private Object invokeMethod(InnerReqData reqData,
+      ChunkedInputStream stream) throws Exception {
+    SignalMapItem item = methodMap.get(reqData.getMethod());
 
-    SignalMapItem item;
-    if (type == InvokeMethodType.METHOD) {
-      // 方法调用
-      item = methodMap.get(reqData.getMethod());
-    } else if (type == InvokeMethodType.SIGNAL) {
-      // 信号触发
-      item = signalMap.get(reqData.getSignal());
-    } else {
-      throw new ParamException("SDK 内部方法调用类型错误");
-    }
+    // 由预先生成的参数绑定器将请求参数直接转为方法参数类型
+    return item.getInvoker().invoke(
+        item.getBinder().bind(reqData.getData(), stream));
+  }
 
-    Method method = item.getMethod();
-    // `byte[]` 数据是以 Base64 字符串的形式传输,
-    // 故若方法的参数类型是 `byte[]`, 则需要先将 Base64 转为 `byte[]` 后才可调用
-    try {
-      convertParams(method, params);
-    } catch (Exception e) {
-      throw new ParamException("参数错误: " + e.getMessage());
-    }
+  /**
+   * 握手, 协商连接上的数据帧格式及数据编码方式
+   * <p>
+   * 握手响应仍以 JSON 格式写出, 之后双方均使用协商的格式;
+   * 仅在协商为 {@link FrameFormat#BINARY} 格式时才按 Client 给出的优先级选择编码方式,
+   * 并按 Client 的要求启用二进制附件, 流式传输及共享内存传输,
+   * 因为其他编码方式的数据无法以 JSON 格式分帧;
+   * 不支持握手的 Server (如旧版本或其他语言的 SDK) 会返回请求类型错误,
+   * Client 随即继续使用 JSON
+   *
+   * @param in      Netty 入栈
+   * @param reqData 请求数据
+   * @return Server 的响应对象
+   */
+  private InnerRespData<?> handshake(NettyInbound in, InnerReqData reqData) {
+    HandshakeData data = new HandshakeData();
+    data.setFraming(FrameFormat.JSON.value());
+
+    List<String> framings = reqData.getFramings();
+    if (framings != null && framings.contains(FrameFormat.BINARY.value())) {
+      // 在事件循环线程中切换, Client 在收到握手响应前不会再发送请求
+      Channel channel = channelOf(in);
+      FrameCodec.upgrade(channel, maxBytes());
+      data.setFraming(FrameFormat.BINARY.value());
+
+      PayloadCodec codec = PayloadCodecs.negotiate(reqData.getCodecs());
+      data.setCodec(codec.name());
+      if (Boolean.TRUE.equals(reqData.getAttachments())) {
+        codec = AttachmentCodec.of(codec);
+        data.setAttachments(true);
+      }
+      FrameCodec.setPayloadCodec(channel, codec);
 
-    try {
-      return method.invoke(item.getService(), params.toArray());
-    } catch (IllegalArgumentException e) {
-      throw new ParamException("参数错误: " + e.getMessage());
+      if (Boolean.TRUE.equals(reqData.getStreams())) {
+        FrameCodec.setStreaming(channel, true);
+        data.setStreams(true);
+      }
+
+      // 响应按 Client 给出的阈值经由共享内存传输
+      Integer shared = reqData.getSharedMemory();
+      if (shared != null && shared > 0 && SharedMemory.isAvailable()) {
+        FrameCodec.setSharedMemory(channel, shared);
+        data.setSharedMemory(shared);
+      }
     }
+
+    return genRespData(InnerErrorCode.SUCCESS, "握手成功", null, data);
   }
 
   /**
-   * 将传入参数转换为方法可识别的参数
-   *
-   * <ul>
-   *   <li>若方法的接收参数为 {@code byte[]},
-   *   则将对应参数 (Base64 字符串) 转为 {@code byte[]}</li>
-   * </ul>
+   * 加入信号订阅 Channel 和 Map
+   * <p>
+   * 订阅成功时直接写出订阅响应, 随后补发 Client 断线期间未收到的已保留消息,
+   * 以保证订阅响应, 补发消息及之后的消息推送按顺序到达 Client
    *
-   * @param method 反射的方法对象
-   * @param params 调用方法时的参数列表
-   * @throws JsonProcessingException JSON 序列化/反序列化失败
+   * @param in      Channel 入栈
+   * @param reqData 请求数据
+   * @return Server 的响应对象, 订阅成功时为 {@code null} (已直接写出)
    */
-  private void convertParams(Method method, List<Object> params)
-      throws JsonProcessingException {
-    Class<?>[] paramTypes = method.getParameterTypes();
+  private InnerRespData<?> addRecipient(NettyInbound in,
+      InnerReqData reqData) {
+    String signal = reqData.getSignal();
+    SubSignalItem item = recipientMap.get(signal);
 
-    for (int i = 0; i < paramTypes.length; ++i) {
-      if (DataTypeUtils.checkIfByteArray(paramTypes[i])) {
-        String str = (String) params.get(i);
-        params.set(i, Base64Utils.decode(str));
-      } else {
-        try {
-          paramTypes[i].cast(params.get(i));
-        } catch (ClassCastException ignore) {
-          // POJO
-          String json = JsonUtils.toJson(params.get(i));
-          params.set(i, JsonUtils.parseJson(json, paramTypes[i]));
+    if (item == null) {
+      InnerRespData<?> respData = genRespData(InnerErrorCode.ERROR,
+          "订阅失败: 没有该信号", InnerSubRespTypeCode.SUB_MSG, null);
+      respData.setSignal(signal);
+      return respData;
+    }
+
+    in.withConnection(conn -> {
+      Channel channel = conn.channel();
+
+      // 同一连接可订阅多个信号, 连接断开时一并移出所有信号的订阅
+      if (recipients.add(channel)) {
+        channel.closeFuture().addListener(f -> recipientMap.values()
+            .forEach(i -> i.getRecipients().remove(channel.id())));
+      }
+
+      synchronized (item) {
+        InnerRespData<?> respData = genRespData(InnerErrorCode.SUCCESS,
+            "信号订阅成功", InnerSubRespTypeCode.SUB_MSG, null);
+        respData.setId(reqData.getId());
+        respData.setSignal(signal);
+        respData.setSeq(item.getSeq());
+        respData.setEpoch(BOOT_ID);
+        channel.write(
+            new UdsFrame(reqData.getId(), genHandledByteBuf(respData)));
+
+        long afterSeq = getReplayAfterSeq(item, reqData);
+        for (ByteBuf frame : item.getReplay(afterSeq)) {
+          channel.write(new UdsFrame(null, frame));
         }
+        channel.flush();
+
+        item.getRecipients().add(channel.id());
       }
+    });
+
+    return null;
+  }
+
+  /**
+   * 计算需补发的消息的起始序号 (不含)
+   *
+   * @param item    信号订阅
+   * @param reqData 请求数据
+   * @return 需补发序号大于该值的消息
+   */
+  private long getReplayAfterSeq(SubSignalItem item, InnerReqData reqData) {
+    // 首次订阅, 无需补发
+    if (reqData.getEpoch() == null) {
+      return item.getSeq();
+    }
+
+    // 断线期间 Server 已重启, 补发重启后的所有已保留消息
+    if (!reqData.getEpoch().equals(BOOT_ID) || reqData.getLastSeq() == null) {
+      return 0;
     }
+
+    return reqData.getLastSeq();
   }
 
   /**
-   * 加入信号订阅 Channel 和 Map
+   * 移出信号订阅 Map, 但连接仍保留在订阅 Channel 组中, 以便继续订阅其他信号
    *
    * @param in      Channel 入栈
    * @param reqData 请求数据
-   * @return Netty 字节缓冲区
+   * @return Server 的响应对象
    */
-  private ByteBuf addRecipient(NettyInbound in, InnerReqData reqData) {
+  private InnerRespData<?> removeRecipient(NettyInbound in,
+      InnerReqData reqData) {
     String signal = reqData.getSignal();
 
+    InnerRespData<?> respData;
     if (recipientMap.containsKey(signal)) {
-      in.withConnection(conn -> {
-        Channel channel = conn.channel();
-        recipientMap.get(signal).add(conn.channel().id());
-        recipients.add(channel);
-      });
+      in.withConnection(conn -> recipientMap.get(signal).getRecipients()
+          .remove(conn.channel().id()));
 
-      return genHandledByteBuf(genRespData(InnerErrorCode.SUCCESS,
-          "信号订阅成功", InnerSubRespTypeCode.SUB_MSG, null));
+      respData = genRespData(InnerErrorCode.SUCCESS,
+          "取消订阅成功", InnerSubRespTypeCode.SUB_MSG, null);
+    } else {
+      respData = genRespData(InnerErrorCode.ERROR,
+          "取消订阅失败: 没有该信号", InnerSubRespTypeCode.SUB_MSG, null);
     }
 
-    return genHandledByteBuf(genRespData(InnerErrorCode.ERROR,
-        "订阅失败: 没有该信号", InnerSubRespTypeCode.SUB_MSG, null));
+    respData.setSignal(signal);
+    return respData;
   }
 
   /**
    * 获取所有可执行"方法调用"的方法
    *
-   * @return Netty 字节缓冲区
+   * @param reqData 请求数据
+   * @return Server 的响应对象
    */
-  private ByteBuf getAllMethods() {
-    NamespaceResultData data = getAllMethodsOrSignals(InvokeMethodType.METHOD);
-
-    return genHandledByteBuf(genRespData(InnerErrorCode.SUCCESS,
-        "获取所有方法", null, data));
+  private InnerRespData<?> getAllMethods(InnerReqData reqData) {
+    return genNamespaceRespData(reqData, "获取所有方法",
+        () -> getAllMethodsOrSignals(InvokeMethodType.METHOD));
   }
 
   /**
    * 获取所有可执行"信号触发"或"信号订阅"的方法
    *
-   * @return Netty 字节缓冲区
+   * @param reqData 请求数据
+   * @return Server 的响应对象
    */
-  private ByteBuf getAllSignals() {
-    NamespaceResultData data = getAllMethodsOrSignals(InvokeMethodType.SIGNAL);
+  private InnerRespData<?> getAllSignals(InnerReqData reqData) {
+    return genNamespaceRespData(reqData, "获取所有信号 (信号触发+信号订阅)",
+        () -> getAllMethodsOrSignals(InvokeMethodType.SIGNAL));
+  }
 
-    return genHandledByteBuf(genRespData(InnerErrorCode.SUCCESS,
-        "获取所有信号 (信号触发+信号订阅)", null, data));
+  /**
+   * 构造获取地址空间的响应对象
+   * <p>
+   * 地址空间数据在每个版本的注册信息中仅构造并序列化一次;
+   * 若 Client 缓存的版本号与当前版本号一致, 则仅返回未修改的提示
+   *
+   * @param reqData 请求数据
+   * @param msg     提示消息
+   * @param builder 用于构造地址空间数据
+   * @return Server 的响应对象
+   */
+  private InnerRespData<?> genNamespaceRespData(InnerReqData reqData,
+      String msg, Supplier<NamespaceResultData> builder) {
+    NamespaceCache cache = namespaceCache;
+
+    InnerRespData<PreEncodedValue> respData;
+    if (cache.version.equals(reqData.getVersion())) {
+      respData = genRespData(InnerErrorCode.SUCCESS, "地址空间未修改", null,
+          null);
+      respData.setNotModified(true);
+    } else {
+      PreEncodedValue data = cache.data.computeIfAbsent(reqData.getType(),
+          type -> {
+            try {
+              return new PreEncodedValue(builder.get());
+            } catch (JsonProcessingException e) {
+              throw new DataProcessException("SDK 序列化失败", e);
+            }
+          });
+      respData = genRespData(InnerErrorCode.SUCCESS, msg, null, data);
+    }
+
+    respData.setVersion(cache.version);
+    return respData;
+  }
+
+  /**
+   * 创建新版本注册信息的地址空间缓存
+   *
+   * @return 地址空间缓存
+   */
+  private NamespaceCache newNamespaceCache() {
+    return new NamespaceCache(
+        BOOT_ID + "-" + registryVersion.incrementAndGet());
   }
 
   /**
@@ -603,8 +1319,7 @@ public class Server {
 
     if (type == InvokeMethodType.SIGNAL) {
       // 信号订阅
-      for (Entry<String, Set<ChannelId>> entry : recipientMap
-          .entrySet()) {
+      for (Entry<String, SubSignalItem> entry : recipientMap.entrySet()) {
         NamespaceResultDataItem item = new NamespaceResultDataItem();
         item.setName(entry.getKey());
 
@@ -630,21 +1345,22 @@ public class Server {
   /**
    * 获取可被调用的方法, 及可被触发或订阅的信号
    *
-   * @return Netty 字节缓冲区
+   * @param reqData 请求数据
+   * @return Server 的响应对象
    */
-  private ByteBuf getAllMethodsAndSignals() {
-    NamespaceResultData method = getAllMethodsOrSignals(
-        InvokeMethodType.METHOD);
-    NamespaceResultData signal = getAllMethodsOrSignals(
-        InvokeMethodType.SIGNAL);
-
-    NamespaceResultData data = new NamespaceResultData();
-    data.setMethod(method.getMethod());
-    data.setMethodNum(method.getMethodNum());
-    data.setSignal(signal.getSignal());
-
-    return genHandledByteBuf(genRespData(InnerErrorCode.SUCCESS,
-        "所有方法和信号", null, data));
+  private InnerRespData<?> getAllMethodsAndSignals(InnerReqData reqData) {
+    return genNamespaceRespData(reqData, "所有方法和信号", () -> {
+      NamespaceResultData method = getAllMethodsOrSignals(
+          InvokeMethodType.METHOD);
+      NamespaceResultData signal = getAllMethodsOrSignals(
+          InvokeMethodType.SIGNAL);
+
+      NamespaceResultData data = new NamespaceResultData();
+      data.setMethod(method.getMethod());
+      data.setMethodNum(method.getMethodNum());
+      data.setSignal(signal.getSignal());
+      return data;
+    });
   }
 
   /**
@@ -683,7 +1399,16 @@ public class Server {
           throw new RegisterException("存在同名的方法调用: " + methodName);
         }
 
-        addRegisterMap(methodMap, service, method, methodName);
+        SignalMapItem item =
+            addRegisterMap(methodMap, service, method, methodName);
+        item.setDispatchMode(resolveDispatchMode(service, methodAnn, methodName));
+
+        // 读取流参数会阻塞, 在事件循环线程中执行时其后的数据块将永远无法到达
+        if (item.getBinder().hasStreamParam() &&
+            item.getDispatchMode() == DispatchMode.INLINE) {
+          log.info("方法带有流参数, 改为在线程池中执行: " + methodName);
+          item.setDispatchMode(DispatchMode.POOL);
+        }
       }
 
       // 加入信号触发
@@ -698,7 +1423,18 @@ public class Server {
           throw new RegisterException("存在同名的信号触发: " + signalName);
         }
 
-        addRegisterMap(signalMap, service, method, signalName);
+        // 信号触发在方法执行前即已返回, 无法等待流参数的数据
+        for (Class<?> type : method.getParameterTypes()) {
+          if (DataTypeUtils.checkIfStream(type)) {
+            throw new RegisterException("信号触发不支持流参数: " + signalName);
+          }
+        }
+
+        SignalMapItem item =
+            addRegisterMap(signalMap, service, method, signalName);
+        item.setKeyParam(checkSignalKeyParam(method, signalAnn.keyParam()));
+        signalLanes.register(signalName, signalAnn.queueCapacity(),
+            signalAnn.reject());
       }
     }
   }
@@ -724,6 +1460,34 @@ public class Server {
     }
   }
 
+  /**
+   * 检查"信号触发"的分区参数
+   *
+   * @param method   方法对象
+   * @param keyParam 分区参数位置, 小于 0 时表示未指定
+   * @return 分区参数位置, 未指定时为 -1
+   */
+  private int checkSignalKeyParam(Method method, int keyParam) {
+    if (keyParam < 0) {
+      return -1;
+    }
+
+    Class<?>[] types = method.getParameterTypes();
+    if (keyParam >= types.length) {
+      throw new RegisterException("信号的分区参数位置超出参数个数: " + keyParam);
+    }
+
+    // 分区参数值需按值计算哈希, 才能将相同的值映射到同一通道
+    Class<?> type = types[keyParam];
+    if (!type.isPrimitive() && type != String.class && !type.isEnum() &&
+        !Number.class.isAssignableFrom(type) && type != Boolean.class &&
+        type != Character.class) {
+      throw new RegisterException(
+          "信号的分区参数类型不支持: " + type.getSimpleName());
+    }
+    return keyParam;
+  }
+
   /**
    * 将"方法调用"或"信号触发"加入到对应的 Map 中
    *
@@ -731,13 +1495,49 @@ public class Server {
    * @param service 服务对象
    * @param method  方法对象
    * @param key     Map Key
+   * @return 加入 Map 的对象
    */
-  private void addRegisterMap(Map<String, SignalMapItem> map,
+  private SignalMapItem addRegisterMap(Map<String, SignalMapItem> map,
       Object service, Method method, String key) {
     SignalMapItem item = new SignalMapItem();
     item.setService(service);
     item.setMethod(method);
+    item.setInvoker(MethodInvoker.of(service, method));
+    item.setBinder(ParamBinder.of(method, PARAM_MAPPER));
     map.put(key, item);
+
+    // 参数的反序列化器已由参数绑定器预先构造, 此处预热返回值的序列化器
+    JsonEngine.warmUp(method.getGenericReturnType());
+    return item;
+  }
+
+  /**
+   * 确定"方法调用"的执行方式, 方法上未指定时使用服务类上的执行方式
+   *
+   * @param service    服务对象
+   * @param methodAnn  方法上的注解
+   * @param methodName 方法名
+   * @return 执行方式
+   */
+  private DispatchMode resolveDispatchMode(Object service, UdsMethod methodAnn,
+      String methodName) {
+    DispatchMode mode = methodAnn.dispatch();
+    if (mode == DispatchMode.DEFAULT) {
+      mode = service.getClass().getAnnotation(UdsService.class).dispatch();
+    }
+    if (mode == DispatchMode.DEFAULT) {
+      mode = DispatchMode.INLINE;
+    }
+    return dispatcher.resolve(mode, methodName);
+  }
+
+  /**
+   * 解析请求时将方法参数保留为 {@link TokenBuffer}
+   */
+  private abstract static class ReqDataMixIn {
+
+    @JsonDeserialize(contentAs = TokenBuffer.class)
+    abstract void setData(List<Object> data);
   }
 
   /**
@@ -746,4 +1546,22 @@ public class Server {
   private enum InvokeMethodType {
     METHOD, SIGNAL
   }
+
+  /**
+   * 某一版本注册信息的地址空间缓存
+   */
+  @RequiredArgsConstructor
+  private static class NamespaceCache {
+
+    /**
+     * 注册信息的版本号
+     */
+    private final String version;
+
+    /**
+     * 已序列化的地址空间数据, Key 为请求类型
+     */
+    private final Map<String, PreEncodedValue> data =
+        new ConcurrentHashMap<>();
+  }
 }
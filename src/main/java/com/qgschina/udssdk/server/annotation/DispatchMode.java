@@ -0,0 +1,28 @@
+package com.qgschina.udssdk.server.annotation;
+
+/**
+ * "方法调用"的执行方式
+ */
+public enum DispatchMode {
+
+  /**
+   * 继承所在服务类 {@link UdsService#dispatch()} 的执行方式, 仅用于 {@link UdsMethod}
+   */
+  DEFAULT,
+
+  /**
+   * 直接在连接的 Netty 事件循环线程中执行, 仅适用于不会阻塞的简单方法;
+   * 执行期间该线程上的所有连接都无法处理其他请求
+   */
+  INLINE,
+
+  /**
+   * 在有界的平台线程池中执行, 适用于会阻塞 (如数据库或文件 IO) 的方法
+   */
+  POOL,
+
+  /**
+   * 每次调用在一个新的虚拟线程中执行, 需 JDK 21 及以上版本, 否则改为 {@link #POOL}
+   */
+  VIRTUAL
+}
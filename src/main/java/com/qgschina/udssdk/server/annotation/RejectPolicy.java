@@ -0,0 +1,28 @@
+package com.qgschina.udssdk.server.annotation;
+
+/**
+ * "信号触发"的排队数已达上限时的处理方式
+ */
+public enum RejectPolicy {
+
+  /**
+   * 使用 {@link com.qgschina.udssdk.server.dispatch.DispatchConfig#getSignalRejectPolicy()}
+   * 的处理方式, 仅用于 {@link UdsSignal}
+   */
+  DEFAULT,
+
+  /**
+   * 拒绝本次触发, 并向 Client 返回错误响应
+   */
+  ABORT,
+
+  /**
+   * 丢弃本次触发, Client 仍收到触发成功的响应
+   */
+  DISCARD,
+
+  /**
+   * 丢弃该信号最早的一个尚未执行的触发, 再接受本次触发
+   */
+  DISCARD_OLDEST
+}
@@ -9,6 +9,9 @@ import java.lang.annotation.Target;
  * 注解 {@code public} 方法上, 标识可供 Client 调用的方法, 且不能存在同名的"方法调用"
  * <p>
  * 注意: 若方法返回值存在 <b>{@code byte[]}</b>, 则会被转为 Base64 字符串再给 Client
+ * <p>
+ * 也可注解在 Client 端的服务接口方法上, 用于
+ * {@link com.qgschina.udssdk.client.Client#createProxy(Class)} 创建接口代理
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.METHOD})
@@ -18,4 +21,10 @@ public @interface UdsMethod {
    * Client 调用时所使用的方法名
    */
   String value() default "";
+
+  /**
+   * 方法的执行方式, 默认继承所在服务类的 {@link UdsService#dispatch()};
+   * 仅在 Server 端生效
+   */
+  DispatchMode dispatch() default DispatchMode.DEFAULT;
 }
@@ -11,4 +11,9 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.TYPE})
 public @interface UdsService {
+
+  /**
+   * 服务中各"方法调用"的默认执行方式, 可由 {@link UdsMethod#dispatch()} 单独指定
+   */
+  DispatchMode dispatch() default DispatchMode.INLINE;
 }
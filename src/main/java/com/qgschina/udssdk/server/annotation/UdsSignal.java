@@ -10,8 +10,12 @@ import java.lang.annotation.Target;
  *
  * <ul>
  *   <li>该注解的方法会被 Client 异步调用, 故方法可不需要返回值</li>
+ *   <li>同一信号 (或同一信号的同一分区参数值) 的触发按请求顺序依次执行,
+ *   不同信号 (或不同分区参数值) 的触发可并行执行</li>
  *   <li>"信号订阅"需要调用
  *   {@link com.qgschina.udssdk.server.Server#registerSubSignal(String)}</li>
+ *   <li>也可注解在 Client 端的服务接口方法上, 用于
+ *   {@link com.qgschina.udssdk.client.Client#createProxy(Class)} 创建接口代理</li>
  * </ul>
  */
 @Retention(RetentionPolicy.RUNTIME)
@@ -22,4 +26,24 @@ public @interface UdsSignal {
    * Client 调用时所使用的方法名
    */
   String value() default "";
+
+  /**
+   * 分区参数的位置 (从 0 开始), 参数值相同的触发按顺序执行, 不同的可并行执行;
+   * 默认为 -1, 即同一信号的所有触发均按顺序执行
+   * <p>
+   * 分区参数仅支持字符串, 基本类型及其包装类型和枚举类型; 仅在 Server 端生效
+   */
+  int keyParam() default -1;
+
+  /**
+   * 该信号最多排队等待执行的触发数, 默认为 0, 即使用
+   * {@link com.qgschina.udssdk.server.dispatch.DispatchConfig#getSignalQueueCapacity()};
+   * 仅在 Server 端生效
+   */
+  int queueCapacity() default 0;
+
+  /**
+   * 排队数已达上限时的处理方式; 仅在 Server 端生效
+   */
+  RejectPolicy reject() default RejectPolicy.DEFAULT;
 }
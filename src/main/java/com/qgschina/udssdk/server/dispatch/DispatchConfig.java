@@ -0,0 +1,45 @@
+package com.qgschina.udssdk.server.dispatch;
+
+import com.qgschina.udssdk.server.annotation.RejectPolicy;
+import lombok.Data;
+
+/**
+ * "方法调用"执行线程池及"信号触发"执行通道的配置
+ */
+@Data
+public class DispatchConfig {
+
+  /**
+   * 平台线程池的线程数
+   */
+  private int poolSize = Math.max(4,
+      Runtime.getRuntime().availableProcessors() * 2);
+
+  /**
+   * 平台线程池的最大排队请求数, 超出时直接返回错误响应
+   */
+  private int queueCapacity = 1024;
+
+  /**
+   * 平台线程池中空闲线程的最大存活时间, 单位: 毫秒
+   */
+  private long keepAliveMillis = 60 * 1000;
+
+  /**
+   * "信号触发"的执行通道数, 每个通道由一个线程依次执行
+   */
+  private int signalLanes = Math.max(4,
+      Runtime.getRuntime().availableProcessors());
+
+  /**
+   * 每个信号默认最多排队等待执行的触发数, 可由
+   * {@link com.qgschina.udssdk.server.annotation.UdsSignal#queueCapacity()} 单独指定
+   */
+  private int signalQueueCapacity = 1024;
+
+  /**
+   * 信号排队数已达上限时默认的处理方式, 可由
+   * {@link com.qgschina.udssdk.server.annotation.UdsSignal#reject()} 单独指定
+   */
+  private RejectPolicy signalRejectPolicy = RejectPolicy.ABORT;
+}
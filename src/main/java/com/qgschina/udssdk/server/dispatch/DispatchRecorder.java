@@ -0,0 +1,54 @@
+package com.qgschina.udssdk.server.dispatch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 某个"方法调用"或"信号触发"的执行统计累加器
+ */
+class DispatchRecorder {
+
+  private final LongAdder calls = new LongAdder();
+
+  private final LongAdder rejected = new LongAdder();
+
+  private final LongAdder queueNanos = new LongAdder();
+
+  private final LongAdder runNanos = new LongAdder();
+
+  private final LongAccumulator maxQueueNanos =
+      new LongAccumulator(Long::max, 0);
+
+  private final LongAccumulator maxRunNanos =
+      new LongAccumulator(Long::max, 0);
+
+  void record(long queue, long run) {
+    calls.increment();
+    queueNanos.add(queue);
+    runNanos.add(run);
+    maxQueueNanos.accumulate(queue);
+    maxRunNanos.accumulate(run);
+  }
+
+  void reject() {
+    rejected.increment();
+  }
+
+  DispatchStats snapshot() {
+    long count = calls.sum();
+    DispatchStats stats = new DispatchStats();
+    stats.setCalls(count);
+    stats.setRejected(rejected.sum());
+    if (count > 0) {
+      stats.setAvgQueueMicros(
+          TimeUnit.NANOSECONDS.toMicros(queueNanos.sum() / count));
+      stats.setAvgRunMicros(
+          TimeUnit.NANOSECONDS.toMicros(runNanos.sum() / count));
+    }
+    stats.setMaxQueueMicros(
+        TimeUnit.NANOSECONDS.toMicros(maxQueueNanos.get()));
+    stats.setMaxRunMicros(TimeUnit.NANOSECONDS.toMicros(maxRunNanos.get()));
+    return stats;
+  }
+}
@@ -0,0 +1,42 @@
+package com.qgschina.udssdk.server.dispatch;
+
+import lombok.Data;
+
+/**
+ * 某个"方法调用"或"信号触发"的执行统计
+ * <p>
+ * 排队时间为请求提交到线程池 (或信号通道) 至开始执行的时间, 执行时间为方法本身的耗时
+ */
+@Data
+public class DispatchStats {
+
+  /**
+   * 已执行的调用次数
+   */
+  private long calls;
+
+  /**
+   * 因队列已满而被拒绝或丢弃的调用次数
+   */
+  private long rejected;
+
+  /**
+   * 平均排队时间, 单位: 微秒
+   */
+  private long avgQueueMicros;
+
+  /**
+   * 最大排队时间, 单位: 微秒
+   */
+  private long maxQueueMicros;
+
+  /**
+   * 平均执行时间, 单位: 微秒
+   */
+  private long avgRunMicros;
+
+  /**
+   * 最大执行时间, 单位: 微秒
+   */
+  private long maxRunMicros;
+}
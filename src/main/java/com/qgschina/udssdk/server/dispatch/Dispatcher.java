@@ -0,0 +1,176 @@
+package com.qgschina.udssdk.server.dispatch;
+
+import com.qgschina.udssdk.common.exception.UdsSdkException;
+import com.qgschina.udssdk.server.annotation.DispatchMode;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "方法调用"的执行调度
+ * <p>
+ * 按方法的执行方式在事件循环线程, 平台线程池或虚拟线程中执行方法,
+ * 并分别统计各方法的排队时间及执行时间
+ */
+@Slf4j
+public class Dispatcher {
+
+  /**
+   * 有界的平台线程池
+   */
+  private final ThreadPoolExecutor pool;
+
+  /**
+   * 虚拟线程执行器, 当前 JDK 不支持虚拟线程时为 {@code null}
+   */
+  private final ExecutorService virtual;
+
+  /**
+   * 各方法的执行统计, Key 为方法名
+   */
+  private final Map<String, DispatchRecorder> recorders =
+      new ConcurrentHashMap<>();
+
+  public Dispatcher(DispatchConfig config) {
+    pool = new ThreadPoolExecutor(config.getPoolSize(), config.getPoolSize(),
+        config.getKeepAliveMillis(), TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(config.getQueueCapacity()),
+        new DefaultThreadFactory("uds-dispatch", true),
+        new ThreadPoolExecutor.AbortPolicy());
+    pool.allowCoreThreadTimeOut(true);
+
+    virtual = newVirtualExecutor();
+  }
+
+  /**
+   * 确定实际使用的执行方式
+   *
+   * @param mode 注解指定的执行方式, 不可为 {@link DispatchMode#DEFAULT}
+   * @param name 方法名, 仅用于日志
+   * @return 实际使用的执行方式
+   */
+  public DispatchMode resolve(DispatchMode mode, String name) {
+    if (mode == DispatchMode.VIRTUAL && virtual == null) {
+      log.warn("当前 JDK 不支持虚拟线程, 方法改为在线程池中执行: " + name);
+      return DispatchMode.POOL;
+    }
+    return mode;
+  }
+
+  /**
+   * 按执行方式执行方法
+   * <p>
+   * 非 {@link DispatchMode#INLINE} 方式时, 结果在 {@code replyExecutor}
+   * (即连接自身的事件循环) 中完成, 以便响应直接在该线程中写出
+   *
+   * @param name          方法名
+   * @param mode          执行方式
+   * @param task          执行方法
+   * @param replyExecutor 用于完成结果
+   * @param <T>           方法结果类型
+   * @return 方法结果; 线程池队列已满时以 {@link UdsSdkException} 异常完成
+   */
+  public <T> CompletableFuture<T> submit(String name, DispatchMode mode,
+      Callable<T> task, Executor replyExecutor) {
+    DispatchRecorder recorder =
+        recorders.computeIfAbsent(name, key -> new DispatchRecorder());
+    CompletableFuture<T> future = new CompletableFuture<>();
+
+    if (mode == DispatchMode.INLINE) {
+      long start = System.nanoTime();
+      run(task, future);
+      recorder.record(0, System.nanoTime() - start);
+      return future;
+    }
+
+    long enqueued = System.nanoTime();
+    Runnable command = () -> {
+      long start = System.nanoTime();
+      CompletableFuture<T> result = new CompletableFuture<>();
+      run(task, result);
+      recorder.record(start - enqueued, System.nanoTime() - start);
+
+      try {
+        replyExecutor.execute(() -> transfer(result, future));
+      } catch (RejectedExecutionException e) {
+        // 事件循环已关闭, 连接也已断开
+        transfer(result, future);
+      }
+    };
+
+    try {
+      (mode == DispatchMode.VIRTUAL ? virtual : pool).execute(command);
+    } catch (RejectedExecutionException e) {
+      recorder.reject();
+      future.completeExceptionally(
+          new UdsSdkException("服务繁忙, 方法调用已被拒绝: " + name));
+    }
+
+    return future;
+  }
+
+  /**
+   * 获取某个方法的执行统计
+   *
+   * @param name 方法名
+   * @return 执行统计, 方法从未被调用时为 {@code null}
+   */
+  public DispatchStats getStats(String name) {
+    DispatchRecorder recorder = recorders.get(name);
+    return recorder == null ? null : recorder.snapshot();
+  }
+
+  private static <T> void run(Callable<T> task, CompletableFuture<T> result) {
+    try {
+      result.complete(task.call());
+    } catch (Throwable t) {
+      result.completeExceptionally(t);
+    }
+  }
+
+  /**
+   * 关闭线程池及虚拟线程执行器, 已提交的方法仍会执行完毕, 之后提交的均被拒绝
+   */
+  public void shutdown() {
+    pool.shutdown();
+    if (virtual != null) {
+      virtual.shutdown();
+    }
+  }
+
+  private static <T> void transfer(CompletableFuture<T> from,
+      CompletableFuture<T> to) {
+    from.whenComplete((r, thr) -> {
+      if (thr == null) {
+        to.complete(r);
+      } else {
+        to.completeExceptionally(thr);
+      }
+    });
+  }
+
+  /**
+   * 通过反射创建虚拟线程执行器, 以兼容 JDK 8 编译
+   *
+   * @return 虚拟线程执行器, 当前 JDK 不支持时为 {@code null}
+   */
+  private static ExecutorService newVirtualExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
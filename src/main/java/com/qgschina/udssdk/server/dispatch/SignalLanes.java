@@ -0,0 +1,218 @@
+package com.qgschina.udssdk.server.dispatch;
+
+import com.qgschina.udssdk.common.exception.UdsSdkException;
+import com.qgschina.udssdk.server.annotation.RejectPolicy;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "信号触发"的分区执行通道
+ * <p>
+ * 每个通道由一个线程按提交顺序依次执行, 触发按信号名及分区参数值映射到固定的通道,
+ * 故同一信号 (或同一分区参数值) 的触发保持顺序, 不同通道之间并行执行.
+ * 各信号的排队数分别计数, 达到上限时按该信号的处理方式拒绝或丢弃
+ */
+@Slf4j
+public class SignalLanes {
+
+  /**
+   * 各执行通道, 均为单线程
+   */
+  private final ThreadPoolExecutor[] lanes;
+
+  /**
+   * 各信号的排队状态, Key 为信号名
+   */
+  private final Map<String, SignalQueue> queues = new ConcurrentHashMap<>();
+
+  private final int defaultCapacity;
+
+  private final RejectPolicy defaultPolicy;
+
+  public SignalLanes(DispatchConfig config) {
+    ThreadFactory threadFactory = new DefaultThreadFactory("uds-signal", true);
+    lanes = new ThreadPoolExecutor[Math.max(1, config.getSignalLanes())];
+    for (int i = 0; i < lanes.length; ++i) {
+      // 排队数由各信号分别限制, 被丢弃的触发同时移出通道的队列,
+      // 故通道的队列长度不超过其上各信号的排队上限之和
+      lanes[i] = new ThreadPoolExecutor(1, 1, config.getKeepAliveMillis(),
+          TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), threadFactory);
+      lanes[i].allowCoreThreadTimeOut(true);
+    }
+
+    defaultCapacity = config.getSignalQueueCapacity();
+    defaultPolicy = config.getSignalRejectPolicy();
+  }
+
+  /**
+   * 注册信号的排队上限及处理方式
+   *
+   * @param signal   信号名
+   * @param capacity 最多排队等待执行的触发数, 不大于 0 时使用默认值
+   * @param policy   排队数已达上限时的处理方式
+   */
+  public void register(String signal, int capacity, RejectPolicy policy) {
+    queues.put(signal, new SignalQueue(
+        capacity > 0 ? capacity : defaultCapacity,
+        policy == RejectPolicy.DEFAULT ? defaultPolicy : policy));
+  }
+
+  /**
+   * 提交信号触发
+   *
+   * @param signal 已注册的信号名
+   * @param key    分区参数值, 未指定分区参数时为 {@code null}
+   * @param task   执行信号触发的方法
+   * @throws UdsSdkException 排队数已达上限且处理方式为 {@link RejectPolicy#ABORT}
+   */
+  public void submit(String signal, Object key, Runnable task) {
+    SignalQueue queue = queues.get(signal);
+    Trigger trigger = new Trigger(queue, task, lanes[laneOf(signal, key)]);
+
+    // 在锁内提交到通道, 以保证 pending 中的触发都已在通道的队列中,
+    // 丢弃时可一并移出; 通道的队列不设上限, 提交不会阻塞
+    synchronized (queue) {
+      if (queue.pending.size() >= queue.capacity) {
+        queue.recorder.reject();
+
+        if (queue.policy == RejectPolicy.DISCARD) {
+          log.debug("信号触发排队数已达上限, 丢弃本次触发: " + signal);
+          return;
+        }
+        if (queue.policy != RejectPolicy.DISCARD_OLDEST) {
+          throw new UdsSdkException("信号触发排队数已达上限, 已被拒绝: " + signal);
+        }
+
+        Trigger discarded = queue.pending.poll();
+        discarded.lane.getQueue().remove(discarded);
+        log.debug("信号触发排队数已达上限, 丢弃最早的触发: " + signal);
+      }
+
+      try {
+        trigger.lane.execute(trigger);
+      } catch (RejectedExecutionException e) {
+        throw new UdsSdkException("信号触发执行通道已关闭: " + signal);
+      }
+      queue.pending.add(trigger);
+    }
+  }
+
+  /**
+   * 关闭所有执行通道, 已提交的触发仍会执行完毕, 之后提交的均被拒绝
+   */
+  public void shutdown() {
+    for (ThreadPoolExecutor lane : lanes) {
+      lane.shutdown();
+    }
+  }
+
+  /**
+   * 获取所有通道的队列中等待执行的触发数
+   *
+   * @return 等待执行的触发数
+   */
+  int queuedInLanes() {
+    int queued = 0;
+    for (ThreadPoolExecutor lane : lanes) {
+      queued += lane.getQueue().size();
+    }
+    return queued;
+  }
+
+  /**
+   * 获取某个信号的执行统计
+   *
+   * @param signal 信号名
+   * @return 执行统计, 信号未注册时为 {@code null}
+   */
+  public DispatchStats getStats(String signal) {
+    SignalQueue queue = queues.get(signal);
+    return queue == null ? null : queue.recorder.snapshot();
+  }
+
+  /**
+   * 计算触发所属的通道
+   *
+   * @param signal 信号名
+   * @param key    分区参数值
+   * @return 通道序号
+   */
+  private int laneOf(String signal, Object key) {
+    int hash = Objects.hash(signal, key);
+    // 混合高位, 避免相近的哈希值集中在少数通道
+    return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+  }
+
+  /**
+   * 某个信号的排队状态
+   */
+  private static class SignalQueue {
+
+    private final int capacity;
+
+    private final RejectPolicy policy;
+
+    /**
+     * 尚未开始执行的触发, 按提交顺序排列; 需持有本对象的锁访问
+     */
+    private final Deque<Trigger> pending = new ArrayDeque<>();
+
+    private final DispatchRecorder recorder = new DispatchRecorder();
+
+    SignalQueue(int capacity, RejectPolicy policy) {
+      this.capacity = capacity;
+      this.policy = policy;
+    }
+  }
+
+  /**
+   * 提交到通道的一次信号触发
+   */
+  private static class Trigger implements Runnable {
+
+    private final SignalQueue queue;
+
+    private final Runnable task;
+
+    /**
+     * 所属的通道
+     */
+    private final ThreadPoolExecutor lane;
+
+    private final long enqueued = System.nanoTime();
+
+    Trigger(SignalQueue queue, Runnable task, ThreadPoolExecutor lane) {
+      this.queue = queue;
+      this.task = task;
+      this.lane = lane;
+    }
+
+    @Override
+    public void run() {
+      synchronized (queue) {
+        // 已被丢弃 (丢弃时通道线程可能已取出该触发)
+        if (!queue.pending.remove(this)) {
+          return;
+        }
+      }
+
+      long start = System.nanoTime();
+      try {
+        task.run();
+      } finally {
+        queue.recorder.record(start - enqueued, System.nanoTime() - start);
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.qgschina.udssdk.server.model;
+
+import com.qgschina.udssdk.common.exception.ParamException;
+import com.qgschina.udssdk.common.exception.RegisterException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * 服务方法的调用器, 在注册服务时由方法对象生成一次
+ * <p>
+ * 内部使用已绑定服务对象, 且参数已展开的 {@link MethodHandle}, 调用可被 JIT 内联;
+ * 服务方法抛出的异常原样抛出, 而不会被包装为 {@code InvocationTargetException}
+ */
+public class MethodInvoker {
+
+  /**
+   * 调用服务方法的句柄, 类型固定为 {@code (Object[]) Object}
+   */
+  private final MethodHandle handle;
+
+  /**
+   * 服务方法的参数类型, 基本类型已转为对应的包装类型
+   */
+  private final Class<?>[] paramTypes;
+
+  /**
+   * 服务方法的参数是否为基本类型, 基本类型的参数不可为 {@code null}
+   */
+  private final boolean[] primitive;
+
+  private MethodInvoker(MethodHandle handle, Class<?>[] paramTypes,
+      boolean[] primitive) {
+    this.handle = handle;
+    this.paramTypes = paramTypes;
+    this.primitive = primitive;
+  }
+
+  /**
+   * 生成服务方法的调用器
+   *
+   * @param service 服务对象
+   * @param method  服务方法
+   * @return 调用器
+   */
+  public static MethodInvoker of(Object service, Method method) {
+    MethodHandle handle;
+    try {
+      method.setAccessible(true);
+      handle = MethodHandles.lookup().unreflect(method);
+    } catch (IllegalAccessException | SecurityException e) {
+      throw new RegisterException("无法访问服务方法: " + method.getName(), e);
+    }
+
+    Class<?>[] types = method.getParameterTypes();
+    Class<?>[] paramTypes = new Class<?>[types.length];
+    boolean[] primitive = new boolean[types.length];
+    for (int i = 0; i < types.length; ++i) {
+      paramTypes[i] = MethodType.methodType(types[i]).wrap().returnType();
+      primitive[i] = types[i].isPrimitive();
+    }
+
+    handle = handle.bindTo(service)
+        .asSpreader(Object[].class, types.length)
+        .asType(MethodType.methodType(Object.class, Object[].class));
+
+    return new MethodInvoker(handle, paramTypes, primitive);
+  }
+
+  /**
+   * 调用服务方法
+   *
+   * @param args 方法参数
+   * @return 方法的返回值, 无返回值时为 {@code null}
+   * @throws ParamException 参数个数或类型与服务方法不一致
+   * @throws Exception      服务方法抛出的异常
+   */
+  public Object invoke(Object[] args) throws Exception {
+    checkArgs(args);
+
+    try {
+      return (Object) handle.invokeExact(args);
+    } catch (Exception | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new UndeclaredThrowableException(t);
+    }
+  }
+
+  /**
+   * 检查参数个数及类型, 以免与服务方法内部抛出的类型转换异常混淆
+   *
+   * @param args 方法参数
+   */
+  private void checkArgs(Object[] args) {
+    if (args.length != paramTypes.length) {
+      throw new ParamException("参数错误: 需要 " + paramTypes.length
+          + " 个参数, 实际为 " + args.length + " 个");
+    }
+
+    for (int i = 0; i < args.length; ++i) {
+      Object arg = args[i];
+      if (arg == null ? primitive[i] : !paramTypes[i].isInstance(arg)) {
+        throw new ParamException("参数错误: 第 " + (i + 1) + " 个参数类型不匹配");
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package com.qgschina.udssdk.server.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.qgschina.udssdk.common.codec.ChunkedInputStream;
+import com.qgschina.udssdk.common.exception.ParamException;
+import com.qgschina.udssdk.common.exception.RegisterException;
+import com.qgschina.udssdk.common.util.Base64Utils;
+import com.qgschina.udssdk.common.util.DataTypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * 服务方法的参数绑定器, 在注册服务时由方法对象生成一次
+ * <p>
+ * 预先为每个参数构造对应其泛型类型的 {@link ObjectReader},
+ * 并将请求中已缓存为 {@link TokenBuffer} 的参数直接绑定为参数类型,
+ * 无需先反序列化为 {@code Map} 等通用结构后再次序列化与反序列化.
+ * 流参数 ({@code InputStream} 或 {@code ReadableByteChannel}) 在请求中为 {@code null},
+ * 绑定时替换为由之后的分块数据帧填充的输入流
+ */
+public class ParamBinder {
+
+  /**
+   * 用于转换非 {@link TokenBuffer} 形式的参数
+   */
+  private final ObjectMapper mapper;
+
+  /**
+   * 各参数的类型, 包含泛型信息
+   */
+  private final JavaType[] types;
+
+  /**
+   * 各参数的反序列化对象
+   */
+  private final ObjectReader[] readers;
+
+  /**
+   * 各泛型参数按原始类型的反序列化对象, 非泛型参数为 {@code null}
+   * <p>
+   * 仅在参数内容与泛型类型不符时使用, 以兼容按原始类型转换参数的旧版本行为
+   */
+  private final ObjectReader[] rawReaders;
+
+  /**
+   * 各参数是否为 {@code byte[]}, 即以 Base64 字符串的形式传输
+   */
+  private final boolean[] byteArray;
+
+  /**
+   * 流参数的位置, 不存在时为 -1
+   */
+  private final int streamParam;
+
+  private ParamBinder(ObjectMapper mapper, JavaType[] types,
+      ObjectReader[] readers, ObjectReader[] rawReaders, boolean[] byteArray,
+      int streamParam) {
+    this.mapper = mapper;
+    this.types = types;
+    this.readers = readers;
+    this.rawReaders = rawReaders;
+    this.byteArray = byteArray;
+    this.streamParam = streamParam;
+  }
+
+  /**
+   * 生成服务方法的参数绑定器
+   *
+   * @param method 服务方法
+   * @param mapper 用于构造各参数的反序列化对象
+   * @return 参数绑定器
+   * @throws RegisterException 存在多个流参数或流参数类型不支持
+   */
+  public static ParamBinder of(Method method, ObjectMapper mapper) {
+    Type[] genericTypes = method.getGenericParameterTypes();
+    Class<?>[] rawTypes = method.getParameterTypes();
+
+    JavaType[] types = new JavaType[genericTypes.length];
+    ObjectReader[] readers = new ObjectReader[genericTypes.length];
+    ObjectReader[] rawReaders = new ObjectReader[genericTypes.length];
+    boolean[] byteArray = new boolean[genericTypes.length];
+    int streamParam = -1;
+    for (int i = 0; i < genericTypes.length; ++i) {
+      // 同一连接上的数据块只能依次传输, 故至多一个流参数
+      if (DataTypeUtils.checkIfStream(rawTypes[i])) {
+        if (streamParam >= 0) {
+          throw new RegisterException("方法至多只能有一个流参数: "
+              + method.getName());
+        }
+        if (!rawTypes[i].isAssignableFrom(ChunkedInputStream.class)) {
+          throw new RegisterException("流参数只能声明为 InputStream 或 "
+              + "ReadableByteChannel: " + method.getName());
+        }
+        streamParam = i;
+      }
+
+      types[i] = mapper.getTypeFactory().constructType(genericTypes[i]);
+      // 与反射调用一致, 基本类型的参数不可为 `null`
+      readers[i] = mapper.readerFor(types[i])
+          .with(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+      if (types[i].hasGenericTypes()) {
+        rawReaders[i] = mapper.readerFor(rawTypes[i]);
+      }
+      byteArray[i] = DataTypeUtils.checkIfByteArray(rawTypes[i]);
+    }
+
+    return new ParamBinder(mapper, types, readers, rawReaders, byteArray,
+        streamParam);
+  }
+
+  /**
+   * 判断方法是否有流参数
+   *
+   * @return {@code true} 若存在流参数
+   */
+  public boolean hasStreamParam() {
+    return streamParam >= 0;
+  }
+
+  /**
+   * 将请求中的参数列表绑定为方法参数
+   *
+   * @param data 请求中的参数列表, 可为 {@code null}
+   * @return 方法参数
+   * @throws ParamException 参数个数错误或无法转换为参数类型
+   */
+  public Object[] bind(List<Object> data) {
+    return bind(data, null);
+  }
+
+  /**
+   * 将请求中的参数列表及流数据绑定为方法参数
+   *
+   * @param data   请求中的参数列表, 可为 {@code null}
+   * @param stream 由请求之后的分块数据帧填充的输入流, 可为 {@code null}
+   * @return 方法参数
+   * @throws ParamException 参数个数错误, 无法转换为参数类型或方法没有流参数
+   */
+  public Object[] bind(List<Object> data, ChunkedInputStream stream) {
+    if (stream != null && streamParam < 0) {
+      throw new ParamException("参数错误: 方法没有流参数");
+    }
+
+    int size = data == null ? 0 : data.size();
+    if (size != types.length) {
+      throw new ParamException("参数错误: 需要 " + types.length
+          + " 个参数, 实际为 " + size + " 个");
+    }
+
+    Object[] args = new Object[size];
+    for (int i = 0; i < size; ++i) {
+      if (i == streamParam) {
+        // 输入流同时也是 `ReadableByteChannel`, 两种参数类型均可直接使用
+        args[i] = stream;
+        continue;
+      }
+      try {
+        args[i] = bindArg(i, data.get(i));
+      } catch (IOException | IllegalArgumentException e) {
+        throw new ParamException("参数错误: " + e.getMessage());
+      }
+    }
+    return args;
+  }
+
+  /**
+   * 绑定单个参数
+   *
+   * @param index 参数位置
+   * @param value 请求中的参数
+   * @return 方法参数
+   * @throws IOException 参数无法转换为参数类型
+   */
+  private Object bindArg(int index, Object value) throws IOException {
+    if (value instanceof TokenBuffer) {
+      TokenBuffer tokens = (TokenBuffer) value;
+
+      // `byte[]` 数据是以 Base64 字符串的形式传输, 按 SDK 支持的各种 Base64 格式解码
+      if (byteArray[index]) {
+        JsonParser parser = tokens.asParser();
+        if (parser.nextToken() == JsonToken.VALUE_STRING) {
+          return Base64Utils.decode(parser.getText());
+        }
+      }
+
+      try {
+        return readers[index].readValue(tokens.asParser());
+      } catch (IOException e) {
+        if (rawReaders[index] == null) {
+          throw e;
+        }
+        return rawReaders[index].readValue(tokens.asParser());
+      }
+    }
+
+    // 非 JSON 请求中的参数 (如已是 Java 对象)
+    if (value == null) {
+      return null;
+    }
+    if (byteArray[index] && value instanceof String) {
+      return Base64Utils.decode((String) value);
+    }
+    if (types[index].getRawClass().isInstance(value) &&
+        !types[index].hasGenericTypes()) {
+      return value;
+    }
+    return mapper.convertValue(value, types[index]);
+  }
+}
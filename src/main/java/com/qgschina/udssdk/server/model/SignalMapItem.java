@@ -1,5 +1,6 @@
 package com.qgschina.udssdk.server.model;
 
+import com.qgschina.udssdk.server.annotation.DispatchMode;
 import java.lang.reflect.Method;
 import lombok.Data;
 
@@ -12,4 +13,24 @@ public class SignalMapItem {
   private Object service;
 
   private Method method;
+
+  /**
+   * 由 {@link #method} 生成的调用器, 用于实际调用方法
+   */
+  private MethodInvoker invoker;
+
+  /**
+   * 由 {@link #method} 生成的参数绑定器, 用于将请求参数转为方法参数
+   */
+  private ParamBinder binder;
+
+  /**
+   * "方法调用"的执行方式, 信号触发不使用该字段
+   */
+  private DispatchMode dispatchMode;
+
+  /**
+   * "信号触发"的分区参数位置, 未指定时为 -1; 方法调用不使用该字段
+   */
+  private int keyParam = -1;
 }
@@ -0,0 +1,101 @@
+package com.qgschina.udssdk.server.model;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+
+/**
+ * 用于"信号订阅" Map 的 value
+ * <p>
+ * 记录订阅该信号的 Channel, 消息推送的序号, 以及用于断线重连后补发的最近推送的消息;
+ * 除订阅者集合外, 其他状态须在持有该对象锁时访问
+ */
+public class SubSignalItem {
+
+  /**
+   * 订阅该信号的 Channel ID
+   */
+  @Getter
+  private final Set<ChannelId> recipients = ConcurrentHashMap.newKeySet();
+
+  /**
+   * 最多保留的最近推送消息数
+   */
+  private final int replaySize;
+
+  /**
+   * 最近推送的消息, 按序号升序排列
+   */
+  private final Deque<ReplayEntry> replayBuffer = new ArrayDeque<>();
+
+  /**
+   * 最近一次消息推送的序号, 从 1 开始
+   */
+  @Getter
+  private long seq;
+
+  public SubSignalItem(int replaySize) {
+    this.replaySize = replaySize;
+  }
+
+  /**
+   * 生成下一次消息推送的序号
+   *
+   * @return 消息推送的序号
+   */
+  public long nextSeq() {
+    return ++seq;
+  }
+
+  /**
+   * 保留已推送的消息, 以便断线重连后补发
+   *
+   * @param seq   消息推送的序号
+   * @param frame 已编码的消息推送 JSON 数据帧, 由本对象负责释放
+   */
+  public void addReplay(long seq, ByteBuf frame) {
+    if (replaySize <= 0) {
+      frame.release();
+      return;
+    }
+
+    if (replayBuffer.size() >= replaySize) {
+      replayBuffer.pollFirst().frame.release();
+    }
+    replayBuffer.addLast(new ReplayEntry(seq, frame));
+  }
+
+  /**
+   * 获取序号大于指定值的已保留消息
+   *
+   * @param afterSeq 已收到的最后一条消息的序号
+   * @return 需补发的消息 JSON 数据帧, 均为共享数据的副本, 由调用方负责写出或释放
+   */
+  public List<ByteBuf> getReplay(long afterSeq) {
+    List<ByteBuf> result = new ArrayList<>();
+    for (ReplayEntry entry : replayBuffer) {
+      if (entry.seq > afterSeq) {
+        result.add(entry.frame.retainedDuplicate());
+      }
+    }
+    return result;
+  }
+
+  private static class ReplayEntry {
+
+    private final long seq;
+
+    private final ByteBuf frame;
+
+    private ReplayEntry(long seq, ByteBuf frame) {
+      this.seq = seq;
+      this.frame = frame;
+    }
+  }
+}
@@ -170,7 +170,7 @@ public class MainTest {
     boolean reached0 = latch.await(12, TimeUnit.SECONDS);
     System.out.printf("12 秒已到 (%s), 模拟关闭 Client 服务\n", !reached0);
 
-    // 关闭与 Server 端建立的信号订阅长连接
+    // 取消信号订阅
     subResult.getData().disconnectSub();
   }
 
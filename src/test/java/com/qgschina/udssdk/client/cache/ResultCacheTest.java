@@ -0,0 +1,53 @@
+package com.qgschina.udssdk.client.cache;
+
+import com.qgschina.udssdk.client.constant.UdsCode;
+import com.qgschina.udssdk.client.model.UdsResult;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ResultCacheTest {
+
+  private final ResultCache cache = new ResultCache(new CacheConfig());
+
+  @Test
+  public void cachesSuccessfulResult() {
+    String key = ResultCache.genKey(new Object[]{1, 2});
+    cache.put(key, result(UdsCode.SUCCESS, 3), cache.generation());
+
+    UdsResult<Object> cached = cache.get(key);
+    assertNotNull(cached);
+    assertEquals(3, cached.getData());
+  }
+
+  @Test
+  public void ignoresResultOfCallStartedBeforeInvalidate() {
+    String key = ResultCache.genKey(new Object[]{1, 2});
+
+    // 调用发出后、返回前缓存被清空, 返回的结果可能已过时
+    long generation = cache.generation();
+    cache.invalidateAll();
+    cache.put(key, result(UdsCode.SUCCESS, 3), generation);
+    assertNull(cache.get(key));
+
+    // 清空后发起的调用仍可缓存
+    cache.put(key, result(UdsCode.SUCCESS, 4), cache.generation());
+    assertEquals(4, cache.get(key).getData());
+  }
+
+  @Test
+  public void doesNotCacheFailedResult() {
+    String key = ResultCache.genKey(new Object[0]);
+    cache.put(key, result(UdsCode.METHOD_CALL_ERROR, null), cache.generation());
+    assertNull(cache.get(key));
+  }
+
+  private static UdsResult<Object> result(UdsCode code, Object data) {
+    UdsResult<Object> result = new UdsResult<>();
+    result.setCode(code);
+    result.setData(data);
+    return result;
+  }
+}
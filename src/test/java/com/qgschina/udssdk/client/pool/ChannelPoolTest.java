@@ -0,0 +1,70 @@
+package com.qgschina.udssdk.client.pool;
+
+import com.qgschina.udssdk.common.exception.UdsSdkException;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChannelPoolTest {
+
+  private static final String SOCKET_PATH = "/tmp/channel-pool-test.sock";
+
+  @Test
+  public void sharesPoolOnlyForSameConfig() {
+    ChannelPool a = ChannelPool.get(SOCKET_PATH, 1, new PoolConfig());
+    ChannelPool b = ChannelPool.get(SOCKET_PATH, 1, new PoolConfig());
+    PoolConfig other = new PoolConfig();
+    other.setMaxSize(1);
+    ChannelPool c = ChannelPool.get(SOCKET_PATH, 1, other);
+
+    assertSame(a, b);
+    assertNotSame(a, c);
+
+    a.close();
+    b.close();
+    c.close();
+  }
+
+  @Test
+  public void closesAfterLastUser() throws InterruptedException {
+    PoolConfig config = new PoolConfig();
+    config.setMinIdle(2);
+    ChannelPool a = ChannelPool.get(SOCKET_PATH, 1, config);
+    ChannelPool b = ChannelPool.get(SOCKET_PATH, 1, config);
+
+    a.close();
+    assertFalse(isClosed(b.acquire()));
+
+    b.close();
+    assertTrue(isClosed(b.acquire()));
+
+    // 关闭后重新获取的是新的连接池
+    ChannelPool c = ChannelPool.get(SOCKET_PATH, 1, config);
+    assertNotSame(b, c);
+    c.close();
+  }
+
+  /**
+   * 判断获取连接是否因连接池已关闭而失败
+   * <p>
+   * Socket 文件不存在, 故连接池未关闭时获取连接因无法连接而失败
+   */
+  private static boolean isClosed(CompletableFuture<PooledChannel> future)
+      throws InterruptedException {
+    try {
+      future.get();
+      fail("不应获取到连接");
+      return false;
+    } catch (ExecutionException e) {
+      return e.getCause() instanceof UdsSdkException &&
+          "连接池已关闭".equals(e.getCause().getMessage());
+    }
+  }
+}
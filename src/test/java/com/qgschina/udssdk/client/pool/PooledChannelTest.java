@@ -0,0 +1,120 @@
+package com.qgschina.udssdk.client.pool;
+
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.channel.ChannelOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PooledChannelTest {
+
+  private EmbeddedChannel channel;
+
+  private PooledChannel pooled;
+
+  @Before
+  public void setUp() {
+    channel = new EmbeddedChannel();
+    ChannelOperations<?, ?> ops = new ChannelOperations<>(
+        Connection.from(channel), ConnectionObserver.emptyListener());
+    ChannelOperations.addReactiveBridge(channel, (conn, observer, msg) -> ops,
+        ConnectionObserver.emptyListener());
+    ops.bind();
+    pooled = new PooledChannel(ops);
+  }
+
+  @After
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void matchesResponsesByRequestId() {
+    CompletableFuture<String> first = send(1);
+    CompletableFuture<String> second = send(2);
+
+    // 响应的顺序与请求不同
+    respond("{\"id\":2,\"data\":\"b\"}");
+    assertFalse(first.isDone());
+    assertEquals("{\"id\":2,\"data\":\"b\"}", second.join());
+
+    respond("{\"id\":1,\"data\":\"a\"}");
+    assertEquals("{\"id\":1,\"data\":\"a\"}", first.join());
+    assertTrue(pooled.isRequestIdSupported());
+  }
+
+  @Test
+  public void matchesResponsesWithoutIdBySendOrder() {
+    CompletableFuture<String> first = send(1);
+    CompletableFuture<String> second = send(2);
+
+    respond("{\"data\":\"a\"}");
+    respond("{\"data\":\"b\"}");
+    assertEquals("{\"data\":\"a\"}", first.join());
+    assertEquals("{\"data\":\"b\"}", second.join());
+    assertFalse(pooled.isRequestIdSupported());
+  }
+
+  @Test
+  public void dropsResponseOfCancelledRequest() {
+    CompletableFuture<String> first = send(1);
+    CompletableFuture<String> second = send(2);
+    pooled.cancel(1);
+
+    respond("{\"id\":1,\"data\":\"late\"}");
+    respond("{\"id\":2,\"data\":\"b\"}");
+    assertFalse(first.isDone());
+    assertEquals("{\"id\":2,\"data\":\"b\"}", second.join());
+  }
+
+  @Test
+  public void failsPendingRequestsWhenClosed() {
+    CompletableFuture<String> first = send(1);
+    channel.close();
+    assertTrue(first.isCompletedExceptionally());
+  }
+
+  @Test
+  public void cancelsHandshakeTimeoutOnResponse() {
+    CompletableFuture<Void> handshake = pooled.negotiate(1024 * 1024, 60000,
+        PayloadCodecs.JSON, 0);
+    ReferenceCountUtil.release(channel.readOutbound());
+    // 握手超时任务等待执行
+    assertTrue(channel.runScheduledPendingTasks() > 0);
+
+    // Server 选择继续使用 JSON 数据帧
+    respond("{\"id\":0,\"code\":0,\"msg\":\"握手成功\"," +
+        "\"data\":{\"framing\":\"json\"}}");
+    handshake.join();
+    assertEquals(-1, channel.runScheduledPendingTasks());
+  }
+
+  private CompletableFuture<String> send(long id) {
+    CompletableFuture<String> future = pooled.request(id,
+        text("{\"id\":" + id + "}"),
+        (frame, codec) -> frame.toString(StandardCharsets.UTF_8));
+    ReferenceCountUtil.release(channel.readOutbound());
+    return future;
+  }
+
+  private void respond(String json) {
+    channel.writeInbound(text(json));
+  }
+
+  private static ByteBuf text(String s) {
+    return Unpooled.copiedBuffer(s, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,79 @@
+package com.qgschina.udssdk.client.pool;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReplicaSetTest {
+
+  @Test
+  public void closesPoolsAfterLastUser() {
+    PoolConfig config = new PoolConfig();
+    ReplicaSet a = ReplicaSet.get("/tmp/replica-set-test", 1, config);
+    ReplicaSet b = ReplicaSet.get("/tmp/replica-set-test", 1, config);
+    assertSame(a, b);
+    ChannelPool pool = a.choose(null).getPool();
+
+    a.close();
+    assertFalse(isClosed(pool));
+
+    b.close();
+    assertTrue(isClosed(pool));
+
+    // 关闭后重新获取的是新的副本集合
+    ReplicaSet c = ReplicaSet.get("/tmp/replica-set-test", 1, config);
+    assertNotSame(a, c);
+    c.close();
+  }
+
+  @Test
+  public void hashIsStable() {
+    long hash = ReplicaSet.hash("/tmp/ns.0#1");
+    assertEquals(hash, ReplicaSet.hash("/tmp/ns.0#1"));
+    assertTrue(hash != ReplicaSet.hash("/tmp/ns.0#2"));
+  }
+
+  @Test
+  public void spreadsKeysEvenlyOverRing() {
+    int replicas = 3;
+    // 与 ReplicaSet 相同, 每个副本 160 个虚拟节点
+    NavigableMap<Long, Integer> ring = new TreeMap<>();
+    for (int r = 0; r < replicas; ++r) {
+      for (int i = 0; i < 160; ++i) {
+        ring.put(ReplicaSet.hash("/tmp/ns." + r + "#" + i), r);
+      }
+    }
+
+    int keys = 30000;
+    int[] counts = new int[replicas];
+    for (int k = 0; k < keys; ++k) {
+      Map.Entry<Long, Integer> node =
+          ring.ceilingEntry(ReplicaSet.hash("k" + k));
+      counts[(node == null ? ring.firstEntry() : node).getValue()]++;
+    }
+
+    for (int count : counts) {
+      double share = (double) count / keys;
+      assertTrue("share " + share, share > 0.25 && share < 0.42);
+    }
+  }
+
+  private static boolean isClosed(ChannelPool pool) {
+    try {
+      pool.acquire().join();
+      return false;
+    } catch (CompletionException e) {
+      // Socket 文件不存在, 未关闭时因无法连接而失败
+      return "连接池已关闭".equals(e.getCause().getMessage());
+    }
+  }
+}
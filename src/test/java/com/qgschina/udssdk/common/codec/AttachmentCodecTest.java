@@ -0,0 +1,108 @@
+package com.qgschina.udssdk.common.codec;
+
+import com.qgschina.udssdk.common.util.JsonEngine;
+import com.qgschina.udssdk.common.util.PayloadCodec;
+import com.qgschina.udssdk.common.util.PayloadCodecs;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class AttachmentCodecTest {
+
+  /**
+   * 形如附件序号或以转义前缀开头的普通字符串
+   */
+  private static final List<String> LOOKALIKES = Arrays.asList(
+      AttachmentCodec.MARKER + "0", AttachmentCodec.MARKER + "1",
+      AttachmentCodec.ESCAPE, AttachmentCodec.ESCAPE + AttachmentCodec.ESCAPE,
+      AttachmentCodec.ESCAPE + "x", "plain", "");
+
+  @Test
+  public void keepsStringsThatLookLikeAttachments() throws IOException {
+    for (String name : new String[]{"json", "cbor"}) {
+      AttachmentCodec codec = AttachmentCodec.of(PayloadCodecs.get(name));
+
+      Map<String, Object> value = new LinkedHashMap<>();
+      value.put("bytes", new byte[]{1, 2, 3});
+      value.put("strings", LOOKALIKES);
+      value.put(AttachmentCodec.MARKER + "0", "key");
+      value.put("last", new byte[]{4});
+
+      Map<String, Object> decoded = roundTrip(codec, value);
+      assertArrayEquals(name, new byte[]{1, 2, 3},
+          (byte[]) decoded.get("bytes"));
+      assertArrayEquals(name, new byte[]{4}, (byte[]) decoded.get("last"));
+      assertEquals(name, LOOKALIKES, decoded.get("strings"));
+      assertEquals(name, "key", decoded.get(AttachmentCodec.MARKER + "0"));
+    }
+  }
+
+  @Test
+  public void readsEscapedStringsIntoTypedFields() throws IOException {
+    AttachmentCodec codec = AttachmentCodec.of(PayloadCodecs.JSON);
+    Holder holder = new Holder();
+    holder.setNames(LOOKALIKES.toArray(new String[0]));
+    holder.setData(new byte[]{9});
+    holder.setText(AttachmentCodec.MARKER + "0");
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(JsonEngine.getMapper().writer(), holder, out);
+    Holder decoded = codec.decode(Unpooled.wrappedBuffer(out.toByteArray()),
+        JsonEngine.getMapper().readerFor(Holder.class));
+
+    assertEquals(LOOKALIKES, Arrays.asList(decoded.getNames()));
+    assertArrayEquals(new byte[]{9}, decoded.getData());
+    assertEquals(AttachmentCodec.MARKER + "0", decoded.getText());
+  }
+
+  private static Map<String, Object> roundTrip(PayloadCodec codec,
+      Object value) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(JsonEngine.getMapper().writer(), value, out);
+    return ((AttachmentCodec) codec).decode(
+        Unpooled.wrappedBuffer(out.toByteArray()),
+        JsonEngine.getMapper().readerFor(Map.class));
+  }
+
+  public static class Holder {
+
+    private String[] names;
+
+    private byte[] data;
+
+    private String text;
+
+    public String[] getNames() {
+      return names;
+    }
+
+    public void setNames(String[] names) {
+      this.names = names;
+    }
+
+    public byte[] getData() {
+      return data;
+    }
+
+    public void setData(byte[] data) {
+      this.data = data;
+    }
+
+    public String getText() {
+      return text;
+    }
+
+    public void setText(String text) {
+      this.text = text;
+    }
+  }
+}
@@ -0,0 +1,219 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChunkStreamTest {
+
+  private static final long ID = 9;
+
+  private EmbeddedChannel channel;
+
+  @Before
+  public void setUp() {
+    channel = new EmbeddedChannel();
+  }
+
+  @After
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void pausesReadingWhenFullAndResumesAfterHalfIsRead()
+      throws IOException {
+    ChunkReceiver receiver = ChunkReceiver.of(channel);
+    ChunkedInputStream stream = receiver.open(ID);
+
+    for (int i = 0; i < ChunkedInputStream.MAX_QUEUED; ++i) {
+      assertTrue(channel.config().isAutoRead());
+      receiver.onChunk(chunk(i, false, false));
+    }
+    assertFalse(channel.config().isAutoRead());
+
+    // 取走一半后恢复读取
+    int half = ChunkedInputStream.MAX_QUEUED / 2;
+    for (int i = 0; i < half - 1; ++i) {
+      assertEquals(i, stream.read());
+      assertFalse(channel.config().isAutoRead());
+    }
+    assertEquals(half - 1, stream.read());
+    assertTrue(channel.config().isAutoRead());
+
+    receiver.onChunk(chunk(100, true, false));
+    assertTrue(stream.received().isDone());
+    for (int i = half; i < ChunkedInputStream.MAX_QUEUED; ++i) {
+      assertEquals(i, stream.read());
+    }
+    assertEquals(100, stream.read());
+    assertEquals(-1, stream.read());
+  }
+
+  @Test
+  public void failsReadAfterAbortAndResumesReading() {
+    ChunkReceiver receiver = ChunkReceiver.of(channel);
+    ChunkedInputStream stream = receiver.open(ID);
+    for (int i = 0; i < ChunkedInputStream.MAX_QUEUED; ++i) {
+      receiver.onChunk(chunk(i, false, false));
+    }
+    assertFalse(channel.config().isAutoRead());
+
+    receiver.onChunk(chunk(0, false, true));
+    assertTrue(channel.config().isAutoRead());
+    // 之后的数据块已无对应的输入流
+    assertFalse(receiver.onChunk(chunk(0, true, false)));
+
+    try {
+      while (stream.read() >= 0) {
+        // 先读出中止前已收到的数据
+      }
+      fail("中止后应读取失败");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("中止"));
+    }
+  }
+
+  @Test
+  public void failsOpenStreamsWhenChannelCloses() {
+    ChunkedInputStream stream = ChunkReceiver.of(channel).open(ID);
+    channel.close();
+    try {
+      stream.read();
+      fail("连接断开后应读取失败");
+    } catch (IOException expected) {
+      // 连接已断开
+    }
+  }
+
+  @Test
+  public void writesSourceAsChunksAndClosesIt() throws IOException {
+    byte[] data = new byte[ChunkWriter.CHUNK_SIZE * 2 + 10];
+    for (int i = 0; i < data.length; ++i) {
+      data[i] = (byte) i;
+    }
+    TrackingStream source = new TrackingStream(new ByteArrayInputStream(data));
+
+    ChunkWriter.write(channel, ID, source, () -> false).join();
+    assertTrue(source.closed);
+
+    // 写出的数据块可由另一端的输入流还原
+    EmbeddedChannel peer = new EmbeddedChannel();
+    ChunkReceiver receiver = ChunkReceiver.of(peer);
+    ChunkedInputStream stream = receiver.open(ID);
+    int chunks = 0;
+    UdsFrame frame;
+    while ((frame = channel.readOutbound()) != null) {
+      assertTrue(frame.isChunk());
+      assertEquals(Long.valueOf(ID), frame.getId());
+      receiver.onChunk(frame);
+      frame.release();
+      ++chunks;
+    }
+    assertEquals(3, chunks);
+    assertArrayEquals(data, readAll(stream));
+    peer.finishAndReleaseAll();
+  }
+
+  @Test
+  public void abortsWhenSourceFails() {
+    AtomicBoolean failed = new AtomicBoolean();
+    TrackingStream source = new TrackingStream(new InputStream() {
+      @Override
+      public int read() throws IOException {
+        failed.set(true);
+        throw new IOException("读取失败");
+      }
+    });
+
+    CompletableFuture<Void> done =
+        ChunkWriter.write(channel, ID, source, () -> false);
+    try {
+      done.join();
+      fail("读取失败时应以异常完成");
+    } catch (RuntimeException expected) {
+      // 读取失败
+    }
+    assertTrue(failed.get());
+    assertTrue(source.closed);
+
+    UdsFrame frame = channel.readOutbound();
+    assertTrue(frame.isAborted());
+    assertNull(channel.readOutbound());
+  }
+
+  @Test
+  public void abortsWhenCancelled() {
+    TrackingStream source = new TrackingStream(
+        new ByteArrayInputStream(new byte[10]));
+
+    CompletableFuture<Void> done =
+        ChunkWriter.write(channel, ID, source, () -> true);
+    try {
+      done.join();
+      fail("取消时应以异常完成");
+    } catch (RuntimeException expected) {
+      // 已取消
+    }
+    assertTrue(source.closed);
+    UdsFrame frame = channel.readOutbound();
+    assertTrue(frame.isAborted());
+  }
+
+  private static UdsFrame chunk(int value, boolean last, boolean aborted) {
+    return UdsFrame.chunk(ID, aborted ? Unpooled.EMPTY_BUFFER :
+        Unpooled.buffer(1).writeByte(value), last, aborted);
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buf = new byte[8192];
+    int n;
+    while ((n = in.read(buf)) >= 0) {
+      out.write(buf, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private static class TrackingStream extends InputStream {
+
+    private final InputStream in;
+
+    private volatile boolean closed;
+
+    TrackingStream(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return in.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return in.read(b, off, len);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}
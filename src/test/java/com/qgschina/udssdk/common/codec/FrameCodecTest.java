@@ -0,0 +1,158 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.json.JsonObjectDecoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FrameCodecTest {
+
+  private static final int MAX_BYTES = 64;
+
+  private EmbeddedChannel channel;
+
+  @Before
+  public void setUp() {
+    // 与 FrameCodec#install 相同的 Pipeline
+    channel = new EmbeddedChannel();
+    channel.pipeline()
+        .addLast(FrameCodec.DECODER, new JsonObjectDecoder(MAX_BYTES))
+        .addFirst(FrameCodec.ENCODER, new FrameEncoder());
+  }
+
+  @After
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void switchesToBinaryAfterHandshake() {
+    assertFalse(FrameCodec.isBinary(channel));
+
+    // 握手阶段按 JSON 格式读写
+    channel.writeInbound(text("{\"type\":\"handshake\"}{\"id\":1}"));
+    assertEquals("{\"type\":\"handshake\"}", readText(channel.readInbound()));
+    assertEquals("{\"id\":1}", readText(channel.readInbound()));
+
+    channel.writeOutbound(new UdsFrame(null, text("{\"code\":0}")));
+    assertEquals("{\"code\":0}", readText(channel.readOutbound()));
+
+    FrameCodec.upgrade(channel, MAX_BYTES);
+    assertTrue(FrameCodec.isBinary(channel));
+    assertTrue(channel.pipeline().get(FrameCodec.DECODER)
+        instanceof FrameDecoder);
+
+    ByteBuf bytes = encode(new UdsFrame(5L, text("{\"id\":5}")));
+    assertEquals(UdsFrame.HEADER_LENGTH + 8, bytes.readableBytes());
+    assertEquals(8, bytes.getInt(0));
+
+    channel.writeInbound(bytes);
+    UdsFrame frame = channel.readInbound();
+    assertEquals(Long.valueOf(5), frame.getId());
+    assertEquals("{\"id\":5}", readText(frame));
+  }
+
+  @Test
+  public void reassemblesFrameSplitAcrossReads() {
+    FrameCodec.upgrade(channel, MAX_BYTES);
+    ByteBuf bytes = encode(new UdsFrame(7L, text("hello, split frame"), true));
+    ByteBuf next = encode(new UdsFrame(8L, text("next")));
+
+    // 逐字节写入, 帧头及数据均跨越多次读取
+    while (bytes.isReadable()) {
+      channel.writeInbound(bytes.readRetainedSlice(1));
+      if (bytes.isReadable()) {
+        assertNull(channel.readInbound());
+      }
+    }
+    bytes.release();
+
+    UdsFrame frame = channel.readInbound();
+    assertEquals(Long.valueOf(7), frame.getId());
+    assertTrue(frame.isEncoded());
+    assertEquals("hello, split frame", readText(frame));
+
+    // 一次读取中包含多个数据帧
+    ByteBuf both = Unpooled.wrappedBuffer(
+        encode(new UdsFrame(9L, text("a"))), next);
+    channel.writeInbound(both);
+    assertEquals("a", readText(channel.readInbound()));
+    assertEquals("next", readText(channel.readInbound()));
+  }
+
+  @Test
+  public void skipsOversizedFrameAndKeepsReading() {
+    FrameCodec.upgrade(channel, MAX_BYTES);
+    byte[] large = new byte[MAX_BYTES + 1];
+    ByteBuf oversized = encode(new UdsFrame(3L, Unpooled.wrappedBuffer(large)));
+    ByteBuf next = encode(new UdsFrame(4L, text("ok")));
+
+    // 帧头到达后即通知, 其余数据跨越多次读取被跳过
+    channel.writeInbound(oversized.readRetainedSlice(UdsFrame.HEADER_LENGTH + 10));
+    UdsFrame frame = channel.readInbound();
+    assertTrue(frame.isOversized());
+    assertEquals(Long.valueOf(3), frame.getId());
+    assertFalse(frame.content().isReadable());
+    frame.release();
+
+    channel.writeInbound(Unpooled.wrappedBuffer(oversized, next));
+    frame = channel.readInbound();
+    assertFalse(frame.isOversized());
+    assertEquals(Long.valueOf(4), frame.getId());
+    assertEquals("ok", readText(frame));
+    assertTrue(channel.isActive());
+  }
+
+  @Test
+  public void keepsAbsentIdDistinctFromZero() {
+    FrameCodec.upgrade(channel, MAX_BYTES);
+    ByteBuf withoutId = encode(new UdsFrame(null, text("x")));
+    ByteBuf zeroId = encode(new UdsFrame(0L, text("y")));
+    assertEquals(0, withoutId.getByte(5) & UdsFrame.FLAG_HAS_ID);
+    assertEquals(UdsFrame.FLAG_HAS_ID, zeroId.getByte(5) & UdsFrame.FLAG_HAS_ID);
+
+    channel.writeInbound(withoutId, zeroId);
+    UdsFrame frame = channel.readInbound();
+    assertNull(frame.getId());
+    frame.release();
+
+    frame = channel.readInbound();
+    assertEquals(Long.valueOf(0), frame.getId());
+    frame.release();
+  }
+
+  /**
+   * 经由编码器写出数据帧, 并取得写出的字节
+   */
+  private ByteBuf encode(UdsFrame frame) {
+    channel.writeOutbound(frame);
+    ByteBuf out = channel.readOutbound();
+    ByteBuf copy = Unpooled.copiedBuffer(out);
+    out.release();
+    return copy;
+  }
+
+  private static ByteBuf text(String s) {
+    return Unpooled.copiedBuffer(s, StandardCharsets.UTF_8);
+  }
+
+  private static String readText(Object msg) {
+    ByteBuf buf = msg instanceof UdsFrame ?
+        ((UdsFrame) msg).content() : (ByteBuf) msg;
+    try {
+      return buf.toString(StandardCharsets.UTF_8);
+    } finally {
+      buf.release();
+    }
+  }
+}
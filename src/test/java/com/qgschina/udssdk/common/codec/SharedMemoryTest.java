@@ -0,0 +1,161 @@
+package com.qgschina.udssdk.common.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class SharedMemoryTest {
+
+  private static final Path DIRECTORY = Paths.get("/dev/shm");
+
+  private EmbeddedChannel channel;
+
+  @Before
+  public void setUp() {
+    assumeTrue("/dev/shm 不可用", SharedMemory.isAvailable());
+    channel = new EmbeddedChannel();
+  }
+
+  @After
+  public void tearDown() {
+    if (channel != null) {
+      channel.finishAndReleaseAll();
+    }
+  }
+
+  @Test
+  public void opensSegmentAndDeletesItsName() {
+    byte[] data = "shared payload".getBytes(StandardCharsets.UTF_8);
+    UdsFrame shared = share(5L, data);
+    String name = segmentName(shared);
+    assertTrue(Files.exists(DIRECTORY.resolve(name)));
+
+    UdsFrame opened = open(shared, 1024);
+    try {
+      assertNull(opened.getFailure());
+      assertEquals(Long.valueOf(5), opened.getId());
+      assertTrue(opened.isShared());
+      byte[] read = new byte[data.length];
+      opened.content().getBytes(0, read);
+      assertEquals(new String(data, StandardCharsets.UTF_8),
+          new String(read, StandardCharsets.UTF_8));
+      // 映射后即删除文件名
+      assertFalse(Files.exists(DIRECTORY.resolve(name)));
+    } finally {
+      opened.release();
+    }
+
+    // 再次打开同一段时已不存在
+    UdsFrame again = SharedMemory.open(shared.getKind(), shared.getFlags(), 5,
+        Unpooled.copiedBuffer(descriptor(name, data.length),
+            StandardCharsets.UTF_8), 1024);
+    assertTrue(again.getFailure().contains("已不存在"));
+    shared.release();
+  }
+
+  @Test
+  public void reportsOversizedSegmentAndDeletesIt() {
+    UdsFrame shared = share(6L, new byte[100]);
+    String name = segmentName(shared);
+
+    UdsFrame opened = open(shared, 10);
+    assertTrue(opened.isOversized());
+    assertFalse(opened.content().isReadable());
+    assertFalse(Files.exists(DIRECTORY.resolve(name)));
+    shared.release();
+  }
+
+  @Test
+  public void rejectsNamesOutsideSegmentPattern() {
+    for (String name : new String[]{"../etc/passwd",
+        "uds-sdk-0123456789abcdef.lock", "other-file"}) {
+      UdsFrame opened = SharedMemory.open(UdsFrame.KIND_MESSAGE,
+          UdsFrame.FLAG_SHARED, 1, Unpooled.copiedBuffer(
+              descriptor(name, 1), StandardCharsets.UTF_8), 1024);
+      assertTrue(name, opened.getFailure().startsWith("共享内存段描述错误"));
+    }
+  }
+
+  @Test
+  public void deletesUnreceivedSegmentsWhenChannelCloses() {
+    SharedMemory.track(channel);
+    UdsFrame shared = share(7L, new byte[10]);
+    Path file = DIRECTORY.resolve(segmentName(shared));
+    shared.release();
+    assertTrue(Files.exists(file));
+
+    channel.close();
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  public void sweepsSegmentsLeftByExitedProcesses() throws IOException {
+    // 已退出的进程: 租约文件不存在
+    Path orphan = DIRECTORY.resolve("uds-sdk-00000000deadbeef-1");
+    // 存活的进程: 持有租约文件的文件锁
+    Path liveLock = DIRECTORY.resolve("uds-sdk-00000000cafebabe.lock");
+    Path live = DIRECTORY.resolve("uds-sdk-00000000cafebabe-1");
+    // 先持有文件锁再写出共享内存段, 以免后台清理先将其视为遗留
+    try (FileChannel lock = FileChannel.open(liveLock, EnumSet.of(
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE))) {
+      assertNotNull(lock.tryLock());
+      Files.write(orphan, new byte[1]);
+      Files.write(live, new byte[1]);
+
+      SharedMemory.sweep();
+      assertFalse(Files.exists(orphan));
+      assertTrue(Files.exists(live));
+    } finally {
+      Files.deleteIfExists(orphan);
+      Files.deleteIfExists(live);
+      Files.deleteIfExists(liveLock);
+    }
+  }
+
+  private UdsFrame share(long id, byte[] data) {
+    UdsFrame frame = new UdsFrame(id, Unpooled.wrappedBuffer(data));
+    try {
+      UdsFrame shared = SharedMemory.share(channel, frame);
+      assertTrue(shared.isShared());
+      return shared;
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    } finally {
+      frame.release();
+    }
+  }
+
+  private static UdsFrame open(UdsFrame shared, int maxLength) {
+    return SharedMemory.open(shared.getKind(), shared.getFlags(),
+        shared.getId(), shared.content(), maxLength);
+  }
+
+  private static String segmentName(UdsFrame shared) {
+    String json = shared.content().toString(StandardCharsets.UTF_8);
+    int start = json.indexOf("uds-sdk-");
+    return json.substring(start, json.indexOf('"', start));
+  }
+
+  private static String descriptor(String name, long length) {
+    return "{\"name\":\"" + name + "\",\"length\":" + length + "}";
+  }
+}
@@ -0,0 +1,75 @@
+package com.qgschina.udssdk.common.util;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class PreEncodedValueTest {
+
+  private final ObjectWriter writer = JsonEngine.getMapper().writer();
+
+  private final ObjectReader reader =
+      JsonEngine.getMapper().readerFor(Map.class);
+
+  @Test
+  public void writesSameDataAsOriginalForEachCodec() throws IOException {
+    Map<String, Object> value = new LinkedHashMap<>();
+    value.put("name", "sum");
+    value.put("parameterTypes", Arrays.asList("int", "Map"));
+    value.put("count", 3);
+    value.put("ratio", 0.5);
+    value.put("nested", Collections.singletonMap("ok", true));
+    PreEncodedValue encoded = new PreEncodedValue(value);
+
+    for (String name : new String[]{"json", "cbor"}) {
+      PayloadCodec codec = PayloadCodecs.get(name);
+      assertNotNull(name, codec);
+
+      // 同一实例多次写出的结果一致
+      for (int i = 0; i < 2; ++i) {
+        Map<String, Object> decoded = roundTrip(codec,
+            Collections.singletonMap("data", encoded));
+        assertEquals(name, value, decoded.get("data"));
+      }
+    }
+  }
+
+  @Test
+  public void cborRoundTripsBinaryAndNumbers() throws IOException {
+    Map<String, Object> value = new LinkedHashMap<>();
+    value.put("bytes", new byte[]{0, 1, 2, (byte) 0xff});
+    value.put("long", Long.MAX_VALUE);
+    value.put("negative", -12345);
+    value.put("double", 1.25);
+    value.put("text", "中文");
+
+    Map<String, Object> decoded =
+        roundTrip(PayloadCodecs.get("cbor"), value);
+    assertArrayEquals((byte[]) value.get("bytes"),
+        (byte[]) decoded.get("bytes"));
+    assertEquals(Long.MAX_VALUE, decoded.get("long"));
+    assertEquals(-12345, decoded.get("negative"));
+    assertEquals(1.25, decoded.get("double"));
+    assertEquals("中文", decoded.get("text"));
+  }
+
+  private Map<String, Object> roundTrip(PayloadCodec codec, Object value)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    codec.encode(writer, value, out);
+    return codec.decode(reader,
+        new ByteArrayInputStream(out.toByteArray()));
+  }
+}
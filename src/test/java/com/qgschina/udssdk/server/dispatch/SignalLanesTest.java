@@ -0,0 +1,76 @@
+package com.qgschina.udssdk.server.dispatch;
+
+import com.qgschina.udssdk.server.annotation.RejectPolicy;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SignalLanesTest {
+
+  private static final int CAPACITY = 3;
+
+  private SignalLanes lanes;
+
+  @After
+  public void shutdown() {
+    if (lanes != null) {
+      lanes.shutdown();
+    }
+  }
+
+  @Test
+  public void discardOldestKeepsLaneQueueBounded() throws Exception {
+    DispatchConfig config = new DispatchConfig();
+    config.setSignalLanes(1);
+    lanes = new SignalLanes(config);
+    lanes.register("slow", CAPACITY, RejectPolicy.DISCARD_OLDEST);
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    lanes.submit("slow", null, () -> {
+      started.countDown();
+      await(release);
+    });
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    // 通道线程被占用期间持续触发
+    List<Integer> executed = new ArrayList<>();
+    CountDownLatch done = new CountDownLatch(CAPACITY);
+    for (int i = 0; i < 10000; ++i) {
+      int n = i;
+      lanes.submit("slow", null, () -> {
+        synchronized (executed) {
+          executed.add(n);
+        }
+        done.countDown();
+      });
+      assertTrue(lanes.queuedInLanes() <= CAPACITY);
+    }
+    assertEquals(CAPACITY, lanes.queuedInLanes());
+
+    // 仅执行最后的几次触发
+    release.countDown();
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    Thread.sleep(100);
+    synchronized (executed) {
+      assertEquals(Arrays.asList(9997, 9998, 9999), executed);
+    }
+    assertEquals(0, lanes.queuedInLanes());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}